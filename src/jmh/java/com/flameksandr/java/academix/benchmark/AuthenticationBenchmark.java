@@ -0,0 +1,53 @@
+package com.flameksandr.java.academix.benchmark;
+
+import com.flameksandr.java.academix.config.AuthProperties;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.security.TokenClaims;
+import com.flameksandr.java.academix.security.TokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность проверки токена доступа против проверки пароля bcrypt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    @Param({"10"})
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("password123");
+
+        AuthProperties properties = new AuthProperties();
+        properties.setSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        tokenService = new TokenService(properties);
+        token = tokenService.issue(new User(1, "john_doe", "john@example.com", hash, "John Doe", Role.STUDENT, null, null, 0L, null));
+    }
+
+    @Benchmark
+    public TokenClaims verifyToken() {
+        return tokenService.verify(token);
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        return encoder.matches("password123", hash);
+    }
+}
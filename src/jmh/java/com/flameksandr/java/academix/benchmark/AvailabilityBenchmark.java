@@ -0,0 +1,53 @@
+package com.flameksandr.java.academix.benchmark;
+
+import com.flameksandr.java.academix.cache.BloomFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка «email свободен» по фильтру Блума на миллион занятых адресов.
+ * В {@code setUp} печатаются размер фильтра и доля ложноположительных ответов на свободных адресах.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    private static final int USERS = 1_000_000;
+
+    @Param({"0.01", "0.001"})
+    private double falsePositiveRate;
+
+    private BloomFilter filter;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        filter = BloomFilter.create(USERS, falsePositiveRate);
+        for (int i = 0; i < USERS; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < USERS; i++) {
+            if (filter.mightContain("free" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        System.out.printf("%n%d users: %d KiB, %d hashes, false positives %.4f%%%n",
+                USERS, filter.sizeInBytes() / 1024, filter.getHashCount(), 100.0 * falsePositives / USERS);
+    }
+
+    @Benchmark
+    public boolean freeEmail() {
+        return filter.mightContain("free" + (next++ & 0xFFFFF) + "@example.com");
+    }
+
+    @Benchmark
+    public boolean takenEmail() {
+        return filter.mightContain("user" + (next++ % USERS) + "@example.com");
+    }
+}
@@ -0,0 +1,91 @@
+package com.flameksandr.java.academix.benchmark;
+
+import com.flameksandr.java.academix.AcademixApplication;
+import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Опрос профиля клиентами: {@code GET /api/users/email/{email}} без условия и с {@code If-None-Match}
+ * (пользователь не меняется, поэтому условный запрос всегда получает 304).
+ * {@code cacheSize=0} отключает кэш пользователей: свежесть проверяется запросом одной версии.
+ * Время — задержка одного запроса через HTTP; число байт ответа (статус, заголовки и тело)
+ * печатается при старте каждого варианта.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(4)
+@Fork(1)
+public class ConditionalGetBenchmark {
+
+    @Param({"unconditional", "if-none-match"})
+    private String request;
+
+    @Param({"10000", "0"})
+    private String cacheSize;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest poll;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Аргументами командной строки: builder.properties() перекрыл бы application.properties из test-classpath
+        context = new SpringApplicationBuilder(AcademixApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:etag;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--academix.password.strength=4",
+                "--academix.user-cache.maximum-size=" + cacheSize,
+                "--logging.level.root=warn");
+        context.getBean(UserService.class)
+                .createUser(new UserDTO(null, "poll_user", "poll@example.com", "password123", "Polling User", Role.STUDENT));
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        URI uri = URI.create("http://localhost:" + port + "/api/users/email/poll@example.com");
+        httpClient = HttpClient.newHttpClient();
+        HttpResponse<byte[]> first = httpClient.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofByteArray());
+        String eTag = first.headers().firstValue("ETag").orElseThrow();
+        poll = "if-none-match".equals(request)
+                ? HttpRequest.newBuilder(uri).header("If-None-Match", eTag).build()
+                : HttpRequest.newBuilder(uri).build();
+
+        HttpResponse<byte[]> sample = httpClient.send(poll, HttpResponse.BodyHandlers.ofByteArray());
+        System.out.printf("%s: status %d, %d bytes per response%n", request, sample.statusCode(), responseBytes(sample));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int poll() throws Exception {
+        return httpClient.send(poll, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Размер ответа HTTP/1.1: строка статуса, заголовки и тело
+    private static long responseBytes(HttpResponse<byte[]> response) {
+        long bytes = "HTTP/1.1 200 \r\n\r\n".length() + response.body().length;
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            for (String value : header.getValue()) {
+                bytes += header.getKey().length() + 2 + value.length() + 2;
+            }
+        }
+        return bytes;
+    }
+}
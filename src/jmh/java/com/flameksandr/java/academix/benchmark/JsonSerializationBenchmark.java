@@ -0,0 +1,47 @@
+package com.flameksandr.java.academix.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flameksandr.java.academix.exception.ErrorResponse;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация тел ответов REST-слоя: {@link User} и {@link ErrorResponse}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+    private User user;
+    private ErrorResponse errorResponse;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        user = new User(1, "john_doe", "john@example.com", "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1eOLo1ky1kZ5RQHa4XUPnkq",
+                "John Doe", Role.STUDENT, now, now, 0L, null);
+        errorResponse = new ErrorResponse("USER_NOT_FOUND", "User not found with the given identifier.");
+    }
+
+    @Benchmark
+    public byte[] user() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] errorResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(errorResponse);
+    }
+}
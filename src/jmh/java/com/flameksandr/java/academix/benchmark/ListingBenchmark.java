@@ -0,0 +1,107 @@
+package com.flameksandr.java.academix.benchmark;
+
+import com.flameksandr.java.academix.AcademixApplication;
+import com.flameksandr.java.academix.dto.UserPageDTO;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка {@link UserService#listUsers} на таблице из миллионов пользователей во встроенной H2
+ * (файловой: в памяти такая таблица не помещается в кучу по умолчанию):
+ * первая страница, страница из середины списка по курсору, фильтр по редкой роли и поиск по префиксу.
+ * Каждый десятый пользователь — TEACHER. Время заполнения таблицы печатается при старте.
+ * Индексы varchar_pattern_ops (V6) создаются только в PostgreSQL, на H2 префикс ищется по обычным индексам.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ListingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000000", "2000000"})
+    private int users;
+
+    private Path database;
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private String middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        database = Path.of(System.getProperty("java.io.tmpdir"), "academix-listing-" + users);
+        deleteDatabase();
+        // Аргументами командной строки: builder.properties() перекрыл бы application.properties из test-classpath
+        context = new SpringApplicationBuilder(AcademixApplication.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:file:" + database + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--logging.level.root=warn");
+        userService = context.getBean(UserService.class);
+
+        long started = System.nanoTime();
+        // Одной командой на стороне БД: вставка через JPA заняла бы больше, чем сами замеры
+        context.getBean(JdbcTemplate.class).update("""
+                insert into users (id, username, email, password, full_name, role, created_at, updated_at, version)
+                select n, 'user_' || n, 'user' || n || '@example.com', 'password-hash', 'Student ' || n,
+                       case when mod(n, 10) = 0 then 'TEACHER' else 'STUDENT' end,
+                       dateadd('SECOND', n, timestamp '2024-01-01 00:00:00'),
+                       dateadd('SECOND', n, timestamp '2024-01-01 00:00:00'), 0
+                from system_range(1, ?) as r(n)""", users);
+        System.out.printf("%n%d users inserted in %d ms%n", users, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        // Курсор на середину списка: keyset-пагинация не должна зависеть от глубины страницы
+        middleCursor = encodeCursor(users / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        deleteDatabase();
+    }
+
+    @Benchmark
+    public UserPageDTO firstPage() {
+        return userService.listUsers(null, null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public UserPageDTO middlePage() {
+        return userService.listUsers(null, null, middleCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public UserPageDTO teachersMiddlePage() {
+        return userService.listUsers(Role.TEACHER, null, middleCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public UserPageDTO prefixSearch() {
+        return userService.listUsers(null, "USER_12345", null, PAGE_SIZE);
+    }
+
+    private void deleteDatabase() throws IOException {
+        Files.deleteIfExists(Path.of(database + ".mv.db"));
+        Files.deleteIfExists(Path.of(database + ".trace.db"));
+    }
+
+    // Формат курсора UserService: base64url("<created_at>|<id>") последней строки предыдущей страницы
+    private static String encodeCursor(int id) {
+        String position = LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(id) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,73 @@
+package com.flameksandr.java.academix.benchmark;
+
+import com.flameksandr.java.academix.exception.ErrorResponse;
+import com.flameksandr.java.academix.exception.ErrorResponses;
+import com.flameksandr.java.academix.exception.GlobalExceptionHandler;
+import com.flameksandr.java.academix.exception.UserNotFoundException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость ответа 404 без HTTP: создание исключения и построение тела ответа.
+ * {@code legacy} повторяет прежний путь (исключение со стеком, конкатенация сообщения,
+ * два поиска в MessageSource и новый ErrorResponse), {@code preallocated} — текущий.
+ * Исключение создается на глубине {@code depth} кадров, как под стеком Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class NotFoundBenchmark {
+
+    @Param({"0", "100"})
+    private int depth;
+
+    private ResourceBundleMessageSource messageSource;
+    private GlobalExceptionHandler handler;
+
+    @Setup
+    public void setUp() {
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("message");
+        handler = new GlobalExceptionHandler(new ErrorResponses(messageSource, List.of(Locale.ENGLISH)));
+    }
+
+    @Benchmark
+    public ErrorResponse legacy() {
+        try {
+            throwAt(depth, true);
+            return null;
+        } catch (RuntimeException e) {
+            String errorMessage = messageSource.getMessage("error.userNotFoundMessage", new Object[0], Locale.getDefault());
+            return new ErrorResponse(messageSource.getMessage("error.userNotFound", new Object[0], Locale.getDefault()), errorMessage);
+        }
+    }
+
+    @Benchmark
+    public ErrorResponse preallocated() {
+        try {
+            throwAt(depth, false);
+            return null;
+        } catch (UserNotFoundException e) {
+            return handler.handleUserNotFoundException();
+        }
+    }
+
+    private static void throwAt(int depth, boolean legacy) {
+        if (depth > 0) {
+            throwAt(depth - 1, legacy);
+            return;
+        }
+        String email = "nobody@example.com";
+        if (legacy) {
+            throw new RuntimeException("User not found with email: " + email);
+        }
+        throw UserNotFoundException.by("email", email);
+    }
+}
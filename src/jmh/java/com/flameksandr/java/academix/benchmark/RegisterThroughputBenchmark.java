@@ -0,0 +1,104 @@
+package com.flameksandr.java.academix.benchmark;
+
+import com.flameksandr.java.academix.AcademixApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пропускная способность {@code POST /api/users/register} через HTTP при 16 одновременных клиентах.
+ * {@code double-hash} повторяет прежний путь: хеш в сервисе и повторный хеш новым {@link BCryptPasswordEncoder}
+ * в потоке запроса (бывший {@code @PrePersist}), {@code bounded} — текущий: один хеш в ограниченном пуле.
+ * Cost bcrypt в обоих вариантах 10, как у прежнего {@code new BCryptPasswordEncoder()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(16)
+@Fork(1)
+public class RegisterThroughputBenchmark {
+
+    private static final int STRENGTH = 10;
+
+    @Param({"double-hash", "bounded"})
+    private String hashing;
+
+    private final AtomicInteger sequence = new AtomicInteger();
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI register;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(AcademixApplication.class);
+        if ("double-hash".equals(hashing)) {
+            // Основной PasswordEncoder для UserService: два bcrypt в потоке запроса, как до пула
+            builder.initializers(applicationContext -> ((GenericApplicationContext) applicationContext).registerBean(
+                    "doubleHashingPasswordEncoder", PasswordEncoder.class, DoubleHashingPasswordEncoder::new,
+                    definition -> definition.setPrimary(true)));
+        }
+        // Аргументами командной строки, а не builder.properties(): те имеют низший приоритет,
+        // и их перекрыл бы application.properties из test-classpath (cost 4)
+        context = builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:register-" + hashing + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--academix.password.strength=" + STRENGTH,
+                // Очередь не должна отклонять запросы: сравнивается стоимость хеширования, а не backpressure
+                "--academix.password.queue-capacity=1000",
+                "--logging.level.root=warn");
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        register = URI.create("http://localhost:" + port + "/api/users/register");
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int register() throws Exception {
+        int n = sequence.incrementAndGet();
+        String body = "{\"username\":\"reg_" + n + "\",\"email\":\"reg" + n + "@example.com\","
+                + "\"password\":\"password123\",\"fullName\":\"Register Bench\"}";
+        HttpRequest request = HttpRequest.newBuilder(register)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("Registration failed with status " + status);  // отказ не должен считаться операцией
+        }
+        return status;
+    }
+
+    private static final class DoubleHashingPasswordEncoder implements PasswordEncoder {
+
+        private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(STRENGTH);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            String hash = encoder.encode(rawPassword);
+            return new BCryptPasswordEncoder(STRENGTH).encode(hash);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encoder.matches(rawPassword, encodedPassword);
+        }
+    }
+}
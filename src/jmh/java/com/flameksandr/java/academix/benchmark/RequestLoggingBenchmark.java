@@ -0,0 +1,90 @@
+package com.flameksandr.java.academix.benchmark;
+
+import com.flameksandr.java.academix.AcademixApplication;
+import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запросы в секунду через HTTP при двух конфигурациях логирования:
+ * {@code sync-text} — прежняя (синхронный текстовый вывод, show-sql, info/error на каждый запрос),
+ * {@code async-json} — текущая (logback-spring.xml). Вывод консоли пишется в файл в target,
+ * чтобы стоимость записи была реальной, но не смешивалась с отчетом JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(4)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    @Param({"sync-text", "async-json"})
+    private String logging;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI existingUser;
+    private URI missingUser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        System.setOut(new PrintStream(new FileOutputStream("target/request-logging-" + logging + ".log"), true));
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(AcademixApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:logging;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "academix.password.strength=4",
+                        "academix.cache-invalidation.type=in-memory");
+        if ("sync-text".equals(logging)) {
+            builder.properties(
+                    "logging.config=classpath:logback-text.xml",
+                    "spring.jpa.show-sql=true",
+                    "logging.level.com.flameksandr.java.academix.service=debug");
+        }
+        context = builder.run();
+
+        Integer id = context.getBean(UserService.class)
+                .createUser(new UserDTO(null, "bench_user", "bench@example.com", "password123", "Bench User", Role.STUDENT))
+                .getId();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        existingUser = URI.create("http://localhost:" + port + "/api/users/" + id);
+        missingUser = URI.create("http://localhost:" + port + "/api/users/-1");
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getExistingUser() throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(existingUser).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int getMissingUser() throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(missingUser).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
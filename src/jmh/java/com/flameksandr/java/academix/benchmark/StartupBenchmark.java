@@ -0,0 +1,186 @@
+package com.flameksandr.java.academix.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Время до первого ответа и резидентная память приложения при разных вариантах запуска.
+ * <p>
+ * Каждый вариант запускается в отдельной JVM из распакованного jar профиля {@code fast-startup}
+ * (один и тот же jar, AOT-классы используются только с {@code -Dspring.aot.enabled=true}).
+ * Время считается от запуска процесса до первого успешного {@code GET /api/users/availability}
+ * (запрос проходит контроллер, сервис и JPA, поэтому ленивая инициализация в нем тоже учтена),
+ * память — VmRSS из {@code /proc/<pid>/status} сразу после ответа. Вместо PostgreSQL используется
+ * встроенная H2 из test-classpath. Условные бины AOT-сборки зафиксированы при сборке, поэтому
+ * в вариантах с AOT работает шина инвалидации PostgreSQL, которая на H2 лишь переподключается в фоне.
+ * <p>
+ * Запуск: {@code mvn -Pfast-startup package -DskipTests -Dcds.skip=true},
+ * затем {@code mvn -Pbenchmark test-compile exec:exec@startup}.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    private enum Variant {
+        DEFAULT("default", false, false, false),
+        LAZY("lazy", false, true, false),
+        AOT("aot", true, false, false),
+        AOT_LAZY_CDS("aot+lazy+cds", true, true, true);
+
+        private final String label;
+        private final boolean aot;
+        private final boolean lazy;
+        private final boolean cds;
+
+        Variant(String label, boolean aot, boolean lazy, boolean cds) {
+            this.label = label;
+            this.aot = aot;
+            this.lazy = lazy;
+            this.cds = cds;
+        }
+    }
+
+    private record Sample(long millis, long rssKib) {
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path applicationJar = Path.of(args[0]).toAbsolutePath();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Path result = args.length > 2 ? Path.of(args[2]) : Path.of("startup-result.json");
+        if (!Files.isRegularFile(applicationJar)) {
+            throw new IllegalStateException(applicationJar + " not found, build it with mvn -Pfast-startup package");
+        }
+        String classpath = applicationJar + File.pathSeparator + h2Jar();
+        Path archive = applicationJar.resolveSibling("startup-benchmark.jsa");
+
+        List<String> json = new ArrayList<>();
+        for (Variant variant : Variant.values()) {
+            if (variant.cds) {
+                train(variant, classpath, archive);
+            }
+            List<Sample> samples = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                samples.add(measure(variant, classpath, archive));
+            }
+            long medianMillis = median(samples.stream().mapToLong(Sample::millis).toArray());
+            long medianRss = median(samples.stream().mapToLong(Sample::rssKib).toArray());
+            System.out.printf(Locale.ROOT, "%-14s first request %6d ms   RSS %7d KiB   (%s)%n", variant.label, medianMillis, medianRss,
+                    samples.stream().map(sample -> sample.millis + "ms").collect(Collectors.joining(", ")));
+            json.add(String.format(Locale.ROOT, "{\"variant\":\"%s\",\"timeToFirstRequestMs\":%d,\"rssKib\":%d,\"runs\":%d}",
+                    variant.label, medianMillis, medianRss, runs));
+        }
+        Files.writeString(result, "[" + String.join(",\n", json) + "]\n");
+        System.out.println("Result saved to " + result);
+    }
+
+    // Тренировочный запуск до refresh контекста: JVM сохраняет загруженные классы в архив CDS
+    private static void train(Variant variant, String classpath, Path archive) throws Exception {
+        Files.deleteIfExists(archive);
+        List<String> command = command(variant, classpath, freePort());
+        command.add(1, "-XX:ArchiveClassesAtExit=" + archive);
+        command.add(2, "-Dspring.context.exit=onRefresh");
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        if (process.waitFor() != 0 || !Files.exists(archive)) {
+            throw new IllegalStateException("CDS training run failed with exit code " + process.exitValue());
+        }
+    }
+
+    private static Sample measure(Variant variant, String classpath, Path archive) throws Exception {
+        int port = freePort();
+        List<String> command = command(variant, classpath, port);
+        if (variant.cds) {
+            command.add(1, "-XX:SharedArchiveFile=" + archive);
+        }
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/availability?email=probe@example.com")).build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (System.nanoTime() - started < START_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant.label + " exited with code " + process.exitValue());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long millis = (System.nanoTime() - started) / 1_000_000;
+                        return new Sample(millis, rssKib(process.pid()));
+                    }
+                } catch (IOException notListeningYet) {
+                    // порт еще не открыт
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(variant.label + " did not answer within " + START_TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static List<String> command(Variant variant, String classpath, int port) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (variant.aot) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of("-cp", classpath, "com.flameksandr.java.academix.AcademixApplication",
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--academix.cache-invalidation.type=in-memory",
+                // Фиксированный cost, чтобы калибровка bcrypt не вносила разброс
+                "--academix.password.strength=10",
+                "--logging.level.root=warn"));
+        if (variant.lazy) {
+            command.add("--spring.profiles.active=fast-startup");
+        }
+        return command;
+    }
+
+    private static String h2Jar() {
+        return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entry -> Path.of(entry).getFileName().toString().startsWith("h2-"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("H2 is not on the benchmark classpath"));
+    }
+
+    private static long rssKib(long pid) throws IOException {
+        return Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status")).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(-1);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
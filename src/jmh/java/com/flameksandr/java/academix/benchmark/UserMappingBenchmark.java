@@ -0,0 +1,43 @@
+package com.flameksandr.java.academix.benchmark;
+
+import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.mapper.UserMapper;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость одного преобразования UserDTO -> User: рефлексивный ModelMapper против UserMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final UserMapper userMapper = new UserMapper();
+    private UserDTO userDTO;
+
+    @Setup
+    public void setUp() {
+        userDTO = new UserDTO(1, "john_doe", "john@example.com", "password123", "John Doe", Role.STUDENT);
+        // Первый вызов ModelMapper строит TypeMap — он не должен попасть в замер
+        modelMapper.map(userDTO, User.class);
+    }
+
+    @Benchmark
+    public User modelMapper() {
+        return modelMapper.map(userDTO, User.class);
+    }
+
+    @Benchmark
+    public User userMapper() {
+        return userMapper.toEntity(userDTO);
+    }
+}
@@ -0,0 +1,75 @@
+package com.flameksandr.java.academix.benchmark;
+
+import com.flameksandr.java.academix.AcademixApplication;
+import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.service.UserCache;
+import com.flameksandr.java.academix.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сквозные замеры {@link UserService} на встроенной H2 (нужен classpath с test-зависимостями,
+ * который профиль benchmark передает в exec:exec).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private final AtomicInteger sequence = new AtomicInteger();
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserCache userCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AcademixApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "academix.password.strength=4",
+                        "academix.cache-invalidation.type=in-memory",
+                        "logging.level.root=warn")
+                .run();
+        userService = context.getBean(UserService.class);
+        userCache = context.getBean(UserCache.class);
+        userService.createUser(new UserDTO(null, "bench_user", "bench@example.com", "password123", "Bench User", Role.STUDENT));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User createUser() {
+        int n = sequence.incrementAndGet();
+        return userService.createUser(new UserDTO(null, "user_" + n, "user" + n + "@example.com", "password123", "Bench User", Role.STUDENT));
+    }
+
+    @Benchmark
+    public User getUserByEmailCached() {
+        return userService.getUserByEmail("bench@example.com");
+    }
+
+    @Benchmark
+    public User getUserByEmailUncached() {
+        userCache.evictAll();
+        return userService.getUserByEmail("bench@example.com");
+    }
+}
@@ -0,0 +1,97 @@
+package com.flameksandr.java.academix.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Общая часть реализаций шины: склеивание публикаций в пределах окна,
+ * отбрасывание собственных сообщений и асинхронная доставка получателям.
+ */
+@Slf4j
+public abstract class AbstractCacheInvalidationBus implements CacheInvalidationBus, AutoCloseable {
+
+    protected final String nodeId = UUID.randomUUID().toString();
+
+    private final Duration coalesceWindow;
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    protected AbstractCacheInvalidationBus(Duration coalesceWindow) {
+        this.coalesceWindow = coalesceWindow;
+    }
+
+    @Override
+    public void publish(Integer userId) {
+        pending.add(userId);
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::flush, coalesceWindow.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        flush();
+        executor.shutdown();
+    }
+
+    /**
+     * Отправляет пачку id остальным узлам.
+     */
+    protected abstract void send(String senderNodeId, Set<Integer> userIds);
+
+    /**
+     * Вызывается реализацией при получении пачки id; собственные сообщения узла игнорируются.
+     */
+    protected void receive(String senderNodeId, Set<Integer> userIds) {
+        if (nodeId.equals(senderNodeId) || userIds.isEmpty()) {
+            return;
+        }
+        dispatch(() -> listeners.forEach(listener -> listener.onInvalidate(userIds)));
+    }
+
+    protected void receiveInvalidateAll() {
+        dispatch(() -> listeners.forEach(Listener::onInvalidateAll));
+    }
+
+    private void dispatch(Runnable delivery) {
+        executor.execute(() -> {
+            try {
+                delivery.run();
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation listener failed", e);
+            }
+        });
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        Set<Integer> batch = new HashSet<>();
+        for (Iterator<Integer> iterator = pending.iterator(); iterator.hasNext(); ) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            send(nodeId, batch);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish cache invalidation for {} users", batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.flameksandr.java.academix.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасный фильтр Блума для строк.
+ * <p>
+ * {@link #mightContain(String)} никогда не дает ложноотрицательного ответа: {@code false}
+ * означает, что строка точно не добавлялась. Размер битового массива и число хеш-функций
+ * выбираются по ожидаемому числу элементов и допустимой доле ложноположительных ответов.
+ * Удаление не поддерживается — фильтр пересобирается целиком.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) / 64));
+        this.bitCount = (long) words.length() * 64;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * @param expectedInsertions      ожидаемое число элементов
+     * @param falsePositiveProbability допустимая доля ложноположительных ответов при этом числе элементов
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveProbability) {
+        long n = Math.max(1, expectedInsertions);
+        // m = -n·ln(p) / ln(2)^2, k = m/n·ln(2)
+        long bits = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2))));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getInsertions() {
+        return insertions.get();
+    }
+
+    public long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    // FNV-1a по символам с финальным перемешиванием из MurmurHash3
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
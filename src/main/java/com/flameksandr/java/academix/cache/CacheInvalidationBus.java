@@ -0,0 +1,35 @@
+package com.flameksandr.java.academix.cache;
+
+import java.util.Set;
+
+/**
+ * Шина межузловой инвалидации кэша пользователей.
+ * <p>
+ * Узел, изменивший пользователя, публикует его id; остальные узлы получают
+ * идентификаторы асинхронно и пачками удаляют их из своего локального кэша.
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * Ставит id пользователя в очередь на рассылку. Повторные id в пределах окна склеиваются.
+     *
+     * @param userId идентификатор измененного пользователя
+     */
+    void publish(Integer userId);
+
+    /**
+     * Регистрирует получателя инвалидаций от других узлов.
+     *
+     * @param listener получатель
+     */
+    void subscribe(Listener listener);
+
+    interface Listener {
+
+        // Пачка id, которые нужно удалить из локального кэша
+        void onInvalidate(Set<Integer> userIds);
+
+        // Часть сообщений могла быть потеряна (например, после переподключения) — сбросить весь кэш
+        void onInvalidateAll();
+    }
+}
@@ -0,0 +1,35 @@
+package com.flameksandr.java.academix.cache;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Шина в пределах одной JVM: все экземпляры с одинаковым каналом видят публикации друг друга.
+ * Подходит для одного узла и для тестов с несколькими контекстами приложения.
+ */
+public class InMemoryCacheInvalidationBus extends AbstractCacheInvalidationBus {
+
+    private static final ConcurrentMap<String, Set<InMemoryCacheInvalidationBus>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String channel;
+
+    public InMemoryCacheInvalidationBus(String channel, Duration coalesceWindow) {
+        super(coalesceWindow);
+        this.channel = channel;
+        CHANNELS.computeIfAbsent(channel, key -> ConcurrentHashMap.newKeySet()).add(this);
+    }
+
+    @Override
+    protected void send(String senderNodeId, Set<Integer> userIds) {
+        Set<Integer> payload = Set.copyOf(userIds);
+        CHANNELS.getOrDefault(channel, Set.of()).forEach(bus -> bus.receive(senderNodeId, payload));
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        CHANNELS.getOrDefault(channel, ConcurrentHashMap.newKeySet()).remove(this);
+    }
+}
@@ -0,0 +1,138 @@
+package com.flameksandr.java.academix.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Шина поверх PostgreSQL LISTEN/NOTIFY.
+ * <p>
+ * Публикация — {@code pg_notify(channel, 'nodeId|id1,id2,...')}. Прием идет в отдельном
+ * потоке, который держит одно соединение из пула и ждет уведомлений. После потери
+ * соединения сообщения могли быть пропущены, поэтому при переподключении получатели
+ * сбрасывают кэш целиком.
+ */
+@Slf4j
+public class PostgresCacheInvalidationBus extends AbstractCacheInvalidationBus {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    // Ограничение PostgreSQL на размер payload — 8000 байт, оставляем запас
+    private static final int MAX_PAYLOAD_LENGTH = 7000;
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final DataSource dataSource;
+    private final String channel;
+    private final Thread listenerThread;
+    private volatile boolean running = true;
+
+    public PostgresCacheInvalidationBus(DataSource dataSource, String channel, Duration coalesceWindow) {
+        super(coalesceWindow);
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.channel = channel;
+        this.listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        this.listenerThread.setDaemon(true);
+    }
+
+    public void start() {
+        listenerThread.start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        listenerThread.interrupt();
+        super.close();
+    }
+
+    @Override
+    protected void send(String senderNodeId, Set<Integer> userIds) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            StringBuilder ids = new StringBuilder();
+            for (Integer userId : userIds) {
+                if (ids.length() > MAX_PAYLOAD_LENGTH) {
+                    notify(statement, senderNodeId, ids);
+                    ids.setLength(0);
+                }
+                if (!ids.isEmpty()) {
+                    ids.append(',');
+                }
+                ids.append(userId);
+            }
+            notify(statement, senderNodeId, ids);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to send cache invalidation", e);
+        }
+    }
+
+    private void notify(PreparedStatement statement, String senderNodeId, CharSequence ids) throws SQLException {
+        statement.setString(1, channel);
+        statement.setString(2, senderNodeId + "|" + ids);
+        statement.execute();
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnect) {
+                    receiveInvalidateAll();
+                }
+                log.info("Listening for cache invalidations on channel {}", channel);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection, retrying in {} ms", RECONNECT_DELAY_MS, e);
+                reconnect = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        int separator = payload.indexOf('|');
+        if (separator < 0) {
+            log.warn("Ignoring malformed cache invalidation payload: {}", payload);
+            return;
+        }
+        Set<Integer> userIds = new HashSet<>();
+        for (String id : payload.substring(separator + 1).split(",")) {
+            if (!id.isEmpty()) {
+                userIds.add(Integer.valueOf(id));
+            }
+        }
+        receive(payload.substring(0, separator), userIds);
+    }
+}
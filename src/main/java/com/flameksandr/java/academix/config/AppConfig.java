@@ -1,21 +1,50 @@
 package com.flameksandr.java.academix.config;
 
-import org.modelmapper.ModelMapper;
+import com.flameksandr.java.academix.cache.CacheInvalidationBus;
+import com.flameksandr.java.academix.security.BoundedPasswordEncoder;
+import com.flameksandr.java.academix.security.PasswordHashPolicy;
+import com.flameksandr.java.academix.service.PasswordHashAuditJob;
+import com.flameksandr.java.academix.service.UserAvailabilityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableScheduling
+@EnableConfigurationProperties({PasswordHashingProperties.class, UserCacheProperties.class, AuthProperties.class,
+        AvailabilityProperties.class, ProgressProperties.class, NotificationProperties.class, TelegramProperties.class})
 public class AppConfig {
 
+    // Cost bcrypt: задан явно или подобран под эту машину при старте
     @Bean
-    public ModelMapper modelMapper(){
-        return new ModelMapper();
+    public PasswordHashPolicy passwordHashPolicy(PasswordHashingProperties properties) {
+        if (properties.getStrength() > 0) {
+            return new PasswordHashPolicy(properties.getStrength());
+        }
+        return PasswordHashPolicy.calibrate(properties.getTargetVerifyTime(), properties.getMinStrength(), properties.getMaxStrength());
     }
 
+    // Единственная точка хеширования паролей: bcrypt выполняется в ограниченном пуле
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(PasswordHashingProperties properties, PasswordHashPolicy policy,
+                                                  MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(
+                policy.createEncoder(),
+                properties.resolvePoolSize(),
+                properties.getQueueCapacity(),
+                meterRegistry);
+    }
+
+    // При spring.main.lazy-initialization=true (профиль fast-startup) эти бины все равно создаются при старте:
+    // калибровка bcrypt не должна попадать в первый запрос, а подписки на шину, фильтры занятости
+    // и периодические задачи без создания бина не заработают вовсе
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(PasswordHashPolicy.class, CacheInvalidationBus.class,
+                SmartInitializingSingleton.class, UserAvailabilityService.class, PasswordHashAuditJob.class);
     }
 }
@@ -0,0 +1,50 @@
+package com.flameksandr.java.academix.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки аутентификации (префикс {@code academix.auth}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "academix.auth")
+public class AuthProperties {
+
+    // Ключ подписи токенов в Base64 (не короче 32 байт); пустой — случайный ключ на время жизни процесса
+    private String secret = "";
+
+    // Время жизни выданного токена
+    private Duration tokenTtl = Duration.ofMinutes(15);
+
+    // Попытки входа на один логин
+    private Limit perUser = new Limit(5, Duration.ofMinutes(1));
+
+    // Попытки входа с одного IP-адреса
+    private Limit perIp = new Limit(20, Duration.ofMinutes(1));
+
+    // Максимальное число отслеживаемых ключей в каждом ограничителе
+    private long maximumTrackedKeys = 100_000;
+
+    /**
+     * Token bucket: {@code capacity} попыток, полностью восстанавливающихся за {@code refillPeriod}.
+     */
+    @Getter
+    @Setter
+    public static class Limit {
+
+        private int capacity;
+        private Duration refillPeriod;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.flameksandr.java.academix.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки фильтров занятости email и username (префикс {@code academix.availability}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "academix.availability")
+public class AvailabilityProperties {
+
+    // Допустимая доля ложноположительных ответов («возможно занято» для свободного значения)
+    private double falsePositiveRate = 0.01;
+
+    // Минимальная емкость фильтра; при пересборке закладывается двукратный запас к числу пользователей
+    private long minimumCapacity = 10_000;
+
+    // Период полной пересборки (удаленные пользователи остаются в фильтре до нее)
+    private Duration rebuildInterval = Duration.ofHours(1);
+}
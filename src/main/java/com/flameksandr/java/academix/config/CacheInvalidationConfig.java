@@ -0,0 +1,68 @@
+package com.flameksandr.java.academix.config;
+
+import com.flameksandr.java.academix.cache.CacheInvalidationBus;
+import com.flameksandr.java.academix.cache.InMemoryCacheInvalidationBus;
+import com.flameksandr.java.academix.cache.PostgresCacheInvalidationBus;
+import com.flameksandr.java.academix.service.UserAvailabilityService;
+import com.flameksandr.java.academix.service.UserCache;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.Set;
+
+@Configuration
+@EnableConfigurationProperties(CacheInvalidationProperties.class)
+public class CacheInvalidationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "academix.cache-invalidation.type", havingValue = "postgres")
+    public PostgresCacheInvalidationBus postgresCacheInvalidationBus(DataSource dataSource, CacheInvalidationProperties properties) {
+        PostgresCacheInvalidationBus bus = new PostgresCacheInvalidationBus(dataSource, properties.getChannel(), properties.getCoalesceWindow());
+        bus.start();
+        return bus;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "academix.cache-invalidation.type", havingValue = "in-memory", matchIfMissing = true)
+    public InMemoryCacheInvalidationBus inMemoryCacheInvalidationBus(CacheInvalidationProperties properties) {
+        return new InMemoryCacheInvalidationBus(properties.getChannel(), properties.getCoalesceWindow());
+    }
+
+    // Инвалидации от других узлов удаляют записи из локального кэша пользователей
+    @Bean
+    public SmartInitializingSingleton userCacheInvalidationSubscription(CacheInvalidationBus bus, UserCache userCache) {
+        return () -> bus.subscribe(new CacheInvalidationBus.Listener() {
+            @Override
+            public void onInvalidate(Set<Integer> userIds) {
+                userIds.forEach(userCache::evict);
+            }
+
+            @Override
+            public void onInvalidateAll() {
+                userCache.evictAll();
+            }
+        });
+    }
+
+    // Пользователи, созданные или измененные на других узлах, отмечаются в локальных фильтрах занятости.
+    // Запросы к БД выполняются в потоке UserAvailabilityService, поток шины не блокируется
+    @Bean
+    public SmartInitializingSingleton userAvailabilitySubscription(CacheInvalidationBus bus,
+                                                                   UserAvailabilityService userAvailabilityService) {
+        return () -> bus.subscribe(new CacheInvalidationBus.Listener() {
+            @Override
+            public void onInvalidate(Set<Integer> userIds) {
+                userAvailabilityService.addByIdsAsync(userIds);
+            }
+
+            @Override
+            public void onInvalidateAll() {
+                userAvailabilityService.rebuildAsync();
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.flameksandr.java.academix.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки межузловой инвалидации кэша (префикс {@code academix.cache-invalidation}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "academix.cache-invalidation")
+public class CacheInvalidationProperties {
+
+    // Реализация шины: in-memory или postgres
+    private String type = "in-memory";
+
+    // Канал LISTEN/NOTIFY (или имя канала в памяти)
+    private String channel = "user_cache_invalidation";
+
+    // Окно, в течение которого публикации склеиваются в одно сообщение
+    private Duration coalesceWindow = Duration.ofMillis(50);
+}
@@ -0,0 +1,69 @@
+package com.flameksandr.java.academix.config;
+
+import com.flameksandr.java.academix.datasource.ReplicaRoutingDataSource;
+import com.flameksandr.java.academix.datasource.ReplicaStickiness;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Источники данных: основная БД ({@code spring.datasource.*}) и реплики ({@code academix.datasource.replicas}).
+ * <p>
+ * Приложение получает {@link LazyConnectionDataSourceProxy}: физическое соединение берется при первом запросе
+ * транзакции, когда уже известно, read-only ли она. Read-only транзакции ({@code @Transactional(readOnly = true)})
+ * получают соединение от {@link ReplicaRoutingDataSource}, остальные — от основной БД. Flyway и Hibernate
+ * при старте пишут и читают метаданные только через основную БД.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaDataSource(HikariDataSource primaryDataSource, DataSourceProperties primaryProperties,
+                                                      ReadReplicaProperties properties, ReplicaStickiness stickiness,
+                                                      MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReadReplicaProperties.Replica replica = properties.getReplicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : primaryProperties.determineUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : primaryProperties.determinePassword());
+            pool.setReadOnly(true);
+            pool.setMaximumPoolSize(properties.getPoolSize());
+            pool.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+            // Недоступная при старте реплика не мешает запуску: чтение пойдет в основную БД
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricRegistry(meterRegistry);
+            pools.add(pool);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, pools, properties, stickiness, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        if (replicaDataSource.hasReplicas()) {
+            dataSource.setReadOnlyDataSource(replicaDataSource);
+        }
+        return dataSource;
+    }
+}
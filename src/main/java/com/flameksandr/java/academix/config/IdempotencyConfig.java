@@ -0,0 +1,26 @@
+package com.flameksandr.java.academix.config;
+
+import com.flameksandr.java.academix.idempotency.InMemoryIdempotencyStore;
+import com.flameksandr.java.academix.idempotency.JdbcIdempotencyStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "academix.idempotency.type", havingValue = "jdbc")
+    public JdbcIdempotencyStore jdbcIdempotencyStore(JdbcTemplate jdbcTemplate, IdempotencyProperties properties) {
+        return new JdbcIdempotencyStore(jdbcTemplate, properties.getTtl(), properties.getLease(), properties.getPollInterval());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "academix.idempotency.type", havingValue = "in-memory", matchIfMissing = true)
+    public InMemoryIdempotencyStore inMemoryIdempotencyStore(IdempotencyProperties properties) {
+        return new InMemoryIdempotencyStore(properties.getTtl(), properties.getMaxMemory().toBytes());
+    }
+}
@@ -0,0 +1,49 @@
+package com.flameksandr.java.academix.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Настройки обработки заголовка {@code Idempotency-Key} (префикс {@code academix.idempotency}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "academix.idempotency")
+public class IdempotencyProperties {
+
+    // Хранилище ключей: in-memory (в пределах узла) или jdbc (общее для всех узлов)
+    private String type = "in-memory";
+
+    // POST-запросы на эти пути принимают Idempotency-Key
+    private List<String> paths = List.of("/api/users", "/api/users/register");
+
+    // Сколько хранится первый ответ на ключ
+    private Duration ttl = Duration.ofHours(24);
+
+    // in-memory: предел памяти под ключи и ответы; при превышении вытесняются редко используемые ключи
+    private DataSize maxMemory = DataSize.ofMegabytes(32);
+
+    // Ответ больше этого размера не сохраняется, и повтор выполнится заново
+    private DataSize maxResponseSize = DataSize.ofKilobytes(64);
+
+    // Максимальная длина ключа
+    private int maxKeyLength = 255;
+
+    // Сколько повтор ждет результата выполняющегося запроса с тем же ключом, прежде чем получить 409
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    // jdbc: через сколько незавершенный запрос упавшего узла может выполнить другой узел;
+    // пока запрос выполняется, аренда продлевается каждую треть этого срока
+    private Duration lease = Duration.ofSeconds(30);
+
+    // jdbc: период опроса при ожидании выполняющегося запроса
+    private Duration pollInterval = Duration.ofMillis(50);
+
+    // jdbc: период удаления просроченных ключей
+    private Duration purgeInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,61 @@
+package com.flameksandr.java.academix.config;
+
+import com.flameksandr.java.academix.metrics.SlowQueryLog;
+import com.flameksandr.java.academix.metrics.StartupTimeReport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.time.Duration;
+
+/**
+ * Метрики приложения сверх автоконфигурации Actuator.
+ * <p>
+ * HTTP-запросы ({@code http.server.requests}), вызовы репозиториев
+ * ({@code spring.data.repository.invocations}) и ожидание соединения из пула
+ * ({@code hikaricp.connections.acquire}) измеряет сам Spring Boot; сервисы размечены
+ * {@code @Timed("academix.service")}. Здесь подключаются журнал медленных запросов,
+ * выборочный лог SQL и отчет о времени старта.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${academix.slow-query.threshold:200ms}") Duration threshold,
+                                     @Value("${academix.slow-query.sql-sample-rate:0.01}") double sqlSampleRate,
+                                     MeterRegistry meterRegistry) {
+        return new SlowQueryLog(threshold, sqlSampleRate, meterRegistry);
+    }
+
+    // Hibernate передает каждый подготовленный SQL в журнал
+    @Bean
+    public HibernatePropertiesCustomizer slowQueryStatementInspector(SlowQueryLog slowQueryLog) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, slowQueryLog);
+    }
+
+    // Журнал подписывается на завершение вызовов всех репозиториев Spring Data
+    @Bean
+    public static BeanPostProcessor slowQueryRepositoryListener(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(slowQueryLog.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Статический, чтобы замерять инициализацию Flyway и EntityManagerFactory с самого начала
+    @Bean
+    public static StartupTimeReport startupTimeReport() {
+        return new StartupTimeReport();
+    }
+}
@@ -0,0 +1,64 @@
+package com.flameksandr.java.academix.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки рассылки уведомлений (префикс {@code academix.notification}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "academix.notification")
+public class NotificationProperties {
+
+    // Получателей на страницу; курсор рассылки сохраняется после отправки каждой страницы
+    private int pageSize = 100;
+
+    // Потоков отправки
+    private int senderThreads = 8;
+
+    // Лимит на все сообщения бота. Bot API допускает около 30 сообщений в секунду, а корзина за любую секунду
+    // пропускает capacity + скорость пополнения: 10 сразу и 20 в секунду дают не больше 30
+    private Limit global = new Limit(10, Duration.ofMillis(500));
+
+    // Лимит Bot API на один чат (около одного сообщения в секунду)
+    private Limit perChat = new Limit(1, Duration.ofSeconds(1));
+
+    // Максимальное число отслеживаемых чатов в ограничителе per-chat
+    private long maximumTrackedChats = 100_000;
+
+    // Попыток отправки одного сообщения, включая первую
+    private int maxAttempts = 5;
+
+    // Пауза перед первым повтором (удваивается с каждой попыткой) и ее верхняя граница
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofMinutes(1);
+
+    // Период поиска незавершенных рассылок (новые рассылки запускаются сразу)
+    private Duration pollInterval = Duration.ofSeconds(10);
+
+    // Срок аренды рассылки узлом; продлевается каждую треть срока, пока отправляется страница, и после нее
+    private Duration lease = Duration.ofMinutes(2);
+
+    /**
+     * Token bucket: {@code capacity} сообщений, полностью восстанавливающихся за {@code refillPeriod}.
+     */
+    @Getter
+    @Setter
+    public static class Limit {
+
+        private int capacity;
+        private Duration refillPeriod;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+        }
+    }
+}
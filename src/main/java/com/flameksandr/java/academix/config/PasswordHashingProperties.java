@@ -0,0 +1,40 @@
+package com.flameksandr.java.academix.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки подсистемы хеширования паролей (префикс {@code academix.password}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "academix.password")
+public class PasswordHashingProperties {
+
+    // Стоимость bcrypt (log2 числа раундов); 0 — подобрать при старте по targetVerifyTime
+    private int strength = 0;
+
+    // Целевое время одной проверки пароля при калибровке
+    private Duration targetVerifyTime = Duration.ofMillis(250);
+
+    // Границы cost при калибровке
+    private int minStrength = 10;
+    private int maxStrength = 16;
+
+    // Задержка первого и период последующих отчетов о хешах с устаревшими параметрами
+    private Duration auditInitialDelay = Duration.ofMinutes(1);
+    private Duration auditInterval = Duration.ofHours(1);
+
+    // Размер пула потоков; 0 — по числу доступных ядер
+    private int poolSize = 0;
+
+    // Максимальное число задач, ожидающих хеширования
+    private int queueCapacity = 64;
+
+    public int resolvePoolSize() {
+        return poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,41 @@
+package com.flameksandr.java.academix.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки приема событий прогресса (префикс {@code academix.progress}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "academix.progress")
+public class ProgressProperties {
+
+    public enum Durability {
+        // Событие подтверждается сразу после постановки в очередь; при падении узла очередь теряется
+        MEMORY,
+        // Событие подтверждается после записи и fsync в локальный журнал; после рестарта журнал дочитывается
+        FSYNC
+    }
+
+    private Durability durability = Durability.MEMORY;
+
+    // Каталог журнала событий для режима FSYNC
+    private Path logDirectory = Path.of("data", "progress");
+
+    // Емкость очереди; при переполнении прием отвечает 503
+    private int queueCapacity = 100_000;
+
+    // Максимум событий в одном запросе на прием
+    private int maxEventsPerRequest = 1_000;
+
+    // Максимум событий в одной транзакции записи
+    private int batchSize = 500;
+
+    // Период записи очереди в БД: события одного (пользователь, курс) за период склеиваются в одно обновление
+    private Duration flushInterval = Duration.ofMillis(200);
+}
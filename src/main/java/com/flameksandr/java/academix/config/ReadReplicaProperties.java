@@ -0,0 +1,59 @@
+package com.flameksandr.java.academix.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки чтения с реплик (префикс {@code academix.datasource}). Без реплик все запросы идут в основную БД.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "academix.datasource")
+public class ReadReplicaProperties {
+
+    public enum Selection {
+        // Реплики по очереди
+        ROUND_ROBIN,
+        // Реплика с наименьшим числом занятых соединений в пуле этого узла
+        LEAST_CONNECTIONS
+    }
+
+    // Реплики только для чтения; логин и пароль по умолчанию — как у основной БД
+    private List<Replica> replicas = new ArrayList<>();
+
+    private Selection selection = Selection.ROUND_ROBIN;
+
+    // Размер пула соединений каждой реплики
+    private int poolSize = 10;
+
+    // Ожидание соединения с репликой; дольше — чтение уходит в основную БД
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    // Период проверки доступности и отставания реплик
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    // Запрос отставания реплики в миллисекундах; пустой — проверяется только соединение
+    private String lagQuery = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+            + " else extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000 end";
+
+    // Реплика, отстающая больше, не используется до следующей проверки
+    private Duration maxLag = Duration.ofSeconds(1);
+
+    // Сколько после собственной записи клиент читает из основной БД (read-your-writes);
+    // время записи хранится в подписанной cookie клиента
+    private Duration stickyWindow = Duration.ofSeconds(5);
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+    }
+}
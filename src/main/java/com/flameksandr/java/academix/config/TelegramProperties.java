@@ -0,0 +1,26 @@
+package com.flameksandr.java.academix.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Настройки клиента Telegram Bot API (префикс {@code academix.telegram}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "academix.telegram")
+public class TelegramProperties {
+
+    // Адрес Bot API; в тестах — локальная заглушка
+    private URI apiUrl = URI.create("https://api.telegram.org");
+
+    // Токен бота; пустой — каждая отправка отклоняется Bot API
+    private String botToken = "";
+
+    // Таймаут установки соединения и ответа на один запрос
+    private Duration requestTimeout = Duration.ofSeconds(10);
+}
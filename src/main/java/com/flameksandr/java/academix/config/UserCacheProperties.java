@@ -0,0 +1,22 @@
+package com.flameksandr.java.academix.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки локального кэша пользователей (префикс {@code academix.user-cache}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "academix.user-cache")
+public class UserCacheProperties {
+
+    // Максимальное число пользователей в кэше
+    private long maximumSize = 10_000;
+
+    // Время жизни записи после загрузки
+    private Duration ttl = Duration.ofMinutes(10);
+}
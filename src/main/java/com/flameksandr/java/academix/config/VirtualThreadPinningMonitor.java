@@ -0,0 +1,68 @@
+package com.flameksandr.java.academix.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Диагностика закрепления (pinning) виртуальных потоков за платформенными.
+ * <p>
+ * Работает только при {@code spring.threads.virtual.enabled=true}: подписывается на JFR-событие
+ * {@code jdk.VirtualThreadPinned} (блокировка внутри {@code synchronized} или нативного кадра)
+ * и для каждого случая дольше порога пишет предупреждение со стеком и увеличивает счетчик
+ * {@code academix.virtual-threads.pinned}.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(@Value("${academix.virtual-threads.pinning-threshold:20ms}") Duration threshold,
+                                       MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("academix.virtual-threads.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started, threshold {}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        log.warn("Virtual thread pinned for {} ms on {}:\n{}", event.getDuration().toMillis(),
+                event.getThread() != null ? event.getThread().getJavaName() : "unknown", event.getStackTrace());
+    }
+}
@@ -0,0 +1,46 @@
+package com.flameksandr.java.academix.controller;
+
+import com.flameksandr.java.academix.dto.LoginRequestDTO;
+import com.flameksandr.java.academix.dto.TokenResponseDTO;
+import com.flameksandr.java.academix.security.TokenClaims;
+import com.flameksandr.java.academix.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+    private final AuthService authService;
+
+    @Autowired
+    public AuthController(AuthService authService) {
+        this.authService = authService;
+    }
+
+    /**
+     * Проверяет логин и пароль и выдает токен доступа.
+     *
+     * @param request логин (username или email) и пароль
+     * @param servletRequest запрос, из которого берется адрес клиента для ограничения частоты
+     * @return Подписанный токен и время его жизни.
+     */
+    @PostMapping("/login")
+    public TokenResponseDTO login(@Valid @RequestBody LoginRequestDTO request, HttpServletRequest servletRequest) {
+        return authService.login(request, servletRequest.getRemoteAddr());
+    }
+
+    /**
+     * Возвращает данные из токена доступа без обращения к БД.
+     *
+     * @param authorization заголовок {@code Authorization: Bearer <token>}
+     * @return Данные пользователя из токена.
+     */
+    @GetMapping("/me")
+    public TokenClaims me(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return authService.authenticate(authorization);
+    }
+}
@@ -0,0 +1,44 @@
+package com.flameksandr.java.academix.controller;
+
+import com.flameksandr.java.academix.dto.NotificationCampaignDTO;
+import com.flameksandr.java.academix.dto.NotificationRequestDTO;
+import com.flameksandr.java.academix.service.NotificationService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    @Autowired
+    public NotificationController(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    /**
+     * Запускает рассылку в Telegram. Сообщения отправляются в фоне, поэтому ответ — 202.
+     *
+     * @param request Текст и роль получателей.
+     * @return Созданная рассылка.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public NotificationCampaignDTO createCampaign(@Valid @RequestBody NotificationRequestDTO request) {
+        return notificationService.createCampaign(request);
+    }
+
+    /**
+     * Состояние рассылки.
+     *
+     * @param id Идентификатор рассылки.
+     * @return Число отправленных и неотправленных сообщений и статус.
+     */
+    @GetMapping("/{id}")
+    public NotificationCampaignDTO getCampaign(@PathVariable Long id) {
+        return notificationService.getCampaign(id);
+    }
+}
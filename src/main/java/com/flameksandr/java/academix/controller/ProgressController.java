@@ -0,0 +1,46 @@
+package com.flameksandr.java.academix.controller;
+
+import com.flameksandr.java.academix.dto.ProgressAcceptedDTO;
+import com.flameksandr.java.academix.dto.ProgressEventDTO;
+import com.flameksandr.java.academix.dto.UserProgressDTO;
+import com.flameksandr.java.academix.service.ProgressService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/progress")
+public class ProgressController {
+
+    private final ProgressService progressService;
+
+    @Autowired
+    public ProgressController(ProgressService progressService) {
+        this.progressService = progressService;
+    }
+
+    /**
+     * Прием событий «урок пройден». События записываются в БД асинхронно, поэтому ответ — 202.
+     *
+     * @param events Пачка событий.
+     * @return Число принятых событий и признак записи в журнал на диске.
+     */
+    @PostMapping("/events")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ProgressAcceptedDTO acceptEvents(@RequestBody List<ProgressEventDTO> events) {
+        return progressService.acceptEvents(events);
+    }
+
+    /**
+     * Прогресс пользователя по всем курсам.
+     *
+     * @param userId Идентификатор пользователя.
+     * @return Сводный прогресс.
+     */
+    @GetMapping("/users/{userId}")
+    public UserProgressDTO getUserProgress(@PathVariable Integer userId) {
+        return progressService.getUserProgress(userId);
+    }
+}
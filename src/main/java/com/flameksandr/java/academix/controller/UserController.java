@@ -1,22 +1,52 @@
 package com.flameksandr.java.academix.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.flameksandr.java.academix.dto.AvailabilityDTO;
+import com.flameksandr.java.academix.dto.BulkImportResultDTO;
 import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.dto.UserPageDTO;
+import com.flameksandr.java.academix.model.Role;
 import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserVersion;
+import com.flameksandr.java.academix.service.UserAvailabilityService;
+import com.flameksandr.java.academix.service.UserExportService;
+import com.flameksandr.java.academix.service.UserImportService;
 import com.flameksandr.java.academix.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+    private final UserAvailabilityService userAvailabilityService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserExportService userExportService, UserImportService userImportService,
+                          UserAvailabilityService userAvailabilityService) {
         this.userService = userService;
+        this.userExportService = userExportService;
+        this.userImportService = userImportService;
+        this.userAvailabilityService = userAvailabilityService;
     }
 
     /**
@@ -46,37 +76,137 @@ public class UserController {
     }
 
     /**
-     * Получение пользователя по email.
+     * Постраничный список пользователей с фильтром по роли и поиском по префиксу.
+     * Пагинация keyset: следующая страница запрашивается по курсору из предыдущего ответа.
+     *
+     * @param role   Роль пользователя (необязательно).
+     * @param q      Префикс username, email или полного имени (необязательно).
+     * @param cursor Курсор из поля nextCursor предыдущей страницы (необязательно).
+     * @param size   Размер страницы (не больше 100).
+     * @return Страница пользователей.
+     */
+    @GetMapping
+    public UserPageDTO listUsers(@RequestParam(required = false) Role role,
+                                 @RequestParam(required = false) String q,
+                                 @RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = "20") int size) {
+        return userService.listUsers(role, q, cursor, size);
+    }
+
+    /**
+     * Проверка, свободны ли email и username (например, при заполнении формы регистрации).
+     *
+     * @param email    Email (необязательно).
+     * @param username Username (необязательно).
+     * @return Признаки доступности переданных значений.
+     */
+    @GetMapping("/availability")
+    public AvailabilityDTO checkAvailability(@RequestParam(required = false) String email,
+                                             @RequestParam(required = false) String username) {
+        return userAvailabilityService.check(email, username);
+    }
+
+    /**
+     * Потоковая выгрузка всех пользователей.
+     *
+     * @param format Формат выгрузки: ndjson или csv.
+     * @return Тело ответа, записываемое напрямую в поток.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        UserExportService.Format exportFormat = UserExportService.Format.parse(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + exportFormat.getExtension() + "\"")
+                .body(out -> userExportService.exportUsers(exportFormat, out));
+    }
+
+    /**
+     * Получение пользователя по id. Ответ содержит ETag; при совпадающем If-None-Match возвращается 304 без тела.
+     *
+     * @param id Идентификатор пользователя.
+     * @return Найденный пользователь.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<User> getUserById(@PathVariable Integer id, WebRequest request) {
+        return conditionalGet(request, () -> userService.findVersionById(id), () -> userService.getUserById(id));
+    }
+
+    /**
+     * Массовое создание пользователей из JSON-массива.
+     * Тело читается потоково, чтобы отклонить слишком большой импорт, не разбирая его целиком.
+     *
+     * @param body JSON-массив пользователей.
+     * @return Отчет по каждой строке.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResultDTO bulkImport(InputStream body) throws IOException {
+        return userImportService.importJson(body);
+    }
+
+    /**
+     * Массовое создание пользователей из CSV-файла
+     * (столбцы username, email, password, full_name и необязательный role).
+     *
+     * @param file CSV-файл.
+     * @return Отчет по каждой строке.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public BulkImportResultDTO bulkImportCsv(@RequestParam("file") MultipartFile file) throws IOException {
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return userImportService.importCsv(reader);
+        }
+    }
+
+    /**
+     * Получение пользователя по email. Ответ содержит ETag; при совпадающем If-None-Match возвращается 304 без тела.
      *
      * @param email Email пользователя.
      * @return Найденный пользователь.
      */
     @GetMapping("/email/{email}")
-    public User getUserByEmail(@PathVariable String email) {
-        return userService.getUserByEmail(email);
+    public ResponseEntity<User> getUserByEmail(@PathVariable String email, WebRequest request) {
+        return conditionalGet(request, () -> userService.findVersionByEmail(email), () -> userService.getUserByEmail(email));
     }
 
     /**
-     * Получение пользователя по username.
+     * Получение пользователя по username. Ответ содержит ETag; при совпадающем If-None-Match возвращается 304 без тела.
      *
      * @param username Username пользователя.
      * @return Найденный пользователь.
      */
     @GetMapping("/username/{username}")
-    public User getUserByUsername(@PathVariable String username) {
-        return userService.getUserByUsername(username);
+    public ResponseEntity<User> getUserByUsername(@PathVariable String username, WebRequest request) {
+        return conditionalGet(request, () -> userService.findVersionByUsername(username), () -> userService.getUserByUsername(username));
     }
 
     /**
-     * Обновление данных пользователя.
+     * Обновление данных пользователя. С заголовком If-Match (ETag из GET) обновление выполняется,
+     * только если пользователь не менялся с момента чтения, иначе 412.
      *
      * @param userDTO DTO обновленного пользователя.
-     * @return Обновленный пользователь.
+     * @param ifMatch ETag версии, которую изменяет клиент (необязательно).
+     * @return Обновленный пользователь с новым ETag.
      */
     @PutMapping("/{id}")
-    public User updateUser(@PathVariable Integer id, @Valid @RequestBody UserDTO userDTO) {
+    public ResponseEntity<User> updateUser(@PathVariable Integer id, @Valid @RequestBody UserDTO userDTO,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         userDTO.setId(id); // Устанавливаем ID из пути запроса
-        return userService.updateUser(userDTO);
+        User updatedUser = userService.updateUser(userDTO, UserETags.expectedVersion(ifMatch, id));
+        return ResponseEntity.ok().eTag(UserETags.of(updatedUser)).body(updatedUser);
+    }
+
+    /**
+     * Частичное обновление пользователя (JSON Merge Patch): изменяются только переданные поля.
+     * Необязательное поле version включает проверку оптимистической блокировки.
+     *
+     * @param id    Идентификатор пользователя.
+     * @param patch Изменяемые поля.
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void patchUser(@PathVariable Integer id, @RequestBody JsonNode patch) {
+        userService.patchUser(id, patch);
     }
 
     /**
@@ -89,5 +219,18 @@ public class UserController {
     public void deleteUser(@PathVariable Integer id) {
         userService.deleteUser(id);
     }
-}
 
+    // Свежесть проверяется по версии из кэша или запросу одной версии; пользователь загружается
+    // и сериализуется, только если у клиента нет актуальной копии
+    private static ResponseEntity<User> conditionalGet(WebRequest request, Supplier<Optional<UserVersion>> currentVersion,
+                                                       Supplier<User> user) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<UserVersion> version = currentVersion.get();
+            if (version.isPresent() && request.checkNotModified(UserETags.of(version.get()))) {
+                return null;  // 304 и ETag уже выставлены в ответе
+            }
+        }
+        User found = user.get();
+        return ResponseEntity.ok().eTag(UserETags.of(found)).body(found);
+    }
+}
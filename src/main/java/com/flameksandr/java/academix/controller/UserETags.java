@@ -0,0 +1,58 @@
+package com.flameksandr.java.academix.controller;
+
+import com.flameksandr.java.academix.exception.PreconditionFailedException;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserVersion;
+
+/**
+ * Сильные ETag пользователя вида {@code "<id>-<version>"}.
+ * <p>
+ * Версия увеличивается при каждом изменении профиля (PUT и PATCH), а id отличает пользователя,
+ * заново зарегистрированного с тем же email или username. Хеш пароля в представление не входит,
+ * поэтому его фоновая замена при входе (см. {@code UserRepository.replacePasswordHash}) не меняет
+ * ни тело ответа, ни версию, и ETag остается прежним.
+ */
+public final class UserETags {
+
+    private UserETags() {
+    }
+
+    public static String of(User user) {
+        return of(user.getId(), user.getVersion());
+    }
+
+    public static String of(UserVersion version) {
+        return of(version.id(), version.version());
+    }
+
+    public static String of(Integer id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Ожидаемая версия пользователя из заголовка {@code If-Match} (сильное сравнение, RFC 9110).
+     *
+     * @param ifMatch значение заголовка (может быть null)
+     * @param id      идентификатор изменяемого пользователя
+     * @return версия из первого ETag этого пользователя или null, если проверка не нужна (нет заголовка или {@code *})
+     * @throws PreconditionFailedException если ни один ETag не относится к этому пользователю
+     */
+    public static Long expectedVersion(String ifMatch, Integer id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = "\"" + id + "-";
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            // Слабые ETag в If-Match никогда не совпадают
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException e) {
+                    // чужой формат ETag: проверяем следующий
+                }
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match user with id " + id + ": " + ifMatch);
+    }
+}
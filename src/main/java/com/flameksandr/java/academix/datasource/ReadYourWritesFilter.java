@@ -0,0 +1,95 @@
+package com.flameksandr.java.academix.datasource;
+
+import com.flameksandr.java.academix.config.ReadReplicaProperties;
+import com.flameksandr.java.academix.security.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Привязывает запрос к окну read-your-writes {@link ReplicaStickiness} по cookie {@value #COOKIE_NAME}:
+ * время последней записи клиента, подписанное ключом токенов ({@link TokenService#signValue}). Cookie проверяется
+ * на любом узле с тем же {@code academix.auth.secret}, поэтому окно не зависит от того, на какой узел
+ * балансировщик отправил чтение. Запрос с изменяющим методом (POST, PUT, PATCH, DELETE) читает из основной БД
+ * и получает новую cookie; окно отсчитывается от начала записи, так как после обработки ответ может быть уже
+ * отправлен. Без настроенных реплик фильтр не работает.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "academix_last_write";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final ReplicaStickiness stickiness;
+    private final TokenService tokenService;
+    private final boolean enabled;
+
+    @Autowired
+    public ReadYourWritesFilter(ReplicaStickiness stickiness, TokenService tokenService, ReadReplicaProperties properties) {
+        this.stickiness = stickiness;
+        this.tokenService = tokenService;
+        this.enabled = !properties.getReplicas().isEmpty();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        stickiness.bind(lastWriteAt(request));
+        try {
+            if (!SAFE_METHODS.contains(request.getMethod())) {
+                stickiness.markWrite();
+                response.addHeader(HttpHeaders.SET_COOKIE, writeCookie(request, Instant.now()).toString());
+            }
+            filterChain.doFilter(request, response);
+        } finally {
+            stickiness.unbind();
+        }
+    }
+
+    private ResponseCookie writeCookie(HttpServletRequest request, Instant writtenAt) {
+        return ResponseCookie.from(COOKIE_NAME, tokenService.signValue(Long.toString(writtenAt.toEpochMilli())))
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(stickiness.getWindow())
+                .build();
+    }
+
+    // Время из cookie с неверной подписью или в неверном формате не учитывается: клиент читает с реплик
+    private Instant lastWriteAt(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return tokenService.verifyValue(cookie.getValue())
+                            .map(millis -> Instant.ofEpochMilli(Long.parseLong(millis)))
+                            .orElse(null);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
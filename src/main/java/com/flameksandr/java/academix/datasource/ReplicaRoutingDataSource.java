@@ -0,0 +1,184 @@
+package com.flameksandr.java.academix.datasource;
+
+import com.flameksandr.java.academix.config.ReadReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник соединений для read-only транзакций: выбирает реплику, а если читать с реплик нельзя — основную БД.
+ * <p>
+ * Реплика используется, только если последняя проверка ({@link #checkReplicas()}) прошла и отставание не больше
+ * {@code max-lag}. Клиент в окне read-your-writes ({@link ReplicaStickiness}) читает из основной БД.
+ * Реплика, не выдавшая соединение, исключается до следующей успешной проверки, а чтение уходит в основную БД.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadReplicaProperties.Selection selection;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final ReplicaStickiness stickiness;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter stickyReads;
+    private final Counter fallbackReads;
+
+    // Реплики, прошедшие последнюю проверку; список заменяется целиком
+    private volatile List<Replica> available = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, ReadReplicaProperties properties,
+                                    ReplicaStickiness stickiness, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.selection = properties.getSelection();
+        this.lagQuery = properties.getLagQuery() == null || properties.getLagQuery().isBlank() ? null : properties.getLagQuery();
+        this.maxLagMillis = properties.getMaxLag().toMillis();
+        this.stickiness = stickiness;
+        this.replicaReads = routeCounter(meterRegistry, "replica", "none");
+        this.stickyReads = routeCounter(meterRegistry, "primary", "read-your-writes");
+        this.fallbackReads = routeCounter(meterRegistry, "primary", "replicas-unavailable");
+        for (Replica replica : replicas) {
+            Gauge.builder("academix.datasource.replica.lag", replica, r -> r.lagMillis)
+                    .tag("replica", replica.name)
+                    .description("Replication lag reported by the last health check, ms (-1 if the check failed)")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("academix.datasource.replicas.available", this, d -> d.available.size())
+                .description("Replicas currently used for read-only transactions")
+                .register(meterRegistry);
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (stickiness.isSticky()) {
+            stickyReads.increment();
+            return primary.getConnection();
+        }
+        List<Replica> candidates = available;
+        if (!candidates.isEmpty()) {
+            Replica replica = choose(candidates);
+            try {
+                Connection connection = replica.pool.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Replica {} did not provide a connection, reading from the primary: {}", replica.name, e.getMessage());
+                replica.lagMillis = -1;
+                updateAvailable();
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica routing uses the credentials of each pool");
+    }
+
+    /**
+     * Проверяет соединение и отставание каждой реплики и обновляет список используемых.
+     */
+    @Scheduled(fixedDelayString = "${academix.datasource.health-check-interval:5s}")
+    public void checkReplicas() {
+        replicas.forEach(this::check);
+        updateAvailable();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private Replica choose(List<Replica> candidates) {
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        if (selection == ReadReplicaProperties.Selection.LEAST_CONNECTIONS) {
+            return candidates.stream().min(Comparator.comparingInt(Replica::busyConnections)).orElseThrow();
+        }
+        return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size()));
+    }
+
+    private void check(Replica replica) {
+        long lag;
+        try (Connection connection = replica.pool.getConnection(); Statement statement = connection.createStatement()) {
+            if (lagQuery == null) {
+                lag = 0;
+            } else {
+                try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    // NULL — отставание неизвестно (реплика еще ничего не применила): считаем ее отстающей
+                    lag = resultSet.next() && resultSet.getObject(1) != null ? Math.round(resultSet.getDouble(1)) : Long.MAX_VALUE;
+                }
+            }
+        } catch (SQLException e) {
+            if (replica.lagMillis >= 0) {
+                log.warn("Replica {} failed its health check: {}", replica.name, e.getMessage());
+            }
+            replica.lagMillis = -1;
+            return;
+        }
+        if (lag > maxLagMillis && replica.lagMillis <= maxLagMillis) {
+            log.warn("Replica {} is {} ms behind, reading from other replicas or the primary", replica.name, lag);
+        }
+        replica.lagMillis = lag;
+    }
+
+    private void updateAvailable() {
+        List<Replica> usable = replicas.stream()
+                .filter(replica -> replica.lagMillis >= 0 && replica.lagMillis <= maxLagMillis)
+                .toList();
+        if (usable.size() != available.size()) {
+            log.info("Read replicas in use: {} of {}", usable.size(), replicas.size());
+        }
+        available = usable;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("academix.datasource.reads")
+                .tag("target", target)
+                .tag("reason", reason)
+                .description("Read-only transactions by the database they were routed to")
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final HikariDataSource pool;
+        // Отставание по последней проверке, мс; -1 — реплика недоступна (до первой проверки тоже)
+        private volatile long lagMillis = -1;
+
+        private Replica(HikariDataSource pool) {
+            this.name = pool.getPoolName();
+            this.pool = pool;
+        }
+
+        private int busyConnections() {
+            HikariPoolMXBean pool = this.pool.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() + pool.getThreadsAwaitingConnection() : 0;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.flameksandr.java.academix.datasource;
+
+import com.flameksandr.java.academix.config.ReadReplicaProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Read-your-writes: клиент, который недавно что-то изменил, в течение {@code sticky-window} читает
+ * из основной БД, чтобы не увидеть на отстающей реплике свое же старое состояние.
+ * <p>
+ * Время последней записи хранит сам клиент (подписанная cookie, см. {@link ReadYourWritesFilter}),
+ * поэтому окно действует на любом узле. Здесь — только признак для текущего потока, заданный
+ * {@link #bind(Instant)}; потоки без запроса (фоновые задачи) не привязаны и читают с реплик.
+ */
+@Component
+public class ReplicaStickiness {
+
+    private static final ThreadLocal<Boolean> STICKY = new ThreadLocal<>();
+
+    private final Duration window;
+
+    @Autowired
+    public ReplicaStickiness(ReadReplicaProperties properties) {
+        this.window = properties.getStickyWindow();
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    /**
+     * Привязывает поток к клиенту, последняя запись которого была в {@code lastWriteAt} (null — не было).
+     */
+    public void bind(Instant lastWriteAt) {
+        if (lastWriteAt != null && Instant.now().isBefore(lastWriteAt.plus(window))) {
+            STICKY.set(Boolean.TRUE);
+        } else {
+            STICKY.remove();
+        }
+    }
+
+    public void unbind() {
+        STICKY.remove();
+    }
+
+    /**
+     * Отмечает запись от клиента текущего потока: дальнейшие чтения в этом потоке идут в основную БД.
+     */
+    public void markWrite() {
+        STICKY.set(Boolean.TRUE);
+    }
+
+    /**
+     * true, если клиент текущего потока писал в пределах окна и должен читать из основной БД.
+     */
+    public boolean isSticky() {
+        return Boolean.TRUE.equals(STICKY.get());
+    }
+}
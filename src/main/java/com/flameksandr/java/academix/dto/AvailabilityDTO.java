@@ -0,0 +1,21 @@
+package com.flameksandr.java.academix.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Результат проверки занятости. Поле равно null, если соответствующее значение не запрашивалось.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityDTO {
+
+    private Boolean emailAvailable;
+    private Boolean usernameAvailable;
+}
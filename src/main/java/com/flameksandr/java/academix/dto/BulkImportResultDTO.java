@@ -0,0 +1,23 @@
+package com.flameksandr.java.academix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Отчет о массовом импорте пользователей, по строке на каждую входную запись.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportResultDTO {
+
+    private int total;
+    private int created;
+    private int failed;
+    private List<BulkImportRowDTO> rows;
+}
@@ -0,0 +1,29 @@
+package com.flameksandr.java.academix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Результат импорта одной строки: id созданного пользователя либо код и текст ошибки.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportRowDTO {
+
+    private int row;
+    private Integer id;
+    private String errorCode;
+    private String message;
+
+    public static BulkImportRowDTO created(int row, Integer id) {
+        return new BulkImportRowDTO(row, id, null, null);
+    }
+
+    public static BulkImportRowDTO failed(int row, String errorCode, String message) {
+        return new BulkImportRowDTO(row, null, errorCode, message);
+    }
+}
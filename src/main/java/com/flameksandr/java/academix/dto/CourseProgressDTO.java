@@ -0,0 +1,23 @@
+package com.flameksandr.java.academix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Прогресс пользователя по одному курсу.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CourseProgressDTO {
+
+    private Integer courseId;
+    private long completedLessons;
+    private Integer lastLessonId;
+    private LocalDateTime lastEventAt;
+}
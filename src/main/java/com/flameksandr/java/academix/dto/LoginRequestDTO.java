@@ -0,0 +1,23 @@
+package com.flameksandr.java.academix.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Запрос на вход: {@code login} — username или email.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoginRequestDTO {
+
+    @NotBlank(message = "Login cannot be blank")
+    private String login;
+
+    @NotBlank(message = "Password cannot be blank")
+    private String password;
+}
@@ -0,0 +1,29 @@
+package com.flameksandr.java.academix.dto;
+
+import com.flameksandr.java.academix.model.NotificationCampaign;
+import com.flameksandr.java.academix.model.Role;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Состояние рассылки: сколько сообщений доставлено и не доставлено и до какого пользователя она дошла.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationCampaignDTO {
+
+    private Long id;
+    private Role role;
+    private NotificationCampaign.Status status;
+    private long sent;
+    private long failed;
+    private Integer cursorUserId;
+    private Instant createdAt;
+    private Instant completedAt;
+}
@@ -0,0 +1,25 @@
+package com.flameksandr.java.academix.dto;
+
+import com.flameksandr.java.academix.model.Role;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Запрос на рассылку: текст и роль получателей (без роли — всем пользователям с подключенным Telegram).
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationRequestDTO {
+
+    private Role role;
+
+    @NotBlank(message = "Message cannot be blank")
+    @Size(max = 4096, message = "Message must be at most 4096 characters")
+    private String message;
+}
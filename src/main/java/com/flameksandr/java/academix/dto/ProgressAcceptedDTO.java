@@ -0,0 +1,19 @@
+package com.flameksandr.java.academix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Ответ на прием событий: сколько принято и сохранены ли они в журнале на диске до ответа.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProgressAcceptedDTO {
+
+    private int accepted;
+    private boolean durable;
+}
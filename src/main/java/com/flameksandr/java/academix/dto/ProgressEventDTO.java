@@ -0,0 +1,34 @@
+package com.flameksandr.java.academix.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Входящее событие прогресса. Если {@code occurredAt} не задан, используется время приема.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProgressEventDTO {
+
+    @NotNull
+    @Positive
+    private Integer userId;
+
+    @NotNull
+    @Positive
+    private Integer courseId;
+
+    @NotNull
+    @Positive
+    private Integer lessonId;
+
+    private Instant occurredAt;
+}
@@ -0,0 +1,20 @@
+package com.flameksandr.java.academix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Выданный токен доступа; {@code expiresIn} — время жизни в секундах.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenResponseDTO {
+
+    private String accessToken;
+    private String tokenType;
+    private long expiresIn;
+}
@@ -0,0 +1,22 @@
+package com.flameksandr.java.academix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Страница списка пользователей. {@code nextCursor} передается в следующий запрос;
+ * null означает, что страниц больше нет.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPageDTO {
+
+    private List<UserSummaryDTO> items;
+    private String nextCursor;
+}
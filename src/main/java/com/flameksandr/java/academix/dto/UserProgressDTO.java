@@ -0,0 +1,23 @@
+package com.flameksandr.java.academix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Сводный прогресс пользователя по всем начатым курсам.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserProgressDTO {
+
+    private Integer userId;
+    private int coursesStarted;
+    private long lessonsCompleted;
+    private List<CourseProgressDTO> courses;
+}
@@ -0,0 +1,26 @@
+package com.flameksandr.java.academix.dto;
+
+import com.flameksandr.java.academix.model.Role;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Облегченное представление пользователя для списков: без пароля и служебных полей.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserSummaryDTO {
+
+    private Integer id;
+    private String username;
+    private String email;
+    private String fullName;
+    private Role role;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,20 @@
+package com.flameksandr.java.academix.exception;
+
+
+/**
+ * Базовый класс ожидаемых прикладных исключений (404, 400, 401, 412, 429, 503).
+ * <p>
+ * Такие исключения — штатный исход запроса, а не сбой, поэтому стек вызовов не собирается:
+ * это основная стоимость {@code new Exception} на горячем пути ошибок. Причина (cause)
+ * по-прежнему сохраняется со своим стеком.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+
+    protected DomainException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
@@ -0,0 +1,62 @@
+package com.flameksandr.java.academix.exception;
+
+import com.flameksandr.java.academix.model.User;
+import lombok.Getter;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+import java.util.Optional;
+
+@Getter
+public class DuplicateUserException extends IllegalArgumentException {
+
+    public enum Field {
+        EMAIL,
+        USERNAME
+    }
+
+    private final Field field;
+
+    public DuplicateUserException(Field field, String message, Throwable cause) {
+        super(message, cause);
+        this.field = field;
+    }
+
+    // Ожидаемый исход (400), стек вызовов не нужен; исходное исключение БД доступно как cause
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    /**
+     * Распознает нарушение уникального ограничения таблицы users по имени ограничения.
+     *
+     * @param e исключение, полученное при вставке или обновлении
+     * @return исключение о дубликате или пустой Optional, если ограничение не относится к email/username
+     */
+    public static Optional<DuplicateUserException> from(DataIntegrityViolationException e) {
+        String constraintName = constraintName(e);
+        if (constraintName == null) {
+            return Optional.empty();
+        }
+        // Имя может приходить с префиксом схемы или в верхнем регистре (H2)
+        String normalized = constraintName.toLowerCase(Locale.ROOT);
+        if (normalized.contains(User.EMAIL_CONSTRAINT)) {
+            return Optional.of(new DuplicateUserException(Field.EMAIL, "Email already exists", e));
+        }
+        if (normalized.contains(User.USERNAME_CONSTRAINT)) {
+            return Optional.of(new DuplicateUserException(Field.USERNAME, "Username already exists", e));
+        }
+        return Optional.empty();
+    }
+
+    private static String constraintName(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName();
+            }
+        }
+        return e.getMessage();
+    }
+}
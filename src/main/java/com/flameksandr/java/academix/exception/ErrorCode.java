@@ -0,0 +1,38 @@
+package com.flameksandr.java.academix.exception;
+
+/**
+ * Коды ошибок API. Код и текст берутся из message.properties по ключам
+ * {@code error.<key>} и {@code error.<key>Message}.
+ */
+public enum ErrorCode {
+
+    DUPLICATE_DATA("duplicateData"),
+    DUPLICATE_EMAIL("duplicateEmail"),
+    DUPLICATE_USERNAME("duplicateUsername"),
+    INVALID_REQUEST("invalidRequest"),
+    VALIDATION_FAILED("validationFailed"),
+    INVALID_CREDENTIALS("invalidCredentials"),
+    INVALID_TOKEN("invalidToken"),
+    USER_NOT_FOUND("userNotFound"),
+    NOT_FOUND("notFound"),
+    METHOD_NOT_ALLOWED("methodNotAllowed"),
+    UNSUPPORTED_MEDIA_TYPE("unsupportedMediaType"),
+    PAYLOAD_TOO_LARGE("payloadTooLarge"),
+    CONFLICT("conflict"),
+    PRECONDITION_FAILED("preconditionFailed"),
+    REQUEST_IN_PROGRESS("requestInProgress"),
+    IDEMPOTENCY_KEY_REUSED("idempotencyKeyReused"),
+    TOO_MANY_REQUESTS("tooManyRequests"),
+    SERVICE_BUSY("serviceBusy"),
+    INTERNAL_SERVER_ERROR("internalServerError");
+
+    private final String messageKey;
+
+    ErrorCode(String messageKey) {
+        this.messageKey = messageKey;
+    }
+
+    public String getMessageKey() {
+        return messageKey;
+    }
+}
@@ -1,18 +1,53 @@
 package com.flameksandr.java.academix.exception;
 
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
 
+import java.util.List;
+
+/**
+ * Тело ответа об ошибке. Неизменяемо: ответы без ошибок полей создаются один раз
+ * и переиспользуются (см. {@link ErrorResponses}).
+ */
 @Getter
-@Setter
-@AllArgsConstructor
-@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ErrorResponse {
 
-    private String errorCode;
-    private String message;
-}
+    private final String errorCode;
+    private final String message;
+    private final List<FieldError> fieldErrors;
+
+    public ErrorResponse(String errorCode, String message) {
+        this(errorCode, message, null);
+    }
+
+    @JsonCreator
+    public ErrorResponse(@JsonProperty("errorCode") String errorCode,
+                         @JsonProperty("message") String message,
+                         @JsonProperty("fieldErrors") List<FieldError> fieldErrors) {
+        this.errorCode = errorCode;
+        this.message = message;
+        this.fieldErrors = fieldErrors != null ? List.copyOf(fieldErrors) : null;
+    }
 
+    public ErrorResponse withFieldErrors(List<FieldError> fieldErrors) {
+        return new ErrorResponse(errorCode, message, fieldErrors);
+    }
+
+    // Ошибка валидации одного поля запроса
+    @Getter
+    public static class FieldError {
+
+        private final String field;
+        private final String message;
+
+        @JsonCreator
+        public FieldError(@JsonProperty("field") String field, @JsonProperty("message") String message) {
+            this.field = field;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.flameksandr.java.academix.exception;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Готовые {@link ErrorResponse} для каждого {@link ErrorCode} и поддерживаемой локали.
+ * <p>
+ * Сообщения разрешаются через {@link MessageSource} один раз при старте, поэтому
+ * обработка ошибки не делает поиска сообщений и не создает новых объектов.
+ * Неизвестная локаль сводится к языку, а затем к первой локали из {@code academix.error.locales}.
+ */
+@Component
+public class ErrorResponses {
+
+    private final Map<Locale, Map<ErrorCode, ErrorResponse>> responsesByLocale = new HashMap<>();
+    private final Map<ErrorCode, ErrorResponse> defaultResponses;
+
+    @Autowired
+    public ErrorResponses(MessageSource messageSource, @Value("${academix.error.locales:en}") List<Locale> locales) {
+        for (Locale locale : locales) {
+            Map<ErrorCode, ErrorResponse> responses = new EnumMap<>(ErrorCode.class);
+            for (ErrorCode code : ErrorCode.values()) {
+                String key = "error." + code.getMessageKey();
+                responses.put(code, new ErrorResponse(
+                        messageSource.getMessage(key, null, code.name(), locale),
+                        messageSource.getMessage(key + "Message", null, code.name(), locale)));
+            }
+            responsesByLocale.put(locale, responses);
+        }
+        this.defaultResponses = responsesByLocale.get(locales.get(0));
+    }
+
+    public ErrorResponse get(ErrorCode code, Locale locale) {
+        Map<ErrorCode, ErrorResponse> responses = responsesByLocale.get(locale);
+        if (responses == null && locale != null) {
+            responses = responsesByLocale.get(Locale.of(locale.getLanguage()));
+        }
+        return (responses != null ? responses : defaultResponses).get(code);
+    }
+}
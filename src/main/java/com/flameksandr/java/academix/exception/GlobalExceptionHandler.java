@@ -1,48 +1,189 @@
 package com.flameksandr.java.academix.exception;
 
-import org.springframework.context.MessageSource;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Path;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
-import java.util.Locale;
+import java.util.List;
 
+@Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
-    private final MessageSource messageSource;
+    private final ErrorResponses errorResponses;
 
     @Autowired
-    public GlobalExceptionHandler(MessageSource messageSource) {
-        this.messageSource = messageSource;
+    public GlobalExceptionHandler(ErrorResponses errorResponses) {
+        this.errorResponses = errorResponses;
     }
 
-    // Обработка исключений, связанных с дублирующимися данными (email, username)
-    @ExceptionHandler({IllegalArgumentException.class})
+    // Обработка дубликата email или username, распознанного по имени уникального ограничения
+    @ExceptionHandler({DuplicateUserException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handleDuplicateDataException() {
-        // Передаем пустой массив, так как не требуется форматирование сообщения
-        String errorMessage = messageSource.getMessage("error.duplicateDataMessage", new Object[0], Locale.getDefault());
-        return new ErrorResponse(messageSource.getMessage("error.duplicateData", new Object[0], Locale.getDefault()), errorMessage);
+    public ErrorResponse handleDuplicateUserException(DuplicateUserException e) {
+        return response(e.getField() == DuplicateUserException.Field.EMAIL ? ErrorCode.DUPLICATE_EMAIL : ErrorCode.DUPLICATE_USERNAME);
+    }
+
+    // Нарушение ограничений БД вне createUser (например, при обновлении или регистрации)
+    @ExceptionHandler({DataIntegrityViolationException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleDataIntegrityViolationException(DataIntegrityViolationException e) {
+        return DuplicateUserException.from(e)
+                .map(this::handleDuplicateUserException)
+                .orElseGet(() -> response(ErrorCode.DUPLICATE_DATA));
+    }
+
+    // Обработка некорректных параметров запроса, в том числе нечитаемого тела и параметров неверного типа
+    @ExceptionHandler({InvalidRequestException.class, HttpMessageNotReadableException.class,
+            MissingServletRequestParameterException.class, MethodArgumentTypeMismatchException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidRequestException() {
+        return response(ErrorCode.INVALID_REQUEST);
+    }
+
+    // Ошибки валидации тела запроса (@Valid в контроллере): список полей с сообщениями
+    @ExceptionHandler({MethodArgumentNotValidException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleMethodArgumentNotValidException(MethodArgumentNotValidException e) {
+        List<ErrorResponse.FieldError> fieldErrors = e.getBindingResult().getFieldErrors().stream()
+                .map(error -> new ErrorResponse.FieldError(error.getField(), error.getDefaultMessage()))
+                .toList();
+        return response(ErrorCode.VALIDATION_FAILED).withFieldErrors(fieldErrors);
+    }
+
+    // Ошибки валидации параметров сервиса (@Validated): поле — последний узел пути
+    @ExceptionHandler({ConstraintViolationException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleConstraintViolationException(ConstraintViolationException e) {
+        List<ErrorResponse.FieldError> fieldErrors = e.getConstraintViolations().stream()
+                .map(violation -> new ErrorResponse.FieldError(leafName(violation), violation.getMessage()))
+                .toList();
+        return response(ErrorCode.VALIDATION_FAILED).withFieldErrors(fieldErrors);
+    }
+
+    // Обработка конфликта версий при одновременном изменении пользователя
+    @ExceptionHandler({OptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailureException() {
+        return response(ErrorCode.CONFLICT);
+    }
+
+    // Обработка устаревшего ETag в If-Match: клиент изменял не последнюю версию пользователя
+    @ExceptionHandler({PreconditionFailedException.class})
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ErrorResponse handlePreconditionFailedException() {
+        return response(ErrorCode.PRECONDITION_FAILED);
     }
 
     // Обработка исключений, связанных с ненайденным пользователем
     @ExceptionHandler({UserNotFoundException.class})
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleUserNotFoundException() {
-        // Передаем пустой массив для получения сообщения
-        String errorMessage = messageSource.getMessage("error.userNotFoundMessage", new Object[0], Locale.getDefault());
-        return new ErrorResponse(messageSource.getMessage("error.userNotFound", new Object[0], Locale.getDefault()), errorMessage);
+        return response(ErrorCode.USER_NOT_FOUND);
+    }
+
+    // Обработка запроса к несуществующему адресу или рассылке
+    @ExceptionHandler({NoResourceFoundException.class, NotificationNotFoundException.class})
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handleNoResourceFoundException() {
+        return response(ErrorCode.NOT_FOUND);
+    }
+
+    // Метод не поддерживается адресом; допустимые методы — в заголовке Allow
+    @ExceptionHandler({HttpRequestMethodNotSupportedException.class})
+    public ResponseEntity<ErrorResponse> handleHttpRequestMethodNotSupportedException(HttpRequestMethodNotSupportedException e) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED);
+        if (e.getSupportedHttpMethods() != null) {
+            builder.allow(e.getSupportedHttpMethods().toArray(new HttpMethod[0]));
+        }
+        return builder.body(response(ErrorCode.METHOD_NOT_ALLOWED));
+    }
+
+    // Тип тела не поддерживается; допустимые типы — в заголовке Accept
+    @ExceptionHandler({HttpMediaTypeNotSupportedException.class})
+    public ResponseEntity<ErrorResponse> handleHttpMediaTypeNotSupportedException(HttpMediaTypeNotSupportedException e) {
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .header(HttpHeaders.ACCEPT, MediaType.toString(e.getSupportedMediaTypes()))
+                .body(response(ErrorCode.UNSUPPORTED_MEDIA_TYPE));
+    }
+
+    // Слишком большой импорт: лимит строк или размера тела, в том числе размера загружаемого файла
+    @ExceptionHandler({PayloadTooLargeException.class, MaxUploadSizeExceededException.class})
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    public ErrorResponse handlePayloadTooLargeException() {
+        return response(ErrorCode.PAYLOAD_TOO_LARGE);
+    }
+
+    // Обработка неверного логина или пароля
+    @ExceptionHandler({InvalidCredentialsException.class})
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    public ErrorResponse handleInvalidCredentialsException() {
+        return response(ErrorCode.INVALID_CREDENTIALS);
+    }
+
+    // Обработка отсутствующего, поддельного или истекшего токена доступа
+    @ExceptionHandler({InvalidTokenException.class})
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    public ErrorResponse handleInvalidTokenException() {
+        return response(ErrorCode.INVALID_TOKEN);
+    }
+
+    // Обработка превышения лимита попыток; клиенту сообщаем, когда можно повторить
+    @ExceptionHandler({RateLimitExceededException.class})
+    public ResponseEntity<ErrorResponse> handleRateLimitExceededException(RateLimitExceededException e) {
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response(ErrorCode.TOO_MANY_REQUESTS));
+    }
+
+    // Обработка переполнения очереди хеширования паролей или очереди событий прогресса
+    // и исчерпания пула соединений JDBC (Hikari не выдал соединение за connection-timeout)
+    @ExceptionHandler({PasswordHashingRejectedException.class, ProgressQueueFullException.class, CannotCreateTransactionException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handlePasswordHashingRejectedException() {
+        return response(ErrorCode.SERVICE_BUSY);
     }
 
     // Обработка других непойманных исключений
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public ErrorResponse handleGenericException() {
-        // Передаем пустой массив для получения сообщения
-        String errorMessage = messageSource.getMessage("error.internalServerErrorMessage", new Object[0], Locale.getDefault());
-        return new ErrorResponse(messageSource.getMessage("error.internalServerError", new Object[0], Locale.getDefault()), errorMessage);
+    public ErrorResponse handleGenericException(Exception e) {
+        log.error("Unhandled exception", e);
+        return response(ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+
+    private ErrorResponse response(ErrorCode code) {
+        return errorResponses.get(code, LocaleContextHolder.getLocale());
+    }
+
+    private static String leafName(ConstraintViolation<?> violation) {
+        String name = null;
+        for (Path.Node node : violation.getPropertyPath()) {
+            name = node.getName();
+        }
+        return name;
     }
 }
@@ -0,0 +1,14 @@
+package com.flameksandr.java.academix.exception;
+
+
+public class InvalidCredentialsException extends DomainException {
+
+    // Неверный логин или пароль
+    public InvalidCredentialsException(String message) {
+        super(message);
+    }
+
+    public InvalidCredentialsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
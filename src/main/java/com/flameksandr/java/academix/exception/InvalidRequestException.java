@@ -0,0 +1,14 @@
+package com.flameksandr.java.academix.exception;
+
+
+public class InvalidRequestException extends DomainException {
+
+    // Некорректные параметры запроса (например, поврежденный курсор пагинации)
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
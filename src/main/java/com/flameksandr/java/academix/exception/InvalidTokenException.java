@@ -0,0 +1,14 @@
+package com.flameksandr.java.academix.exception;
+
+
+public class InvalidTokenException extends DomainException {
+
+    // Токен доступа отсутствует, поврежден, подделан или истек
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
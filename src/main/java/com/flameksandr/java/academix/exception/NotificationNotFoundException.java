@@ -0,0 +1,10 @@
+package com.flameksandr.java.academix.exception;
+
+
+public class NotificationNotFoundException extends DomainException {
+
+    // Выбрасывается, если рассылки с таким id нет
+    public NotificationNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.flameksandr.java.academix.exception;
+
+
+public class PasswordHashingRejectedException extends DomainException {
+
+    // Выбрасывается, когда очередь пула хеширования переполнена
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
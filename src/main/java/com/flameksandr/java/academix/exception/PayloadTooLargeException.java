@@ -0,0 +1,10 @@
+package com.flameksandr.java.academix.exception;
+
+
+public class PayloadTooLargeException extends DomainException {
+
+    // Тело запроса превышает лимит (например, число строк или размер файла массового импорта)
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
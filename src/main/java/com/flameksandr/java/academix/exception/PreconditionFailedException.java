@@ -0,0 +1,12 @@
+package com.flameksandr.java.academix.exception;
+
+
+/**
+ * Условие запроса не выполнено: версия из {@code If-Match} не совпадает с текущей (412).
+ */
+public class PreconditionFailedException extends DomainException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
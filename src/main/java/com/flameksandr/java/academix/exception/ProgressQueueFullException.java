@@ -0,0 +1,10 @@
+package com.flameksandr.java.academix.exception;
+
+
+public class ProgressQueueFullException extends DomainException {
+
+    // Выбрасывается, когда очередь событий прогресса переполнена (запись в БД не успевает)
+    public ProgressQueueFullException(String message) {
+        super(message);
+    }
+}
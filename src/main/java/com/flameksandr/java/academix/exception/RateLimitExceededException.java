@@ -0,0 +1,18 @@
+package com.flameksandr.java.academix.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class RateLimitExceededException extends DomainException {
+
+    // Через сколько можно повторить попытку
+    private final Duration retryAfter;
+
+    // Превышен лимит попыток (например, входа) для пользователя или IP-адреса
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -1,16 +1,42 @@
 package com.flameksandr.java.academix.exception;
 
 
-public class UserNotFoundException extends RuntimeException {
+public class UserNotFoundException extends DomainException {
+
+    private final String attribute;
+    private final Object value;
 
     // Конструктор для передачи только сообщения
     public UserNotFoundException(String message) {
         super(message);
+        this.attribute = null;
+        this.value = null;
     }
 
     // Конструктор для передачи сообщения и причины (себя в качестве cause)
     public UserNotFoundException(String message, Throwable cause) {
         super(message, cause);
+        this.attribute = null;
+        this.value = null;
+    }
+
+    // value типа Object: вызов с Throwable выбрал бы конструктор (message, cause), поэтому создаем только через by()
+    private UserNotFoundException(String attribute, Object value) {
+        super(null);
+        this.attribute = attribute;
+        this.value = value;
     }
-}
 
+    /**
+     * Промах по атрибуту; текст сообщения собирается только при обращении к {@link #getMessage()}
+     * (ответу 404 он не нужен).
+     */
+    public static UserNotFoundException by(String attribute, Object value) {
+        return new UserNotFoundException(attribute, value);
+    }
+
+    @Override
+    public String getMessage() {
+        return attribute != null ? "User not found with " + attribute + ": " + value : super.getMessage();
+    }
+}
@@ -0,0 +1,256 @@
+package com.flameksandr.java.academix.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flameksandr.java.academix.config.IdempotencyProperties;
+import com.flameksandr.java.academix.exception.ErrorCode;
+import com.flameksandr.java.academix.exception.ErrorResponses;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Обработка заголовка {@code Idempotency-Key} для POST-запросов на пути из {@code academix.idempotency.paths}.
+ * <p>
+ * Первый запрос с ключом выполняется, и его ответ (кроме 5xx) сохраняется на {@code ttl}. Повтор с тем же
+ * ключом и телом получает сохраненный ответ с заголовком {@code Idempotent-Replayed: true}, не доходя
+ * до контроллера (ни bcrypt, ни обращений к БД). Повтор, пришедший, пока первый запрос выполняется,
+ * ждет его ответа до {@code wait-timeout}, а не выполняется параллельно. Тот же ключ с другим телом — 422.
+ * Запросы без заголовка обрабатываются как раньше.
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+    private final ErrorResponses errorResponses;
+    private final ObjectMapper objectMapper;
+    private final Set<String> paths;
+    private final Counter executedCounter;
+    private final Counter replayedCounter;
+    private final Counter waitedCounter;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties, ErrorResponses errorResponses,
+                             ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.properties = properties;
+        this.errorResponses = errorResponses;
+        this.objectMapper = objectMapper;
+        this.paths = Set.copyOf(properties.getPaths());
+        this.executedCounter = requestCounter(meterRegistry, "executed", "Idempotent requests executed for the first time");
+        this.replayedCounter = requestCounter(meterRegistry, "replayed", "Idempotent requests answered with a stored response");
+        this.waitedCounter = requestCounter(meterRegistry, "waited", "Idempotent requests that waited for an in-flight duplicate");
+        this.rejectedCounter = requestCounter(meterRegistry, "rejected", "Idempotent requests rejected (key reuse or wait timeout)");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !paths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > properties.getMaxKeyLength()) {
+            reject(request, response, HttpStatus.BAD_REQUEST, ErrorCode.INVALID_REQUEST);
+            return;
+        }
+        // Ключ действует в пределах метода и пути: один и тот же ключ на разных ресурсах не конфликтует
+        String key = request.getMethod() + " " + request.getRequestURI() + " " + idempotencyKey;
+        byte[] body = request.getInputStream().readAllBytes();
+        String fingerprint = fingerprint(body);
+
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+        boolean waited = false;
+        while (true) {
+            IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+            switch (claim.outcome()) {
+                case ACQUIRED -> {
+                    execute(new CachedBodyRequest(request, body), response, filterChain, key, claim.token());
+                    return;
+                }
+                case COMPLETED -> {
+                    replay(response, claim.response());
+                    return;
+                }
+                case MISMATCH -> {
+                    log.debug("Idempotency key reused with a different body: {}", key);
+                    reject(request, response, HttpStatus.UNPROCESSABLE_ENTITY, ErrorCode.IDEMPOTENCY_KEY_REUSED);
+                    return;
+                }
+                case IN_PROGRESS -> {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        reject(request, response, HttpStatus.CONFLICT, ErrorCode.REQUEST_IN_PROGRESS);
+                        return;
+                    }
+                    if (!waited) {
+                        waitedCounter.increment();
+                        waited = true;
+                    }
+                    Optional<IdempotencyStore.StoredResponse> stored = await(key, Duration.ofNanos(remaining));
+                    if (stored.isPresent()) {
+                        replay(response, stored.get());
+                        return;
+                    }
+                    // Первый запрос освободил ключ (завершился ошибкой) или время вышло: пробуем занять ключ снова
+                }
+            }
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, String key,
+                         String token) throws ServletException, IOException {
+        executedCounter.increment();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            byte[] body = wrapper.getContentAsByteArray();
+            // Ответ 5xx (например, 503 при перегрузке) не окончателен: повтор должен выполниться заново
+            if (wrapper.getStatus() < 500 && body.length <= properties.getMaxResponseSize().toBytes()) {
+                store.complete(key, token, new IdempotencyStore.StoredResponse(wrapper.getStatus(), wrapper.getContentType(), body));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(key, token);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        replayedCounter.increment();
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, ErrorCode code) throws IOException {
+        rejectedCounter.increment();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponses.get(code, request.getLocale()));
+    }
+
+    private Optional<IdempotencyStore.StoredResponse> await(String key, Duration timeout) throws IOException {
+        try {
+            return store.await(key, timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an in-flight idempotent request", e);
+        }
+    }
+
+    private static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result, String description) {
+        return Counter.builder("academix.idempotency.requests")
+                .tag("result", result)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    // Тело уже прочитано для отпечатка: контроллер читает его копию
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Asynchronous reads are not supported");
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
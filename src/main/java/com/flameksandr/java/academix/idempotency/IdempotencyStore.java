@@ -0,0 +1,77 @@
+package com.flameksandr.java.academix.idempotency;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Хранилище первых ответов на запросы с ключом идемпотентности.
+ * <p>
+ * Запрос сначала занимает ключ ({@link #claim}); занявший выполняет запрос и сохраняет ответ
+ * ({@link #complete}) или, если ответ сохранять нельзя, освобождает ключ ({@link #release}).
+ * Сохранить ответ и освободить ключ может только владелец — по токену, выданному при захвате:
+ * запрос, у которого ключ перехватили, не перезапишет чужой ответ и не освободит чужой ключ.
+ * Остальные запросы с тем же ключом ждут результата ({@link #await}) и получают сохраненный ответ.
+ */
+public interface IdempotencyStore {
+
+    enum Outcome {
+        // Ключ занят этим запросом: его нужно выполнить
+        ACQUIRED,
+        // Ответ уже сохранен
+        COMPLETED,
+        // Запрос с этим ключом выполняется
+        IN_PROGRESS,
+        // Ключ уже использован с другим телом запроса
+        MISMATCH
+    }
+
+    /**
+     * Результат попытки занять ключ; {@code token} задан только для {@link Outcome#ACQUIRED},
+     * {@code response} — только для {@link Outcome#COMPLETED}.
+     */
+    record Claim(Outcome outcome, String token, StoredResponse response) {
+
+        static Claim of(Outcome outcome) {
+            return new Claim(outcome, null, null);
+        }
+
+        static Claim acquired(String token) {
+            return new Claim(Outcome.ACQUIRED, token, null);
+        }
+
+        static Claim completed(StoredResponse response) {
+            return new Claim(Outcome.COMPLETED, null, response);
+        }
+    }
+
+    /**
+     * Сохраненный ответ: статус, тип содержимого и тело.
+     */
+    record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    /**
+     * Занимает ключ или сообщает, что с ним уже сделано.
+     *
+     * @param key         ключ вместе с методом и путем запроса
+     * @param fingerprint отпечаток тела запроса
+     */
+    Claim claim(String key, String fingerprint);
+
+    /**
+     * Ждет ответа на выполняющийся запрос.
+     *
+     * @return ответ или пусто, если время вышло либо ключ освобожден
+     */
+    Optional<StoredResponse> await(String key, Duration timeout) throws InterruptedException;
+
+    /**
+     * Сохраняет ответ, если ключ все еще принадлежит владельцу токена.
+     */
+    void complete(String key, String token, StoredResponse response);
+
+    /**
+     * Освобождает ключ без ответа, если он все еще принадлежит владельцу токена.
+     */
+    void release(String key, String token);
+}
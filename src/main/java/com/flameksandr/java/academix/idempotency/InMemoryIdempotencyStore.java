@@ -0,0 +1,98 @@
+package com.flameksandr.java.academix.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Хранилище ключей в памяти узла. Ожидающие повторы блокируются на future выполняющегося запроса.
+ * <p>
+ * Память ограничена суммарным весом записей (ключ, отпечаток и тело ответа в байтах): при превышении
+ * Caffeine вытесняет редко используемые ключи, после чего повтор с таким ключом выполнится заново.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    // Примерный размер записи без ключа и тела: объекты записи, future, ответа и узла кэша
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private record Entry(String fingerprint, String token, CompletableFuture<StoredResponse> result) {
+    }
+
+    private final Cache<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(Duration ttl, long maxMemoryBytes) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxMemoryBytes)
+                .weigher(InMemoryIdempotencyStore::weigh)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Override
+    public Claim claim(String key, String fingerprint) {
+        String token = UUID.randomUUID().toString();
+        Entry entry = entries.asMap().putIfAbsent(key, new Entry(fingerprint, token, new CompletableFuture<>()));
+        if (entry == null) {
+            return Claim.acquired(token);
+        }
+        if (!entry.fingerprint().equals(fingerprint)) {
+            return Claim.of(Outcome.MISMATCH);
+        }
+        StoredResponse response = entry.result().getNow(null);
+        return response != null ? Claim.completed(response) : Claim.of(Outcome.IN_PROGRESS);
+    }
+
+    @Override
+    public Optional<StoredResponse> await(String key, Duration timeout) throws InterruptedException {
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(entry.result().get(timeout.toNanos(), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Idempotent request result completed exceptionally", e.getCause());
+        }
+    }
+
+    @Override
+    public void complete(String key, String token, StoredResponse response) {
+        // Запись могла быть вытеснена и занята заново другим запросом: его ключ не трогаем
+        entries.asMap().computeIfPresent(key, (k, entry) -> {
+            if (!entry.token().equals(token)) {
+                return entry;
+            }
+            entry.result().complete(response);
+            return new Entry(entry.fingerprint(), entry.token(), entry.result());  // новая запись — вес пересчитывается с телом ответа
+        });
+    }
+
+    @Override
+    public void release(String key, String token) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null && entry.token().equals(token) && entries.asMap().remove(key, entry)) {
+            entry.result().complete(null);  // ожидающие повторы попробуют занять ключ сами
+        }
+    }
+
+    public long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    private static int weigh(String key, Entry entry) {
+        StoredResponse response = entry.result().getNow(null);
+        int body = response != null ? response.body().length : 0;
+        return ENTRY_OVERHEAD + 2 * (key.length() + entry.fingerprint().length() + entry.token().length()) + body;
+    }
+}
@@ -0,0 +1,190 @@
+package com.flameksandr.java.academix.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Хранилище ключей в таблице {@code idempotency_keys}, общее для всех узлов.
+ * <p>
+ * Ключ занимает тот, чья вставка прошла по первичному ключу. Пока ответа нет, строка держит аренду
+ * {@code locked_until} с токеном владельца {@code lock_owner}: если узел упал, не сохранив ответ, по ее
+ * истечении запрос выполнит другой узел. Пока запрос выполняется, узел продлевает аренду каждую треть
+ * {@code lease}, поэтому долгий запрос не перехватывается. Ответ сохраняется и ключ освобождается только
+ * по токену владельца. Повторы на других узлах ждут ответа, опрашивая строку раз в {@code poll-interval}.
+ */
+@Slf4j
+public class JdbcIdempotencyStore implements IdempotencyStore, AutoCloseable {
+
+    private record Row(String fingerprint, StoredResponse response, Instant lockedUntil, Instant expiresAt) {
+    }
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> {
+        int status = rs.getInt("status");
+        StoredResponse response = rs.wasNull() ? null
+                : new StoredResponse(status, rs.getString("content_type"), rs.getBytes("body"));
+        Timestamp lockedUntil = rs.getTimestamp("locked_until");
+        return new Row(rs.getString("fingerprint"), response, lockedUntil != null ? lockedUntil.toInstant() : null,
+                rs.getTimestamp("expires_at").toInstant());
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Duration pollInterval;
+    // Ключи, занятые запросами этого узла, и токены их аренды
+    private final ConcurrentMap<String, String> held = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Duration ttl, Duration lease, Duration pollInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.pollInterval = pollInterval;
+        long renewInterval = Math.max(1, lease.toMillis() / 3);
+        renewer.scheduleWithFixedDelay(this::renewLeases, renewInterval, renewInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Claim claim(String key, String fingerprint) {
+        while (true) {
+            Instant now = Instant.now();
+            String token = UUID.randomUUID().toString();
+            try {
+                jdbcTemplate.update("""
+                                insert into idempotency_keys (idempotency_key, fingerprint, lock_owner, locked_until, expires_at)
+                                values (?, ?, ?, ?, ?)""",
+                        key, fingerprint, token, Timestamp.from(now.plus(lease)), Timestamp.from(now.plus(ttl)));
+                return acquired(key, token);
+            } catch (DuplicateKeyException e) {
+                // ключ уже есть: смотрим, в каком он состоянии
+            }
+            Optional<Row> found = find(key);
+            if (found.isEmpty()) {
+                continue;  // ключ только что освободили
+            }
+            Row row = found.get();
+            if (row.expiresAt().isBefore(now)) {
+                jdbcTemplate.update("delete from idempotency_keys where idempotency_key = ? and expires_at < ?", key, Timestamp.from(now));
+                continue;
+            }
+            if (!row.fingerprint().equals(fingerprint)) {
+                return Claim.of(Outcome.MISMATCH);
+            }
+            if (row.response() != null) {
+                return Claim.completed(row.response());
+            }
+            if (row.lockedUntil().isBefore(now)) {
+                // Аренда истекла, а ответа нет: выполнивший узел упал. Перехватывает только один узел
+                int taken = jdbcTemplate.update("""
+                                update idempotency_keys set lock_owner = ?, locked_until = ?
+                                where idempotency_key = ? and status is null and locked_until < ?""",
+                        token, Timestamp.from(now.plus(lease)), key, Timestamp.from(now));
+                if (taken == 1) {
+                    log.warn("Taking over idempotency key {} after its lease expired", key);
+                    return acquired(key, token);
+                }
+                continue;
+            }
+            return Claim.of(Outcome.IN_PROGRESS);
+        }
+    }
+
+    @Override
+    public Optional<StoredResponse> await(String key, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            Optional<Row> row = find(key);
+            if (row.isEmpty() || row.get().response() != null) {
+                return row.map(Row::response);
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return Optional.empty();
+            }
+            Thread.sleep(Math.min(pollInterval.toMillis(), Math.max(1, remaining / 1_000_000)));
+        }
+    }
+
+    @Override
+    public void complete(String key, String token, StoredResponse response) {
+        held.remove(key, token);
+        int updated = jdbcTemplate.update("""
+                        update idempotency_keys set status = ?, content_type = ?, body = ?, lock_owner = null, locked_until = null
+                        where idempotency_key = ? and lock_owner = ? and status is null""",
+                response.status(), response.contentType(), response.body(), key, token);
+        if (updated == 0) {
+            log.warn("Response for idempotency key {} was not stored: the key was taken over by another request", key);
+        }
+    }
+
+    @Override
+    public void release(String key, String token) {
+        held.remove(key, token);
+        jdbcTemplate.update("delete from idempotency_keys where idempotency_key = ? and lock_owner = ? and status is null", key, token);
+    }
+
+    /**
+     * Продлевает аренду ключей, запросы по которым еще выполняются на этом узле.
+     */
+    public void renewLeases() {
+        held.forEach((key, token) -> {
+            try {
+                int renewed = jdbcTemplate.update(
+                        "update idempotency_keys set locked_until = ? where idempotency_key = ? and lock_owner = ? and status is null",
+                        Timestamp.from(Instant.now().plus(lease)), key, token);
+                if (renewed == 0) {
+                    // Аренда истекла раньше продления (например, БД была недоступна) и ключ перехвачен
+                    log.warn("Lost the lease on idempotency key {}", key);
+                    held.remove(key, token);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Failed to renew the lease on idempotency key {}, will retry: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        renewer.shutdownNow();
+    }
+
+    // Просроченные ключи не мешают (claim их перезаписывает), но занимают место
+    @Scheduled(fixedDelayString = "${academix.idempotency.purge-interval:10m}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("delete from idempotency_keys where expires_at < ?", Timestamp.from(Instant.now()));
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Claim acquired(String key, String token) {
+        held.put(key, token);
+        return Claim.acquired(token);
+    }
+
+    private Optional<Row> find(String key) {
+        return jdbcTemplate.query("select fingerprint, status, content_type, body, locked_until, expires_at"
+                        + " from idempotency_keys where idempotency_key = ?", ROW_MAPPER, key)
+                .stream()
+                .findFirst();
+    }
+}
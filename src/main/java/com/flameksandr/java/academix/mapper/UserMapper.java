@@ -0,0 +1,45 @@
+package com.flameksandr.java.academix.mapper;
+
+import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.dto.UserSummaryDTO;
+import com.flameksandr.java.academix.model.User;
+import org.springframework.stereotype.Component;
+
+/**
+ * Явное преобразование между {@link User} и DTO без рефлексии.
+ * <p>
+ * Правила:
+ * <ul>
+ *     <li>пароль никогда не копируется — в сущность попадает только хеш, который выставляет сервис;</li>
+ *     <li>createdAt и updatedAt заполняет Hibernate, из DTO они не берутся;</li>
+ *     <li>id из DTO не переносится: {@link #toEntity} создает нового пользователя, id выдает последовательность.</li>
+ * </ul>
+ */
+@Component
+public class UserMapper {
+
+    public User toEntity(UserDTO userDTO) {
+        User user = new User();
+        copyProfile(userDTO, user);
+        return user;
+    }
+
+    /**
+     * Переносит изменяемые поля профиля в существующую сущность.
+     */
+    public void copyProfile(UserDTO userDTO, User user) {
+        user.setUsername(userDTO.getUsername());
+        user.setEmail(userDTO.getEmail());
+        user.setFullName(userDTO.getFullName());
+        user.setRole(userDTO.getRole());
+    }
+
+    public UserDTO toDto(User user) {
+        return new UserDTO(user.getId(), user.getUsername(), user.getEmail(), null, user.getFullName(), user.getRole());
+    }
+
+    public UserSummaryDTO toSummary(User user) {
+        return new UserSummaryDTO(user.getId(), user.getUsername(), user.getEmail(),
+                user.getFullName(), user.getRole(), user.getCreatedAt());
+    }
+}
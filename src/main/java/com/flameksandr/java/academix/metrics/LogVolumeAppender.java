@@ -0,0 +1,43 @@
+package com.flameksandr.java.academix.metrics;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+/**
+ * Синхронный appender, который ничего не пишет, а только считает события и символы
+ * сообщений, залогированные текущим потоком между {@link #begin()} и {@link #end()}.
+ * <p>
+ * Подключается к корневому логгеру рядом с асинхронным appender-ом, поэтому вызывается
+ * в потоке запроса и видит ровно те события, которые прошли фильтр уровня.
+ */
+public class LogVolumeAppender extends AppenderBase<ILoggingEvent> {
+
+    private static final ThreadLocal<long[]> VOLUME = new ThreadLocal<>();
+
+    /**
+     * Начинает подсчет в текущем потоке.
+     */
+    public static void begin() {
+        VOLUME.set(new long[2]);
+    }
+
+    /**
+     * Завершает подсчет в текущем потоке.
+     *
+     * @return {@code [число событий, число символов]} с момента {@link #begin()}
+     */
+    public static long[] end() {
+        long[] volume = VOLUME.get();
+        VOLUME.remove();
+        return volume != null ? volume : new long[2];
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        long[] volume = VOLUME.get();
+        if (volume != null) {
+            volume[0]++;
+            volume[1] += event.getFormattedMessage().length();
+        }
+    }
+}
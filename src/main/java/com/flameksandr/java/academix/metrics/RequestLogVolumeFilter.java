@@ -0,0 +1,50 @@
+package com.flameksandr.java.academix.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Измеряет объем логов на один HTTP-запрос: метрики {@code academix.logging.events.per.request}
+ * и {@code academix.logging.bytes.per.request} (по длине отформатированных сообщений).
+ */
+@Component
+public class RequestLogVolumeFilter extends OncePerRequestFilter {
+
+    private final DistributionSummary eventsPerRequest;
+    private final DistributionSummary bytesPerRequest;
+
+    @Autowired
+    public RequestLogVolumeFilter(MeterRegistry meterRegistry) {
+        this.eventsPerRequest = DistributionSummary.builder("academix.logging.events.per.request")
+                .description("Log events written while serving one request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.bytesPerRequest = DistributionSummary.builder("academix.logging.bytes.per.request")
+                .description("Characters of log messages written while serving one request")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LogVolumeAppender.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long[] volume = LogVolumeAppender.end();
+            eventsPerRequest.record(volume[0]);
+            bytesPerRequest.record(volume[1]);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.flameksandr.java.academix.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Журнал медленных вызовов репозиториев.
+ * <p>
+ * Как {@link StatementInspector} запоминает SQL, подготовленный в текущем потоке, а как
+ * {@link RepositoryMethodInvocationListener} по завершении каждого вызова репозитория
+ * забирает накопленные запросы и, если вызов длился дольше порога, пишет их в лог
+ * вместе с числом параметров привязки. Запросы, выполненные вне вызова репозитория
+ * (например, flush при коммите), приписываются следующему вызову в том же потоке.
+ * <p>
+ * Вместо {@code spring.jpa.show-sql} доля {@code sampleRate} всех запросов пишется на уровне DEBUG
+ * в логгер {@code academix.sql.sampled}; канал включается через {@code logging.level.academix.sql=debug}.
+ */
+@Slf4j
+public class SlowQueryLog implements StatementInspector, RepositoryMethodInvocationListener {
+
+    private static final int MAX_CAPTURED_STATEMENTS = 10;
+    private static final Logger SAMPLED_SQL = LoggerFactory.getLogger("academix.sql.sampled");
+
+    private final ThreadLocal<List<String>> statements = ThreadLocal.withInitial(ArrayList::new);
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final Counter slowCounter;
+
+    public SlowQueryLog(Duration threshold, double sampleRate, MeterRegistry meterRegistry) {
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.slowCounter = Counter.builder("academix.repository.slow")
+                .description("Repository calls slower than the slow-query threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (SAMPLED_SQL.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            SAMPLED_SQL.debug("[{} binds] {}", countBindParameters(sql), sql);
+        }
+        List<String> captured = statements.get();
+        if (captured.size() < MAX_CAPTURED_STATEMENTS) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        List<String> captured = statements.get();
+        try {
+            long durationNanos = invocation.getDuration(TimeUnit.NANOSECONDS);
+            if (durationNanos < thresholdNanos) {
+                return;
+            }
+            slowCounter.increment();
+            log.warn("Slow repository call {}.{} took {} ms, {} statement(s): {}",
+                    invocation.getRepositoryInterface().getSimpleName(), invocation.getMethod().getName(),
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), captured.size(), describe(captured));
+        } finally {
+            captured.clear();
+        }
+    }
+
+    private static String describe(List<String> captured) {
+        StringBuilder description = new StringBuilder();
+        for (String sql : captured) {
+            description.append("\n  [").append(countBindParameters(sql)).append(" binds] ").append(sql);
+        }
+        return description.toString();
+    }
+
+    // Считает позиционные параметры '?' вне строковых литералов
+    static int countBindParameters(String sql) {
+        int count = 0;
+        boolean inLiteral = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            } else if (c == '?' && !inLiteral) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,83 @@
+package com.flameksandr.java.academix.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отчет о времени холодного старта: сколько заняли миграции Flyway, создание EntityManagerFactory
+ * (bootstrap Hibernate и проверка схемы) и весь запуск контекста. Время инициализации измеряется
+ * от {@code postProcessBeforeInitialization} до {@code postProcessAfterInitialization} соответствующего бина.
+ * Итог пишется в лог и в метрику {@code academix.startup.phase} с тегом {@code phase}.
+ */
+@Slf4j
+public class StartupTimeReport implements BeanPostProcessor, ApplicationListener<ApplicationReadyEvent> {
+
+    private final Map<String, Long> startedAt = new ConcurrentHashMap<>();
+    private final Map<String, Duration> phases = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        String phase = phaseOf(bean);
+        if (phase != null) {
+            startedAt.put(phase, System.nanoTime());
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        String phase = phaseOf(bean);
+        Long started = phase == null ? null : startedAt.remove(phase);
+        if (started != null) {
+            phases.merge(phase, Duration.ofNanos(System.nanoTime() - started), Duration::plus);
+        }
+        return bean;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        Map<String, Duration> report = new LinkedHashMap<>();
+        report.put("jvm", Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime()));
+        if (event.getTimeTaken() != null) {
+            report.put("context", event.getTimeTaken());
+        }
+        report.put("migration", phases.getOrDefault("migration", Duration.ZERO));
+        report.put("jpa", phases.getOrDefault("jpa", Duration.ZERO));
+
+        log.info("Startup time: context {} ms (JVM uptime {} ms), of which migrations {} ms, JPA bootstrap {} ms",
+                millis(report.get("context")), millis(report.get("jvm")), millis(report.get("migration")), millis(report.get("jpa")));
+
+        event.getApplicationContext().getBeanProvider(MeterRegistry.class).ifAvailable(meterRegistry ->
+                report.forEach((phase, duration) -> TimeGauge.builder("academix.startup.phase", duration, TimeUnit.MILLISECONDS, Duration::toMillis)
+                        .tag("phase", phase)
+                        .description("Time spent in a startup phase")
+                        .register(meterRegistry)));
+    }
+
+    private static String phaseOf(Object bean) {
+        if (bean instanceof FlywayMigrationInitializer) {
+            return "migration";
+        }
+        if (bean instanceof AbstractEntityManagerFactoryBean) {
+            return "jpa";
+        }
+        return null;
+    }
+
+    private static long millis(Duration duration) {
+        return duration == null ? -1 : duration.toMillis();
+    }
+}
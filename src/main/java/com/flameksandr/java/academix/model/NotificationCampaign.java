@@ -0,0 +1,30 @@
+package com.flameksandr.java.academix.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Рассылка уведомления всем пользователям роли (или всем, если роль не задана) с подключенным Telegram.
+ * {@code cursorUserId} — id последнего получателя уже отправленной страницы.
+ */
+@Getter
+@AllArgsConstructor
+public class NotificationCampaign {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED
+    }
+
+    private final long id;
+    private final Role role;
+    private final String message;
+    private final Status status;
+    private final int cursorUserId;
+    private final long sent;
+    private final long failed;
+    private final Instant createdAt;
+    private final Instant completedAt;
+}
@@ -0,0 +1,19 @@
+package com.flameksandr.java.academix.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Событие «урок пройден»: неизменяемая запись в очереди write-behind и в журнале событий.
+ */
+@Getter
+@AllArgsConstructor
+public class ProgressEvent {
+
+    private final int userId;
+    private final int courseId;
+    private final int lessonId;
+    private final Instant occurredAt;
+}
@@ -1,19 +1,33 @@
 package com.flameksandr.java.academix.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.validation.constraints.*;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.text.Normalizer;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
-@Table(name = "users")
+@DynamicUpdate  // UPDATE содержит только измененные столбцы
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"),
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username")
+}, indexes = {
+        // Индексы под keyset-пагинацию списка пользователей
+        @Index(name = "idx_users_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_users_role_created_at_id", columnList = "role, created_at, id"),
+        // Индекс под постраничный обход получателей рассылки по роли
+        @Index(name = "idx_users_role_id", columnList = "role, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,23 +35,33 @@ import java.time.LocalDateTime;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class User {
 
+    // Email и username хранятся нормализованными (см. normalizeIdentifier), поэтому уникальность без учета
+    // регистра обеспечивают обычные уникальные индексы, а поиск по ним остается поиском по индексу
+    // Имена уникальных ограничений, по которым распознаются дубликаты при вставке
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+
+    // Идентификаторы из последовательности блоками по 50: в отличие от IDENTITY не отключает JDBC batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(name = "id")  // Явно указываем имя столбца
     Integer id;
 
     @NotNull
     @Size(min = 3, max = 20)
-    @Column(name = "username", unique = true, nullable = false)
+    @Column(name = "username", nullable = false)
     String username;
 
     @NotNull
     @Email
-    @Column(name = "email", unique = true, nullable = false)
+    @Column(name = "email", nullable = false)
     String email;
 
+    // Хеш пароля только принимается (регистрация), но не отдается: он не входит в представление и ETag
     @NotNull
     @Size(min = 8)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(name = "password", nullable = false)
     String password;
 
@@ -58,11 +82,35 @@ public class User {
     @Column(name = "updated_at", nullable = false)
     LocalDateTime updatedAt;
 
-    @PrePersist
-    public void hashPassword() {
-        if (this.password != null) {
-            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-            this.password = encoder.encode(this.password);
+    // Версия для оптимистической блокировки; увеличивается при каждом обновлении
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    Long version;
+
+    // Чат Telegram для уведомлений; null — пользователь не подключил бота
+    @Column(name = "telegram_chat_id")
+    Long telegramChatId;
+
+    /**
+     * Приводит email или username к виду, в котором он хранится и ищется:
+     * без пробелов по краям, в Unicode NFKC и в нижнем регистре.
+     *
+     * @param value исходное значение (может быть null)
+     * @return нормализованное значение или null
+     */
+    public static String normalizeIdentifier(String value) {
+        if (value == null) {
+            return null;
         }
+        return Normalizer.normalize(value.trim(), Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    // Нормализация при записи через сущность; UPDATE-запросы (patch) нормализуют значения сами
+    @PrePersist
+    @PreUpdate
+    void normalizeIdentifiers() {
+        email = normalizeIdentifier(email);
+        username = normalizeIdentifier(username);
     }
 }
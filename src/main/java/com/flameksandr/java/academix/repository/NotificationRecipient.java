@@ -0,0 +1,11 @@
+package com.flameksandr.java.academix.repository;
+
+/**
+ * Получатель рассылки: только id пользователя и его чат Telegram.
+ */
+public interface NotificationRecipient {
+
+    Integer getId();
+
+    Long getTelegramChatId();
+}
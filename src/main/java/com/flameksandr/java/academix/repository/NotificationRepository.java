@@ -0,0 +1,127 @@
+package com.flameksandr.java.academix.repository;
+
+import com.flameksandr.java.academix.model.NotificationCampaign;
+import com.flameksandr.java.academix.model.Role;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Рассылки и их курсоры. Отправляет рассылку только узел, держащий аренду: она берется и продлевается
+ * условным UPDATE, поэтому после падения узла рассылку подхватывает другой, когда аренда истечет.
+ */
+@Repository
+public class NotificationRepository {
+
+    private static final String COLUMNS =
+            "id, role, message, status, cursor_user_id, sent, failed, created_at, completed_at";
+    private static final RowMapper<NotificationCampaign> CAMPAIGN_MAPPER = (rs, rowNum) -> new NotificationCampaign(
+            rs.getLong("id"),
+            rs.getString("role") != null ? Role.valueOf(rs.getString("role")) : null,
+            rs.getString("message"),
+            NotificationCampaign.Status.valueOf(rs.getString("status")),
+            rs.getInt("cursor_user_id"),
+            rs.getLong("sent"),
+            rs.getLong("failed"),
+            rs.getTimestamp("created_at").toInstant(),
+            rs.getTimestamp("completed_at") != null ? rs.getTimestamp("completed_at").toInstant() : null);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public NotificationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long create(Role role, String message, Instant now) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "insert into notification_campaigns (role, message, status, created_at) values (?, ?, ?, ?)", new String[]{"id"});
+            statement.setString(1, role != null ? role.name() : null);
+            statement.setString(2, message);
+            statement.setString(3, NotificationCampaign.Status.RUNNING.name());
+            statement.setTimestamp(4, Timestamp.from(now));
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKeyAs(Number.class).longValue();
+    }
+
+    public Optional<NotificationCampaign> findById(long id) {
+        return jdbcTemplate.query("select " + COLUMNS + " from notification_campaigns where id = ?", CAMPAIGN_MAPPER, id)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Берет в аренду самую старую незавершенную рассылку, если она свободна, ее аренда истекла или уже
+     * принадлежит узлу. Рассылки отправляются строго по одной на весь кластер: все узлы претендуют только
+     * на самую старую, а аренда не выдается, пока другой узел держит действующую аренду любой рассылки.
+     * Поэтому общий лимит бота, который считается в памяти узла, не умножается на число узлов.
+     *
+     * @return рассылка или пусто, если брать нечего или рассылку отправляет другой узел
+     */
+    public Optional<NotificationCampaign> claimNext(String owner, Instant now, Instant leaseUntil) {
+        List<Long> candidates = jdbcTemplate.queryForList(
+                "select id from notification_campaigns where status = 'RUNNING' order by id limit 1", Long.class);
+        if (candidates.isEmpty()) {
+            return Optional.empty();
+        }
+        long id = candidates.get(0);
+        // Проверка чужих аренд страхует от рассылки с меньшим id, зафиксированной уже после чужого выбора
+        int claimed = jdbcTemplate.update("""
+                        update notification_campaigns set lease_owner = ?, lease_until = ?
+                        where id = ? and status = 'RUNNING' and (lease_owner is null or lease_owner = ? or lease_until < ?)
+                          and not exists (select 1 from notification_campaigns other
+                                          where other.id <> ? and other.status = 'RUNNING'
+                                            and other.lease_owner <> ? and other.lease_until >= ?)""",
+                owner, Timestamp.from(leaseUntil), id, owner, Timestamp.from(now), id, owner, Timestamp.from(now));
+        return claimed == 1 ? findById(id) : Optional.empty();
+    }
+
+    /**
+     * Сдвигает курсор после отправленной страницы и продлевает аренду.
+     *
+     * @return false, если аренду за это время забрал другой узел
+     */
+    public boolean advance(long id, String owner, int cursorUserId, long sent, long failed, Instant leaseUntil) {
+        return jdbcTemplate.update("""
+                        update notification_campaigns
+                        set cursor_user_id = ?, sent = sent + ?, failed = failed + ?, lease_until = ?
+                        where id = ? and lease_owner = ?""",
+                cursorUserId, sent, failed, Timestamp.from(leaseUntil), id, owner) == 1;
+    }
+
+    /**
+     * Продлевает аренду, пока страница рассылки еще отправляется.
+     *
+     * @return false, если аренду забрал другой узел
+     */
+    public boolean renew(long id, String owner, Instant leaseUntil) {
+        return jdbcTemplate.update("update notification_campaigns set lease_until = ? where id = ? and lease_owner = ?",
+                Timestamp.from(leaseUntil), id, owner) == 1;
+    }
+
+    public void complete(long id, String owner, Instant now) {
+        jdbcTemplate.update("""
+                        update notification_campaigns
+                        set status = 'COMPLETED', completed_at = ?, lease_owner = null, lease_until = null
+                        where id = ? and lease_owner = ?""",
+                Timestamp.from(now), id, owner);
+    }
+
+    // Досрочное освобождение аренды при остановке узла: рассылку сразу может продолжить другой
+    public void release(long id, String owner) {
+        jdbcTemplate.update("update notification_campaigns set lease_owner = null, lease_until = null where id = ? and lease_owner = ?",
+                id, owner);
+    }
+}
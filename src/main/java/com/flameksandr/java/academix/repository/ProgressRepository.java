@@ -0,0 +1,155 @@
+package com.flameksandr.java.academix.repository;
+
+import com.flameksandr.java.academix.dto.CourseProgressDTO;
+import com.flameksandr.java.academix.model.ProgressEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запись событий прогресса пачками JDBC и чтение агрегатов {@code course_progress}.
+ */
+@Repository
+public class ProgressRepository {
+
+    // Урок учитывается один раз: повтор события (переотправка клиентом, повтор пачки, дочитывание журнала)
+    // не вставляется и возвращает 0 строк. Через select, а не values: драйвер PostgreSQL с reWriteBatchedInserts
+    // склеил бы вставки values в одну команду и не вернул бы счетчики по строкам
+    private static final String INSERT_EVENT = """
+            insert into progress_events (user_id, course_id, lesson_id, occurred_at)
+            select cast(? as integer), cast(? as integer), cast(? as integer), cast(? as timestamp(6))
+            on conflict do nothing""";
+    // Последний урок меняется, только если событие не старше уже учтенного
+    private static final String UPDATE_PROGRESS = """
+            update course_progress
+            set completed_lessons = completed_lessons + ?,
+                last_lesson_id = case when ? >= last_event_at then ? else last_lesson_id end,
+                last_event_at = case when ? >= last_event_at then ? else last_event_at end
+            where user_id = ? and course_id = ?""";
+    private static final String INSERT_PROGRESS =
+            "insert into course_progress (user_id, course_id, completed_lessons, last_lesson_id, last_event_at) values (?, ?, ?, ?, ?)";
+
+    /**
+     * Суммарное изменение прогресса по (пользователь, курс) за одну пачку событий.
+     */
+    public record Delta(int userId, int courseId, long completedLessons, int lastLessonId, Instant lastEventAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ProgressRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Записывает события в историю и применяет к агрегатам изменения только от действительно вставленных
+     * событий, в одной транзакции; повторы уже учтенных уроков пропускаются.
+     * Обновления существующих строк агрегата и вставки новых идут пачками.
+     *
+     * @return число новых событий
+     */
+    @Transactional
+    public int apply(List<ProgressEvent> events) {
+        List<ProgressEvent> inserted = insertEvents(events);
+        if (inserted.isEmpty()) {
+            return 0;
+        }
+
+        List<Delta> missing = update(new ArrayList<>(coalesce(inserted)));
+        if (!missing.isEmpty()) {
+            // Если строку параллельно вставил другой узел, транзакция откатится целиком,
+            // а повторная попытка пройдет по ветке UPDATE
+            jdbcTemplate.batchUpdate(INSERT_PROGRESS, missing, missing.size(), (statement, delta) -> {
+                statement.setInt(1, delta.userId());
+                statement.setInt(2, delta.courseId());
+                statement.setLong(3, delta.completedLessons());
+                statement.setInt(4, delta.lastLessonId());
+                statement.setTimestamp(5, Timestamp.from(delta.lastEventAt()));
+            });
+        }
+        return inserted.size();
+    }
+
+    /**
+     * Агрегаты пользователя по всем курсам; читается только по префиксу первичного ключа.
+     */
+    public List<CourseProgressDTO> findByUserId(Integer userId) {
+        return jdbcTemplate.query(
+                "select course_id, completed_lessons, last_lesson_id, last_event_at from course_progress where user_id = ? order by course_id",
+                (rs, rowNum) -> new CourseProgressDTO(rs.getInt("course_id"), rs.getLong("completed_lessons"),
+                        rs.getInt("last_lesson_id"), rs.getTimestamp("last_event_at").toLocalDateTime()),
+                userId);
+    }
+
+    // Склеивание событий одного (пользователь, курс): одно обновление агрегата вместо N
+    static Collection<Delta> coalesce(List<ProgressEvent> events) {
+        Map<Long, Delta> deltas = new LinkedHashMap<>();
+        for (ProgressEvent event : events) {
+            long key = ((long) event.getUserId() << 32) | (event.getCourseId() & 0xFFFFFFFFL);
+            deltas.merge(key,
+                    new Delta(event.getUserId(), event.getCourseId(), 1, event.getLessonId(), event.getOccurredAt()),
+                    (current, next) -> next.lastEventAt().isBefore(current.lastEventAt())
+                            ? new Delta(current.userId(), current.courseId(), current.completedLessons() + 1,
+                            current.lastLessonId(), current.lastEventAt())
+                            : new Delta(current.userId(), current.courseId(), current.completedLessons() + 1,
+                            next.lastLessonId(), next.lastEventAt()));
+        }
+        return deltas.values();
+    }
+
+    // Возвращает события, которых еще не было в истории
+    private List<ProgressEvent> insertEvents(List<ProgressEvent> events) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (statement, event) -> {
+            statement.setInt(1, event.getUserId());
+            statement.setInt(2, event.getCourseId());
+            statement.setInt(3, event.getLessonId());
+            statement.setTimestamp(4, Timestamp.from(event.getOccurredAt()));
+        });
+        List<ProgressEvent> inserted = new ArrayList<>(events.size());
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0) {
+                    inserted.add(events.get(index));
+                }
+                index++;
+            }
+        }
+        return inserted;
+    }
+
+    // Возвращает изменения, для которых строки агрегата еще нет
+    private List<Delta> update(List<Delta> deltas) {
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_PROGRESS, deltas, deltas.size(), (statement, delta) -> {
+            Timestamp lastEventAt = Timestamp.from(delta.lastEventAt());
+            statement.setLong(1, delta.completedLessons());
+            statement.setTimestamp(2, lastEventAt);
+            statement.setInt(3, delta.lastLessonId());
+            statement.setTimestamp(4, lastEventAt);
+            statement.setTimestamp(5, lastEventAt);
+            statement.setInt(6, delta.userId());
+            statement.setInt(7, delta.courseId());
+        });
+        List<Delta> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(deltas.get(index));
+                }
+                index++;
+            }
+        }
+        return missing;
+    }
+}
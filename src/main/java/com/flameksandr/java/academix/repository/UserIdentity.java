@@ -0,0 +1,11 @@
+package com.flameksandr.java.academix.repository;
+
+/**
+ * Проекция пользователя на уникальные атрибуты (для фильтров занятости).
+ */
+public interface UserIdentity {
+
+    String getEmail();
+
+    String getUsername();
+}
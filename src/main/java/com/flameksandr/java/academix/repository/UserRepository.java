@@ -1,21 +1,98 @@
 package com.flameksandr.java.academix.repository;
 
+import com.flameksandr.java.academix.model.Role;
 import com.flameksandr.java.academix.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Integer> {
+/**
+ * Методы чтения помечены {@code @Transactional(readOnly = true)}: вне транзакции записи они выполняются
+ * на реплике (см. {@code DataSourceConfig}), а внутри нее — в той же транзакции в основной БД.
+ */
+public interface UserRepository extends JpaRepository<User, Integer>, UserRepositoryCustom {
+
+    int EXPORT_FETCH_SIZE = 500;
 
     // Метод для проверки существования пользователя по email
+    @Transactional(readOnly = true)
     boolean existsByEmail(String email);
 
     // Метод для проверки существования пользователя по username
+    @Transactional(readOnly = true)
     boolean existsByUsername(String username);
 
     // Метод для поиска пользователя по email
+    @Transactional(readOnly = true)
     Optional<User> findByEmail(String email);
 
     // Метод для поиска пользователя по username
+    @Transactional(readOnly = true)
     Optional<User> findByUsername(String username);
+
+    // Только id и версия пользователя для проверки ETag, без загрузки сущности
+    @Transactional(readOnly = true)
+    @Query("select new com.flameksandr.java.academix.repository.UserVersion(u.id, u.version) from User u where u.id = :id")
+    Optional<UserVersion> findVersionById(@Param("id") Integer id);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.flameksandr.java.academix.repository.UserVersion(u.id, u.version) from User u where u.email = :email")
+    Optional<UserVersion> findVersionByEmail(@Param("email") String email);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.flameksandr.java.academix.repository.UserVersion(u.id, u.version) from User u where u.username = :username")
+    Optional<UserVersion> findVersionByUsername(@Param("username") String username);
+
+    // Число хешей, которые PasswordHashPolicy.isOutdated пересчитала бы при входе: без префикса {bcrypt},
+    // без двузначного cost или с cost ниже текущего. Cost — две цифры, поэтому сравнивается как строка
+    @Query("""
+            select count(u) from User u
+            where u.password not like '{bcrypt}$2_$__$%'
+               or substring(u.password, 13, 1) not between '0' and '9'
+               or substring(u.password, 14, 1) not between '0' and '9'
+               or substring(u.password, 13, 2) < :cost""")
+    long countOutdatedPasswordHashes(@Param("cost") String cost);
+
+    // Замена хеша пароля, только если он не изменился с момента чтения; версию профиля не трогает
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int replacePasswordHash(@Param("id") Integer id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    // Потоковое чтение только email и username всех пользователей; требует открытой транзакции
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select u.email as email, u.username as username from User u")
+    Stream<UserIdentity> streamAllIdentities();
+
+    // Email и username указанных пользователей
+    @Transactional(readOnly = true)
+    List<UserIdentity> findIdentitiesByIdIn(Collection<Integer> ids);
+
+    // Потоковое чтение всех пользователей курсором; требует открытой транзакции
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAllByOrderById();
+
+    // Страница получателей рассылки с подключенным Telegram: keyset по id, для роли — по индексу (role, id)
+    @Transactional(readOnly = true)
+    @Query("select u.id as id, u.telegramChatId as telegramChatId from User u"
+            + " where u.role = :role and u.id > :afterId and u.telegramChatId is not null order by u.id")
+    List<NotificationRecipient> findRecipientsByRole(@Param("role") Role role, @Param("afterId") Integer afterId, Limit limit);
+
+    // То же для рассылки всем пользователям
+    @Transactional(readOnly = true)
+    @Query("select u.id as id, u.telegramChatId as telegramChatId from User u"
+            + " where u.id > :afterId and u.telegramChatId is not null order by u.id")
+    List<NotificationRecipient> findRecipients(@Param("afterId") Integer afterId, Limit limit);
 }
@@ -0,0 +1,35 @@
+package com.flameksandr.java.academix.repository;
+
+import com.flameksandr.java.academix.dto.UserSummaryDTO;
+import com.flameksandr.java.academix.model.Role;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Keyset-выборка пользователей в порядке (created_at, id), начиная строго после заданной позиции.
+     * Пустые фильтры не попадают в SQL, поэтому запрос всегда опирается на индекс.
+     *
+     * @param role           фильтр по роли или null
+     * @param prefix         нормализованный префикс username, email или fullName (без учета регистра) либо null
+     * @param afterCreatedAt created_at последней строки предыдущей страницы или null для первой страницы
+     * @param afterId        id последней строки предыдущей страницы
+     * @param limit          максимальное число строк
+     * @return строки страницы
+     */
+    List<UserSummaryDTO> findSummaries(Role role, String prefix, LocalDateTime afterCreatedAt, Integer afterId, int limit);
+
+    /**
+     * Частичное обновление одним {@code UPDATE ... SET} только по переданным полям, без предварительного чтения.
+     * Заодно выставляет updated_at и увеличивает version.
+     *
+     * @param id              идентификатор пользователя
+     * @param changes         новые значения по именам атрибутов сущности
+     * @param expectedVersion ожидаемая версия строки или null, если проверка не нужна
+     * @return число обновленных строк (0 — нет такого пользователя или версия не совпала)
+     */
+    int patch(Integer id, Map<String, Object> changes, Long expectedVersion);
+}
@@ -0,0 +1,84 @@
+package com.flameksandr.java.academix.repository;
+
+import com.flameksandr.java.academix.dto.UserSummaryDTO;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSummaryDTO> findSummaries(Role role, String prefix, LocalDateTime afterCreatedAt, Integer afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserSummaryDTO> query = cb.createQuery(UserSummaryDTO.class);
+        Root<User> user = query.from(User.class);
+
+        // Выбираем только нужные столбцы — хеш пароля не читается
+        query.select(cb.construct(UserSummaryDTO.class,
+                user.get("id"), user.get("username"), user.get("email"),
+                user.get("fullName"), user.get("role"), user.get("createdAt")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (role != null) {
+            predicates.add(cb.equal(user.get("role"), role));
+        }
+        if (prefix != null) {
+            // prefix уже нормализован (User.normalizeIdentifier): username и email хранятся в том же виде,
+            // а fullName хранится как введен — сравниваем его в нижнем регистре, чтобы поиск по имени
+            // тоже не зависел от регистра
+            String pattern = escapeLike(prefix) + "%";
+            predicates.add(cb.or(
+                    cb.like(user.<String>get("username"), pattern, '\\'),
+                    cb.like(user.<String>get("email"), pattern, '\\'),
+                    cb.like(cb.lower(user.<String>get("fullName")), pattern, '\\')));
+        }
+        if (afterCreatedAt != null) {
+            // (created_at, id) > (:afterCreatedAt, :afterId)
+            predicates.add(cb.or(
+                    cb.greaterThan(user.<LocalDateTime>get("createdAt"), afterCreatedAt),
+                    cb.and(cb.equal(user.get("createdAt"), afterCreatedAt), cb.greaterThan(user.<Integer>get("id"), afterId))));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(user.get("createdAt")), cb.asc(user.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public int patch(Integer id, Map<String, Object> changes, Long expectedVersion) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<User> update = cb.createCriteriaUpdate(User.class);
+        Root<User> user = update.from(User.class);
+
+        changes.forEach(update::set);
+        // @UpdateTimestamp и @Version не срабатывают для UPDATE-запросов — выставляем вручную
+        update.set(user.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        update.set(user.<Long>get("version"), cb.sum(user.<Long>get("version"), 1L));
+
+        Predicate byId = cb.equal(user.get("id"), id);
+        update.where(expectedVersion == null ? byId : cb.and(byId, cb.equal(user.get("version"), expectedVersion)));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
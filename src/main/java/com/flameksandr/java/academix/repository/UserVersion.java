@@ -0,0 +1,7 @@
+package com.flameksandr.java.academix.repository;
+
+/**
+ * Идентификатор и версия пользователя: все, что нужно для ETag без загрузки сущности.
+ */
+public record UserVersion(Integer id, Long version) {
+}
@@ -0,0 +1,134 @@
+package com.flameksandr.java.academix.security;
+
+import com.flameksandr.java.academix.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * {@link PasswordEncoder}, выполняющий bcrypt в отдельном ограниченном пуле потоков.
+ * <p>
+ * Число одновременно работающих хешей не превышает размер пула, а при переполнении
+ * очереди запрос сразу отклоняется с {@link PasswordHashingRejectedException}
+ * вместо того, чтобы занимать потоки Tomcat.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("academix.password.hash")
+                .description("Time spent in bcrypt encode/matches")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("academix.password.hash.rejected")
+                .description("Hash requests rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("academix.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Hash requests waiting for a free worker")
+                .register(meterRegistry);
+        Gauge.builder("academix.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hash requests currently being computed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return await(submit(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(submit(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Асинхронное хеширование для вызывающих, которые не хотят ждать результат.
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Хеширует пачку паролей параллельно. Задачи отправляются окнами размером с пул,
+     * поэтому массовая операция не занимает очередь, нужную интерактивным запросам.
+     *
+     * @param rawPasswords пароли в исходном порядке
+     * @return хеши в том же порядке
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int window = executor.getMaximumPoolSize();
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        for (int from = 0; from < rawPasswords.size(); from += window) {
+            List<CompletableFuture<String>> futures = rawPasswords.subList(from, Math.min(from + window, rawPasswords.size()))
+                    .stream()
+                    .map(this::encodeAsync)
+                    .toList();
+            futures.forEach(future -> hashes.add(await(future)));
+        }
+        return hashes;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hashTimer.record(task), executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException("Password hashing queue is full", e);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
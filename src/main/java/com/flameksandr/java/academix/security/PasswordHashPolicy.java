@@ -0,0 +1,109 @@
+package com.flameksandr.java.academix.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Текущие параметры хеширования паролей и формат хранимого хеша.
+ * <p>
+ * Хеш хранится с префиксом алгоритма, как в {@link DelegatingPasswordEncoder}:
+ * {@code {bcrypt}$2a$12$...}. Хеш устарел, если у него нет префикса или его cost ниже текущего —
+ * такие хеши пересчитываются при успешном входе. Хеш с более высоким cost не трогаем: cost подбирается
+ * на каждом узле отдельно ({@link #calibrate}), и узлы с разным cost иначе пересчитывали бы хеши друг друга.
+ */
+@Slf4j
+public class PasswordHashPolicy {
+
+    public static final String BCRYPT_ID = "bcrypt";
+
+    private static final String BCRYPT_PREFIX = "{" + BCRYPT_ID + "}";
+    // {bcrypt}$2a$12$ — cost в позициях после "$2a$"
+    private static final int COST_OFFSET = BCRYPT_PREFIX.length() + "$2a$".length();
+
+    private static final int PROBE_STRENGTH = 8;
+    private static final int PROBE_ROUNDS = 3;
+
+    private final int strength;
+    private final String encodedPrefix;
+
+    public PasswordHashPolicy(int strength) {
+        this.strength = strength;
+        this.encodedPrefix = String.format("{%s}$2a$%02d$", BCRYPT_ID, strength);
+    }
+
+    /**
+     * Подбирает наибольший cost из [{@code minStrength}, {@code maxStrength}], при котором
+     * проверка пароля на этой машине укладывается в {@code targetVerifyTime}.
+     * Замеряется cost {@value #PROBE_STRENGTH}, остальное экстраполируется: +1 к cost удваивает время.
+     */
+    public static PasswordHashPolicy calibrate(Duration targetVerifyTime, int minStrength, int maxStrength) {
+        String salt = BCrypt.gensalt(PROBE_STRENGTH);
+        long probeNanos = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration-password", salt);
+            probeNanos = Math.min(probeNanos, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        while (strength < maxStrength && estimateNanos(probeNanos, strength + 1) <= targetVerifyTime.toNanos()) {
+            strength++;
+        }
+        log.info("Calibrated bcrypt cost {}: ~{} ms per hash (target {} ms)",
+                strength, estimateNanos(probeNanos, strength) / 1_000_000, targetVerifyTime.toMillis());
+        return new PasswordHashPolicy(strength);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Префикс хеша с текущими параметрами, например {@code {bcrypt}$2a$12$}.
+     */
+    public String getEncodedPrefix() {
+        return encodedPrefix;
+    }
+
+    public boolean isOutdated(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith(BCRYPT_PREFIX)) {
+            return true;
+        }
+        if (encodedPassword.startsWith(encodedPrefix)) {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword, COST_OFFSET, COST_OFFSET + 2, 10) < strength;
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            return true;  // не bcrypt-хеш с cost: пересчитываем
+        }
+    }
+
+    /**
+     * Кодировщик с префиксом алгоритма. Хеши без префикса (записанные до его появления)
+     * проверяются как bcrypt любого cost.
+     */
+    public PasswordEncoder createEncoder() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt)) {
+            @Override
+            public boolean upgradeEncoding(String prefixEncodedPassword) {
+                return isOutdated(prefixEncodedPassword);
+            }
+        };
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    private static long estimateNanos(long probeNanos, int strength) {
+        return strength >= PROBE_STRENGTH
+                ? probeNanos << (strength - PROBE_STRENGTH)
+                : probeNanos >> (PROBE_STRENGTH - strength);
+    }
+}
@@ -0,0 +1,74 @@
+package com.flameksandr.java.academix.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+
+/**
+ * Ограничитель частоты по алгоритму token bucket, хранящий корзины в памяти по произвольному ключу.
+ * <p>
+ * Корзина вмещает {@code capacity} токенов и пополняется непрерывно, полностью — за {@code refillPeriod}.
+ * Неиспользуемые корзины вытесняются после {@code refillPeriod} простоя (к этому моменту они
+ * все равно были бы полными), а общее число ключей ограничено, чтобы перебор логинов или адресов
+ * не съел память.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long capacity;
+    private final long nanosPerToken;
+    private final Ticker ticker;
+    private final Cache<String, Bucket> buckets;
+
+    public TokenBucketRateLimiter(int capacity, Duration refillPeriod, long maximumKeys) {
+        this(capacity, refillPeriod, maximumKeys, Ticker.systemTicker());
+    }
+
+    TokenBucketRateLimiter(int capacity, Duration refillPeriod, long maximumKeys, Ticker ticker) {
+        this.capacity = capacity;
+        this.nanosPerToken = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(refillPeriod)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Забирает один токен из корзины ключа.
+     *
+     * @return 0, если токен выдан, иначе время до появления следующего токена
+     */
+    public Duration tryAcquire(String key) {
+        long now = ticker.read();
+        long waitNanos = buckets.get(key, k -> new Bucket(capacity * nanosPerToken, now)).tryConsume(now);
+        return Duration.ofNanos(waitNanos);
+    }
+
+    /**
+     * Состояние корзины хранится как «накопленное время» в наносекундах: так пополнение
+     * считается без дробных токенов. Критическая секция короткая и ничего не ждет.
+     */
+    private final class Bucket {
+
+        private long available;
+        private long lastRefill;
+
+        private Bucket(long available, long lastRefill) {
+            this.available = available;
+            this.lastRefill = lastRefill;
+        }
+
+        private synchronized long tryConsume(long now) {
+            available = Math.min(capacity * nanosPerToken, available + (now - lastRefill));
+            lastRefill = now;
+            if (available >= nanosPerToken) {
+                available -= nanosPerToken;
+                return 0;
+            }
+            return nanosPerToken - available;
+        }
+    }
+}
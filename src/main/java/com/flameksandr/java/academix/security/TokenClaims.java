@@ -0,0 +1,20 @@
+package com.flameksandr.java.academix.security;
+
+import com.flameksandr.java.academix.model.Role;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Данные пользователя, подписанные в токене доступа.
+ */
+@Getter
+@AllArgsConstructor
+public class TokenClaims {
+
+    private Integer userId;
+    private String username;
+    private Role role;
+    private Instant expiresAt;
+}
@@ -0,0 +1,166 @@
+package com.flameksandr.java.academix.security;
+
+import com.flameksandr.java.academix.config.AuthProperties;
+import com.flameksandr.java.academix.exception.InvalidTokenException;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Выпуск и проверка stateless-токенов доступа.
+ * <p>
+ * Токен — {@code base64url(payload).base64url(HMAC-SHA256(payload))}, где payload —
+ * {@code id|role|expiresAt|username} (роль пустая, если у пользователя ее нет).
+ * Проверка токена — одна HMAC, без bcrypt и без обращения к БД.
+ */
+@Slf4j
+@Component
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Mac prototype;
+    private final Duration tokenTtl;
+    private final Clock clock;
+
+    @Autowired
+    public TokenService(AuthProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    TokenService(AuthProperties properties, Clock clock) {
+        this.prototype = createMac(resolveSecret(properties.getSecret()));
+        this.tokenTtl = properties.getTokenTtl();
+        this.clock = clock;
+    }
+
+    public String issue(User user) {
+        Instant expiresAt = clock.instant().plus(tokenTtl).truncatedTo(ChronoUnit.SECONDS);
+        String role = user.getRole() == null ? "" : user.getRole().name();
+        String payload = user.getId() + "|" + role + "|" + expiresAt.getEpochSecond() + "|" + user.getUsername();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    public Duration getTokenTtl() {
+        return tokenTtl;
+    }
+
+    /**
+     * Проверяет подпись и срок действия токена.
+     *
+     * @throws InvalidTokenException если токен поврежден, подделан или истек
+     */
+    public TokenClaims verify(String token) {
+        if (token == null) {
+            throw new InvalidTokenException("Token is missing");
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            throw new InvalidTokenException("Malformed token");
+        }
+        byte[] payloadBytes;
+        byte[] signature;
+        try {
+            payloadBytes = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Malformed token", e);
+        }
+        // Сравнение за постоянное время, чтобы не раскрывать подпись по таймингу
+        if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+            throw new InvalidTokenException("Invalid token signature");
+        }
+
+        String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length != 4) {
+            throw new InvalidTokenException("Malformed token payload");
+        }
+        Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(parts[2]));
+        if (!clock.instant().isBefore(expiresAt)) {
+            throw new InvalidTokenException("Token expired");
+        }
+        Role role = parts[1].isEmpty() ? null : Role.valueOf(parts[1]);
+        return new TokenClaims(Integer.valueOf(parts[0]), parts[3], role, expiresAt);
+    }
+
+    /**
+     * Подписывает произвольное значение ключом токенов: {@code value.base64url(HMAC-SHA256(value))}.
+     * Подпись принимает любой узел с тем же {@code academix.auth.secret}.
+     */
+    public String signValue(String value) {
+        return value + "." + ENCODER.encodeToString(sign(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Проверяет значение, подписанное {@link #signValue}.
+     *
+     * @return значение без подписи или пусто, если подпись неверна
+     */
+    public Optional<String> verifyValue(String signed) {
+        int dot = signed.lastIndexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+        String value = signed.substring(0, dot);
+        byte[] signature;
+        try {
+            signature = DECODER.decode(signed.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        return MessageDigest.isEqual(sign(value.getBytes(StandardCharsets.UTF_8)), signature) ? Optional.of(value) : Optional.empty();
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            // Mac не потокобезопасен: клонируем уже инициализированный прототип
+            Mac mac = (Mac) prototype.clone();
+            return mac.doFinal(payload);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC implementation does not support cloning", e);
+        }
+    }
+
+    private static byte[] resolveSecret(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("academix.auth.secret is not set, using a random key: tokens will not survive a restart or be accepted by other nodes");
+            byte[] random = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] key = Base64.getDecoder().decode(secret);
+        if (key.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("academix.auth.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        return key;
+    }
+
+    private static Mac createMac(byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.cache.CacheInvalidationBus;
+import com.flameksandr.java.academix.config.AuthProperties;
+import com.flameksandr.java.academix.dto.LoginRequestDTO;
+import com.flameksandr.java.academix.dto.TokenResponseDTO;
+import com.flameksandr.java.academix.exception.InvalidCredentialsException;
+import com.flameksandr.java.academix.exception.RateLimitExceededException;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserRepository;
+import com.flameksandr.java.academix.security.TokenBucketRateLimiter;
+import com.flameksandr.java.academix.security.TokenClaims;
+import com.flameksandr.java.academix.security.TokenService;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Вход по логину и паролю с выдачей stateless-токена.
+ * <p>
+ * Перед bcrypt проверяются лимиты попыток на IP-адрес и на логин. Для неизвестного логина
+ * пароль все равно сверяется с заранее вычисленным фиктивным хешем той же стоимости,
+ * чтобы время ответа не выдавало существование пользователя. Хеш с устаревшими
+ * параметрами пересчитывается после успешного входа, пока пароль известен.
+ */
+@Service
+@Timed("academix.service")
+@Slf4j
+public class AuthService {
+
+    private static final String TOKEN_TYPE = "Bearer";
+
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final PasswordEncoder passwordEncoder;
+    private final TokenService tokenService;
+    private final TokenBucketRateLimiter perUserLimiter;
+    private final TokenBucketRateLimiter perIpLimiter;
+    private final TransactionTemplate primaryTransaction;
+    private final String dummyHash;
+
+    @Autowired
+    public AuthService(UserRepository userRepository, UserCache userCache, CacheInvalidationBus cacheInvalidationBus,
+                       PasswordEncoder passwordEncoder, TokenService tokenService, AuthProperties properties,
+                       PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.passwordEncoder = passwordEncoder;
+        this.tokenService = tokenService;
+        this.perUserLimiter = limiter(properties.getPerUser(), properties.getMaximumTrackedKeys());
+        this.perIpLimiter = limiter(properties.getPerIp(), properties.getMaximumTrackedKeys());
+        // Промах общего кэша пользователей читается из основной БД, как в UserService: не полагаемся на то,
+        // что вход (POST) сам по себе направлен на основную БД
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
+    public TokenResponseDTO login(LoginRequestDTO request, String clientIp) {
+        String login = User.normalizeIdentifier(request.getLogin());
+        checkLimit(perIpLimiter, clientIp, "ip");
+        checkLimit(perUserLimiter, login, "login");
+
+        Optional<User> user = findByLogin(login);
+        // Хеш сверяется в обоих случаях, поэтому время ответа не зависит от существования логина
+        boolean matches = passwordEncoder.matches(request.getPassword(), user.map(User::getPassword).orElse(dummyHash));
+        if (user.isEmpty() || !matches) {
+            log.warn("Failed login for {} from {}", login, clientIp);
+            throw new InvalidCredentialsException("Invalid login or password");
+        }
+
+        if (passwordEncoder.upgradeEncoding(user.get().getPassword())) {
+            rehash(user.get(), request.getPassword());
+        }
+        log.info("User {} logged in", user.get().getId());
+        return new TokenResponseDTO(tokenService.issue(user.get()), TOKEN_TYPE, tokenService.getTokenTtl().toSeconds());
+    }
+
+    public TokenClaims authenticate(String authorizationHeader) {
+        String token = authorizationHeader != null && authorizationHeader.startsWith(TOKEN_TYPE + " ")
+                ? authorizationHeader.substring(TOKEN_TYPE.length() + 1).trim()
+                : null;
+        return tokenService.verify(token);
+    }
+
+    private void rehash(User user, String rawPassword) {
+        try {
+            String oldHash = user.getPassword();
+            if (userRepository.replacePasswordHash(user.getId(), oldHash, passwordEncoder.encode(rawPassword)) == 1) {
+                userCache.evict(user.getId());
+                cacheInvalidationBus.publish(user.getId());
+                log.info("Rehashed password of user {} with current parameters", user.getId());
+            }
+        } catch (RuntimeException e) {
+            // Вход уже успешен: неудачный пересчет повторится при следующем входе
+            log.warn("Failed to rehash password of user {}", user.getId(), e);
+        }
+    }
+
+    private Optional<User> findByLogin(String login) {
+        return login.indexOf('@') >= 0
+                ? userCache.getByEmail(login, email -> primaryTransaction.execute(status -> userRepository.findByEmail(email)))
+                : userCache.getByUsername(login, username -> primaryTransaction.execute(status -> userRepository.findByUsername(username)));
+    }
+
+    private static void checkLimit(TokenBucketRateLimiter limiter, String key, String scope) {
+        Duration retryAfter = limiter.tryAcquire(key);
+        if (!retryAfter.isZero()) {
+            log.warn("Login rate limit exceeded for {} {}", scope, key);
+            throw new RateLimitExceededException("Too many login attempts", retryAfter);
+        }
+    }
+
+    private static TokenBucketRateLimiter limiter(AuthProperties.Limit limit, long maximumKeys) {
+        return new TokenBucketRateLimiter(limit.getCapacity(), limit.getRefillPeriod(), maximumKeys);
+    }
+}
@@ -0,0 +1,201 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.config.NotificationProperties;
+import com.flameksandr.java.academix.model.NotificationCampaign;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.repository.NotificationRecipient;
+import com.flameksandr.java.academix.repository.NotificationRepository;
+import com.flameksandr.java.academix.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Выполнение рассылок: получатели читаются страницами по {@code page-size} в порядке id,
+ * страница целиком отдается {@link NotificationSender}, и после ее отправки курсор рассылки
+ * сохраняется в БД вместе с продлением аренды. Во всем кластере одновременно отправляется одна
+ * рассылка (см. {@link NotificationRepository#claimNext}), поэтому лимиты {@link NotificationSender}
+ * действуют на бота целиком.
+ * <p>
+ * Страница может отправляться дольше аренды (пауза 429, повторы с backoff), поэтому пока она отправляется,
+ * аренда продлевается каждую треть срока. Если аренду все же забрал другой узел, оставшиеся сообщения
+ * страницы отменяются: с курсора ее продолжит новый владелец, и повторно уйдут только уже отправленные.
+ * <p>
+ * После рестарта рассылка продолжается с курсора. При штатной остановке текущая страница
+ * дописывается; при падении узла страница, которая отправлялась в этот момент, отправится повторно.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher implements SmartLifecycle {
+
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final NotificationSender sender;
+    private final NotificationProperties properties;
+    // Владелец аренды — этот экземпляр приложения
+    private final String owner = UUID.randomUUID().toString();
+
+    private ScheduledExecutorService scheduler;
+    // Отдельный поток продления аренды: поток рассылки ждет отправки страницы
+    private ScheduledExecutorService leaseRenewer;
+    private volatile boolean running;
+
+    @Autowired
+    public NotificationDispatcher(NotificationRepository notificationRepository, UserRepository userRepository,
+                                  NotificationSender sender, NotificationProperties properties) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.sender = sender;
+        this.properties = properties;
+    }
+
+    /**
+     * Запускает отправку новых рассылок, не дожидаясь очередного опроса.
+     */
+    public void wakeUp() {
+        if (running) {
+            scheduler.execute(this::dispatchQuietly);
+        }
+    }
+
+    /**
+     * Отправляет все незавершенные рассылки, которые удалось взять в аренду, по одной в порядке создания.
+     */
+    public synchronized void dispatch() {
+        Optional<NotificationCampaign> campaign;
+        while (running && (campaign = notificationRepository.claimNext(owner, Instant.now(), leaseUntil())).isPresent()) {
+            send(campaign.get());
+        }
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        // Первый опрос сразу: рассылки, прерванные рестартом, продолжаются без ожидания
+        long interval = properties.getPollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::dispatchQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Notification page was not finished before shutdown and will be resent");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        leaseRenewer.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void dispatchQuietly() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.error("Notification dispatch failed, will retry on the next poll", e);
+        }
+    }
+
+    private void send(NotificationCampaign campaign) {
+        long id = campaign.getId();
+        int cursor = campaign.getCursorUserId();
+        log.info("Sending notification campaign {} to role {} after user id {}", id, campaign.getRole(), cursor);
+        while (true) {
+            if (!running) {
+                notificationRepository.release(id, owner);
+                return;
+            }
+            List<NotificationRecipient> page = recipients(campaign.getRole(), cursor);
+            if (page.isEmpty()) {
+                notificationRepository.complete(id, owner, Instant.now());
+                log.info("Notification campaign {} completed", id);
+                return;
+            }
+
+            List<CompletableFuture<Boolean>> results = page.stream()
+                    .map(recipient -> sender.send(recipient.getTelegramChatId(), campaign.getMessage()))
+                    .toList();
+            AtomicBoolean leaseLost = new AtomicBoolean();
+            long renewInterval = Math.max(1, properties.getLease().toMillis() / 3);
+            ScheduledFuture<?> renewal = leaseRenewer.scheduleWithFixedDelay(
+                    () -> renewLease(id, results, leaseLost), renewInterval, renewInterval, TimeUnit.MILLISECONDS);
+            try {
+                CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException | CancellationException e) {
+                if (leaseLost.get()) {
+                    log.warn("Lease on notification campaign {} was taken over by another node, rest of the page cancelled", id);
+                } else {
+                    // Пул отправки остановлен: курсор не сдвигаем, страница отправится заново
+                    log.warn("Notification campaign {} interrupted after user id {}", id, cursor);
+                }
+                return;
+            } finally {
+                renewal.cancel(false);
+            }
+            long sent = results.stream().filter(CompletableFuture::join).count();
+            cursor = page.get(page.size() - 1).getId();
+            if (!notificationRepository.advance(id, owner, cursor, sent, page.size() - sent, leaseUntil())) {
+                log.warn("Lease on notification campaign {} was taken over by another node", id);
+                return;
+            }
+        }
+    }
+
+    // Продление аренды во время отправки страницы; если аренду забрали, неотправленные сообщения отменяются
+    private void renewLease(long id, List<CompletableFuture<Boolean>> results, AtomicBoolean leaseLost) {
+        try {
+            if (!notificationRepository.renew(id, owner, leaseUntil())) {
+                leaseLost.set(true);
+                results.forEach(result -> result.cancel(false));
+            }
+        } catch (RuntimeException e) {
+            // Повторим через треть срока аренды: до его истечения есть еще попытки
+            log.warn("Failed to renew the lease on notification campaign {}, will retry: {}", id, e.getMessage());
+        }
+    }
+
+    private List<NotificationRecipient> recipients(Role role, int afterId) {
+        Limit limit = Limit.of(properties.getPageSize());
+        return role != null
+                ? userRepository.findRecipientsByRole(role, afterId, limit)
+                : userRepository.findRecipients(afterId, limit);
+    }
+
+    private Instant leaseUntil() {
+        return Instant.now().plus(properties.getLease());
+    }
+}
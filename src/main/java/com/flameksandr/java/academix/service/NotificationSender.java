@@ -0,0 +1,203 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.config.NotificationProperties;
+import com.flameksandr.java.academix.security.TokenBucketRateLimiter;
+import com.flameksandr.java.academix.telegram.TelegramClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пул отправки сообщений Telegram с ограничением частоты и повторами.
+ * <p>
+ * Перед каждой попыткой берется токен из корзины чата (если он еще не накопился, попытка
+ * откладывается, не занимая поток и не расходуя общий лимит), затем из общей корзины бота
+ * (поток ждет его — общий лимит и есть пропускная способность рассылки). Временные ошибки
+ * повторяются с экспоненциальной паузой; 429 с {@code retry_after} приостанавливает все отправки
+ * бота на указанное время.
+ * <p>
+ * Корзины хранятся в памяти узла: общий лимит бота соблюдается, пока рассылки отправляет один узел,
+ * что обеспечивает {@link NotificationDispatcher}.
+ */
+@Slf4j
+@Component
+public class NotificationSender implements AutoCloseable {
+
+    private static final String GLOBAL_KEY = "bot";
+
+    private final TelegramClient telegramClient;
+    private final NotificationProperties properties;
+    private final TokenBucketRateLimiter globalLimiter;
+    private final TokenBucketRateLimiter perChatLimiter;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+    private final Timer sendTimer;
+
+    // System.nanoTime(), до которого Telegram попросил не отправлять сообщения
+    private volatile long pausedUntil = System.nanoTime();
+
+    @Autowired
+    public NotificationSender(TelegramClient telegramClient, NotificationProperties properties, MeterRegistry meterRegistry) {
+        this.telegramClient = telegramClient;
+        this.properties = properties;
+        this.globalLimiter = new TokenBucketRateLimiter(properties.getGlobal().getCapacity(), properties.getGlobal().getRefillPeriod(), 1);
+        this.perChatLimiter = new TokenBucketRateLimiter(properties.getPerChat().getCapacity(), properties.getPerChat().getRefillPeriod(),
+                properties.getMaximumTrackedChats());
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(properties.getSenderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "notification-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+
+        this.sentCounter = messageCounter(meterRegistry, "sent", "Notifications delivered to Telegram");
+        this.failedCounter = messageCounter(meterRegistry, "failed", "Notifications rejected by Telegram or out of attempts");
+        this.retriedCounter = messageCounter(meterRegistry, "retried", "Notification attempts scheduled for retry");
+        this.sendTimer = Timer.builder("academix.notification.send")
+                .description("Time of one Telegram sendMessage call")
+                .register(meterRegistry);
+        Gauge.builder("academix.notification.pending", executor, e -> e.getQueue().size())
+                .description("Notification attempts waiting for a sender thread or a retry")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ставит сообщение в очередь отправки.
+     *
+     * @return true — доставлено, false — отклонено Telegram или исчерпаны попытки;
+     * отменяется, если пул остановлен раньше. Отмена результата вызывающим снимает сообщение
+     * с отправки: попытки, которые еще не начались, не выполняются
+     */
+    public CompletableFuture<Boolean> send(long chatId, String text) {
+        Message message = new Message(chatId, text);
+        executor.execute(() -> attempt(message));
+        return message.result;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void attempt(Message message) {
+        if (message.result.isDone()) {
+            return;  // отменено, например, рассылка потеряла аренду
+        }
+        Duration chatWait = perChatLimiter.tryAcquire(Long.toString(message.chatId));
+        if (!chatWait.isZero()) {
+            schedule(message, chatWait);
+            return;
+        }
+        try {
+            awaitGlobalToken();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            message.result.completeExceptionally(new CancellationException("Notification sender stopped"));
+            return;
+        }
+        if (message.result.isDone()) {
+            return;  // отменено, пока поток ждал токен или паузу 429
+        }
+
+        TelegramClient.Delivery delivery;
+        try {
+            delivery = sendTimer.record(() -> telegramClient.sendMessage(message.chatId, message.text));
+        } catch (RuntimeException e) {
+            log.warn("Unexpected error while sending notification to chat {}", message.chatId, e);
+            delivery = TelegramClient.Delivery.RETRY;
+        }
+
+        switch (delivery.status()) {
+            case SENT -> {
+                sentCounter.increment();
+                message.result.complete(true);
+            }
+            case REJECTED -> fail(message);
+            case RETRY -> {
+                if (++message.attempts >= properties.getMaxAttempts()) {
+                    log.warn("Giving up on notification to chat {} after {} attempts", message.chatId, message.attempts);
+                    fail(message);
+                    return;
+                }
+                Duration delay = delivery.retryAfter() != null ? delivery.retryAfter() : backoff(message.attempts);
+                if (delivery.retryAfter() != null) {
+                    pausedUntil = Math.max(pausedUntil, System.nanoTime() + delivery.retryAfter().toNanos());
+                }
+                retriedCounter.increment();
+                schedule(message, delay);
+            }
+        }
+    }
+
+    // Поток ждет паузу, назначенную Telegram, и свой токен в общей корзине
+    private void awaitGlobalToken() throws InterruptedException {
+        while (true) {
+            long pause = pausedUntil - System.nanoTime();
+            if (pause > 0) {
+                TimeUnit.NANOSECONDS.sleep(pause);
+                continue;
+            }
+            Duration wait = globalLimiter.tryAcquire(GLOBAL_KEY);
+            if (wait.isZero()) {
+                return;
+            }
+            TimeUnit.NANOSECONDS.sleep(wait.toNanos());
+        }
+    }
+
+    private void schedule(Message message, Duration delay) {
+        try {
+            executor.schedule(() -> attempt(message), delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            message.result.completeExceptionally(new CancellationException("Notification sender stopped"));
+        }
+    }
+
+    // Экспоненциальная пауза со случайным разбросом в пределах половины, чтобы повторы не шли волной
+    private Duration backoff(int attempts) {
+        long nanos = properties.getInitialBackoff().toNanos() << Math.min(attempts - 1, 20);
+        nanos = Math.min(nanos, properties.getMaxBackoff().toNanos());
+        return Duration.ofNanos(nanos / 2 + ThreadLocalRandom.current().nextLong(nanos / 2 + 1));
+    }
+
+    private void fail(Message message) {
+        failedCounter.increment();
+        message.result.complete(false);
+    }
+
+    private static Counter messageCounter(MeterRegistry meterRegistry, String result, String description) {
+        return Counter.builder("academix.notification.messages")
+                .tag("result", result)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    private static final class Message {
+
+        private final long chatId;
+        private final String text;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        private int attempts;
+
+        private Message(long chatId, String text) {
+            this.chatId = chatId;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.dto.NotificationCampaignDTO;
+import com.flameksandr.java.academix.dto.NotificationRequestDTO;
+import com.flameksandr.java.academix.exception.NotificationNotFoundException;
+import com.flameksandr.java.academix.model.NotificationCampaign;
+import com.flameksandr.java.academix.repository.NotificationRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * Создание рассылок и чтение их состояния. Сама отправка идет в фоне в {@link NotificationDispatcher}.
+ */
+@Slf4j
+@Service
+@Timed("academix.service")
+public class NotificationService {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationDispatcher dispatcher;
+
+    @Autowired
+    public NotificationService(NotificationRepository notificationRepository, NotificationDispatcher dispatcher) {
+        this.notificationRepository = notificationRepository;
+        this.dispatcher = dispatcher;
+    }
+
+    public NotificationCampaignDTO createCampaign(NotificationRequestDTO request) {
+        long id = notificationRepository.create(request.getRole(), request.getMessage(), Instant.now());
+        log.info("Notification campaign {} created for role {}", id, request.getRole());
+        dispatcher.wakeUp();
+        return getCampaign(id);
+    }
+
+    public NotificationCampaignDTO getCampaign(long id) {
+        NotificationCampaign campaign = notificationRepository.findById(id)
+                .orElseThrow(() -> new NotificationNotFoundException("Notification campaign not found with id: " + id));
+        return new NotificationCampaignDTO(campaign.getId(), campaign.getRole(), campaign.getStatus(), campaign.getSent(),
+                campaign.getFailed(), campaign.getCursorUserId(), campaign.getCreatedAt(), campaign.getCompletedAt());
+    }
+}
@@ -0,0 +1,46 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.repository.UserRepository;
+import com.flameksandr.java.academix.security.PasswordHashPolicy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Периодический отчет о том, сколько пользователей еще хранят хеш пароля с устаревшими
+ * параметрами (без префикса алгоритма или с cost ниже текущего), то есть хеш, который
+ * {@link PasswordHashPolicy#isOutdated} пересчитает при входе. Хеши с более высоким cost,
+ * записанные другими узлами, устаревшими не считаются. Значение доступно как
+ * метрика {@code academix.password.outdated}.
+ */
+@Slf4j
+@Component
+public class PasswordHashAuditJob {
+
+    private final UserRepository userRepository;
+    private final PasswordHashPolicy policy;
+    private final AtomicLong outdated = new AtomicLong(-1);
+
+    @Autowired
+    public PasswordHashAuditJob(UserRepository userRepository, PasswordHashPolicy policy, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.policy = policy;
+        Gauge.builder("academix.password.outdated", outdated, AtomicLong::get)
+                .description("Users whose password hash uses outdated parameters (-1 until the first audit)")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${academix.password.audit-initial-delay:1m}",
+            fixedDelayString = "${academix.password.audit-interval:1h}")
+    public long audit() {
+        long count = userRepository.countOutdatedPasswordHashes(String.format("%02d", policy.getStrength()));
+        outdated.set(count);
+        log.info("{} users still have password hashes weaker than {}", count, policy.getEncodedPrefix());
+        return count;
+    }
+}
@@ -0,0 +1,158 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.model.ProgressEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Локальный журнал событий прогресса только на дозапись.
+ * <p>
+ * Каждое событие — строка {@code userId,courseId,lessonId,epochMillis}. {@link #append(List)} пишет
+ * пачку одним вызовом и делает fsync до возврата, поэтому подтвержденное событие переживает падение узла.
+ * Отдельный файл {@code checkpoint} хранит смещение, до которого события уже записаны в БД; после рестарта
+ * дочитывается хвост после него. Когда все события записаны, журнал обрезается до нуля.
+ * Доставка «хотя бы один раз»: при падении между коммитом в БД и обновлением checkpoint хвост применится повторно.
+ */
+@Slf4j
+public class ProgressEventLog implements AutoCloseable {
+
+    private static final String LOG_FILE = "progress-events.log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    /**
+     * Событие журнала вместе со смещением конца его строки.
+     */
+    public record Entry(ProgressEvent event, long endOffset) {
+    }
+
+    private final Path directory;
+    private final FileChannel channel;
+    private long size;
+
+    public ProgressEventLog(Path directory) {
+        try {
+            this.directory = Files.createDirectories(directory);
+            this.channel = FileChannel.open(directory.resolve(LOG_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.size = channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open progress event log in " + directory, e);
+        }
+    }
+
+    /**
+     * Дописывает события и ждет fsync.
+     *
+     * @return записи с концом строки каждого события, в порядке переданных событий
+     */
+    public synchronized List<Entry> append(List<ProgressEvent> events) {
+        StringBuilder lines = new StringBuilder(events.size() * 32);
+        List<Entry> entries = new ArrayList<>(events.size());
+        long offset = size;
+        for (ProgressEvent event : events) {
+            String line = event.getUserId() + "," + event.getCourseId() + "," + event.getLessonId() + ","
+                    + event.getOccurredAt().toEpochMilli() + "\n";
+            lines.append(line);
+            offset += line.length();  // строка только из ASCII: символ = байт
+            entries.add(new Entry(event, offset));
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.US_ASCII));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, size + buffer.position());
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to progress event log", e);
+        }
+        size = offset;
+        return entries;
+    }
+
+    /**
+     * События после последнего checkpoint. Недописанная последняя строка (падение во время записи) отбрасывается.
+     */
+    public synchronized List<Entry> readUncommitted() {
+        long from = readCheckpoint();
+        if (from > size) {
+            from = 0;  // журнал обрезан, а checkpoint не успел обновиться
+        }
+        List<Entry> entries = new ArrayList<>();
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - from));
+            while (buffer.hasRemaining() && channel.read(buffer, from + buffer.position()) >= 0) {
+                // читаем до конца
+            }
+            String text = new String(buffer.array(), StandardCharsets.US_ASCII);
+            long offset = from;
+            int start = 0;
+            for (int end = text.indexOf('\n'); end >= 0; start = end + 1, end = text.indexOf('\n', start)) {
+                offset += end + 1 - start;
+                String[] fields = text.substring(start, end).split(",");
+                entries.add(new Entry(new ProgressEvent(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]),
+                        Integer.parseInt(fields[2]), Instant.ofEpochMilli(Long.parseLong(fields[3]))), offset));
+            }
+            if (offset < size) {
+                log.warn("Discarding {} bytes of a partially written progress event", size - offset);
+                channel.truncate(offset);
+                size = offset;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read progress event log", e);
+        }
+        return entries;
+    }
+
+    /**
+     * Отмечает, что события до {@code offset} включительно записаны в БД. Если это весь журнал, он обрезается.
+     */
+    public synchronized void checkpoint(long offset) {
+        try {
+            if (offset >= size) {
+                channel.truncate(0);
+                size = 0;
+                offset = 0;
+            }
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.writeString(temp, Long.toString(offset));
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write progress event log checkpoint", e);
+        }
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close progress event log", e);
+        }
+    }
+
+    private long readCheckpoint() {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        try {
+            return Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0;
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Unreadable progress event log checkpoint, replaying the whole log", e);
+            return 0;
+        }
+    }
+}
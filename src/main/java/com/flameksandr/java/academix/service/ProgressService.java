@@ -0,0 +1,84 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.dto.CourseProgressDTO;
+import com.flameksandr.java.academix.dto.ProgressAcceptedDTO;
+import com.flameksandr.java.academix.dto.ProgressEventDTO;
+import com.flameksandr.java.academix.dto.UserProgressDTO;
+import com.flameksandr.java.academix.config.ProgressProperties;
+import com.flameksandr.java.academix.exception.InvalidRequestException;
+import com.flameksandr.java.academix.exception.UserNotFoundException;
+import com.flameksandr.java.academix.model.ProgressEvent;
+import com.flameksandr.java.academix.repository.ProgressRepository;
+import com.flameksandr.java.academix.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Прием событий прогресса и чтение прогресса пользователя.
+ * <p>
+ * Прием не обращается к БД: события проверяются и ставятся в очередь {@link ProgressWriteBehind}.
+ * Прогресс читается из агрегатов {@code course_progress}, без просмотра истории событий, поэтому
+ * события, еще не записанные из очереди, в нем пока не видны.
+ */
+@Service
+@Timed("academix.service")
+public class ProgressService {
+
+    private final ProgressWriteBehind writeBehind;
+    private final ProgressRepository progressRepository;
+    private final UserRepository userRepository;
+    private final ProgressProperties properties;
+    private final Validator validator;
+
+    @Autowired
+    public ProgressService(ProgressWriteBehind writeBehind, ProgressRepository progressRepository, UserRepository userRepository,
+                           ProgressProperties properties, Validator validator) {
+        this.writeBehind = writeBehind;
+        this.progressRepository = progressRepository;
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.validator = validator;
+    }
+
+    public ProgressAcceptedDTO acceptEvents(List<ProgressEventDTO> eventDTOs) {
+        if (eventDTOs == null || eventDTOs.isEmpty()) {
+            throw new InvalidRequestException("No progress events in the request");
+        }
+        if (eventDTOs.size() > properties.getMaxEventsPerRequest()) {
+            throw new InvalidRequestException("At most " + properties.getMaxEventsPerRequest() + " progress events per request");
+        }
+
+        Instant receivedAt = Instant.now();
+        List<ProgressEvent> events = new ArrayList<>(eventDTOs.size());
+        for (ProgressEventDTO eventDTO : eventDTOs) {
+            Set<ConstraintViolation<ProgressEventDTO>> violations = validator.validate(eventDTO);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<ProgressEventDTO> violation = violations.iterator().next();
+                throw new InvalidRequestException(violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+            events.add(new ProgressEvent(eventDTO.getUserId(), eventDTO.getCourseId(), eventDTO.getLessonId(),
+                    eventDTO.getOccurredAt() != null ? eventDTO.getOccurredAt() : receivedAt));
+        }
+
+        writeBehind.submit(events);
+        return new ProgressAcceptedDTO(events.size(), writeBehind.isDurable());
+    }
+
+    public UserProgressDTO getUserProgress(Integer userId) {
+        List<CourseProgressDTO> courses = progressRepository.findByUserId(userId);
+        // Дополнительный запрос только для пустого результата: отличаем «нет прогресса» от «нет пользователя»
+        if (courses.isEmpty() && !userRepository.existsById(userId)) {
+            throw UserNotFoundException.by("id", userId);
+        }
+        long lessonsCompleted = courses.stream().mapToLong(CourseProgressDTO::getCompletedLessons).sum();
+        return new UserProgressDTO(userId, courses.size(), lessonsCompleted, courses);
+    }
+}
@@ -0,0 +1,221 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.config.ProgressProperties;
+import com.flameksandr.java.academix.exception.ProgressQueueFullException;
+import com.flameksandr.java.academix.model.ProgressEvent;
+import com.flameksandr.java.academix.repository.ProgressRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Очередь событий прогресса с отложенной записью в БД (write-behind).
+ * <p>
+ * Прием только кладет события в ограниченную очередь (в режиме {@code FSYNC} — после fsync журнала),
+ * а отдельный поток раз в {@code flush-interval} забирает до {@code batch-size} событий, склеивает их
+ * по (пользователь, курс) и пишет одной транзакцией пачками JDBC. Если БД недоступна, забранная пачка
+ * повторяется на следующем такте, а очередь продолжает принимать события до заполнения.
+ * Повторная запись безопасна: уже учтенные уроки пропускаются.
+ */
+@Slf4j
+@Component
+public class ProgressWriteBehind implements SmartLifecycle {
+
+    private final ProgressRepository progressRepository;
+    private final ProgressProperties properties;
+    private final BlockingQueue<ProgressEventLog.Entry> queue;
+    // Забранные из очереди, но еще не записанные события (в том числе дочитанные из журнала после рестарта)
+    private final Deque<ProgressEventLog.Entry> unflushed = new ArrayDeque<>();
+    private final Object submitLock = new Object();
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter duplicateCounter;
+    private final Timer flushTimer;
+
+    private volatile ProgressEventLog eventLog;
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    @Autowired
+    public ProgressWriteBehind(ProgressRepository progressRepository, ProgressProperties properties, MeterRegistry meterRegistry) {
+        this.progressRepository = progressRepository;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.acceptedCounter = eventCounter(meterRegistry, "accepted", "Progress events accepted into the queue");
+        this.rejectedCounter = eventCounter(meterRegistry, "rejected", "Progress events rejected because the queue was full");
+        this.writtenCounter = eventCounter(meterRegistry, "written", "Progress events written to the database");
+        this.droppedCounter = eventCounter(meterRegistry, "dropped", "Progress events dropped because they reference a missing user");
+        this.duplicateCounter = eventCounter(meterRegistry, "duplicate", "Progress events skipped because the lesson was already recorded");
+        this.flushTimer = Timer.builder("academix.progress.flush")
+                .description("Time to write one batch of progress events")
+                .register(meterRegistry);
+        Gauge.builder("academix.progress.queue", queue, BlockingQueue::size)
+                .description("Progress events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ставит события в очередь. Возвращает управление после того, как события приняты
+     * (в режиме {@code FSYNC} — записаны на диск).
+     *
+     * @throws ProgressQueueFullException если в очереди нет места для всех событий
+     */
+    public void submit(List<ProgressEvent> events) {
+        // Одна блокировка на журнал и очередь: порядок в очереди совпадает с порядком в журнале,
+        // а место в очереди, проверенное до записи в журнал, может только освободиться
+        synchronized (submitLock) {
+            if (queue.remainingCapacity() < events.size()) {
+                rejectedCounter.increment(events.size());
+                throw new ProgressQueueFullException("Progress event queue is full");
+            }
+            if (eventLog != null) {
+                queue.addAll(eventLog.append(events));
+            } else {
+                events.forEach(event -> queue.add(new ProgressEventLog.Entry(event, 0)));
+            }
+        }
+        acceptedCounter.increment(events.size());
+    }
+
+    public boolean isDurable() {
+        return eventLog != null;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Записывает все накопленные события, пока очередь не опустеет или не произойдет ошибка БД.
+     *
+     * @return true, если очередь записана полностью
+     */
+    public synchronized boolean flush() {
+        while (true) {
+            if (unflushed.isEmpty() && queue.drainTo(unflushed, properties.getBatchSize()) == 0) {
+                return true;
+            }
+            List<ProgressEventLog.Entry> batch = new ArrayList<>(Math.min(unflushed.size(), properties.getBatchSize()));
+            Iterator<ProgressEventLog.Entry> iterator = unflushed.iterator();
+            while (iterator.hasNext() && batch.size() < properties.getBatchSize()) {
+                batch.add(iterator.next());
+            }
+            try {
+                flushTimer.record(() -> write(batch.stream().map(ProgressEventLog.Entry::event).toList()));
+            } catch (DataAccessException e) {
+                log.warn("Failed to write {} progress events, will retry", batch.size(), e);
+                return false;
+            }
+            batch.forEach(entry -> unflushed.removeFirst());
+            if (eventLog != null) {
+                eventLog.checkpoint(batch.get(batch.size() - 1).endOffset());
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (properties.getDurability() == ProgressProperties.Durability.FSYNC) {
+            eventLog = new ProgressEventLog(properties.getLogDirectory());
+            List<ProgressEventLog.Entry> replayed = eventLog.readUncommitted();
+            if (!replayed.isEmpty()) {
+                log.info("Replaying {} progress events from {}", replayed.size(), properties.getLogDirectory());
+                synchronized (this) {
+                    unflushed.addAll(replayed);
+                }
+            }
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "progress-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!flush()) {
+            log.warn("{} progress events were not written before shutdown{}", queue.size() + unflushed.size(),
+                    eventLog != null ? " and will be replayed from the log" : " and are lost");
+        }
+        if (eventLog != null) {
+            eventLog.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Запускается раньше веб-сервера и останавливается после него: события последних запросов успевают записаться
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Unexpected error in progress write-behind", e);
+        }
+    }
+
+    private void write(List<ProgressEvent> events) {
+        try {
+            count(events.size(), progressRepository.apply(events));
+        } catch (DataIntegrityViolationException e) {
+            // Пачка ссылается на удаленного пользователя: пишем по пользователям, чтобы отбросить только его события
+            events.stream()
+                    .collect(Collectors.groupingBy(ProgressEvent::getUserId, LinkedHashMap::new, Collectors.toList()))
+                    .forEach((userId, userEvents) -> {
+                        try {
+                            count(userEvents.size(), progressRepository.apply(userEvents));
+                        } catch (DataIntegrityViolationException rowError) {
+                            log.warn("Dropping {} progress events for missing user {}", userEvents.size(), userId);
+                            droppedCounter.increment(userEvents.size());
+                        }
+                    });
+        }
+    }
+
+    private void count(int events, int inserted) {
+        writtenCounter.increment(inserted);
+        duplicateCounter.increment(events - inserted);
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result, String description) {
+        return Counter.builder("academix.progress.events")
+                .tag("result", result)
+                .description(description)
+                .register(meterRegistry);
+    }
+}
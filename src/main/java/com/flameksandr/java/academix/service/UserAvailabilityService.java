@@ -0,0 +1,224 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.cache.BloomFilter;
+import com.flameksandr.java.academix.config.AvailabilityProperties;
+import com.flameksandr.java.academix.dto.AvailabilityDTO;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserIdentity;
+import com.flameksandr.java.academix.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Быстрая проверка, свободны ли email и username.
+ * <p>
+ * Все занятые значения (нормализованные, см. {@link User#normalizeIdentifier(String)}) хранятся в двух фильтрах Блума.
+ * Ответ фильтра «нет» означает, что значение точно свободно, и SQL не выполняется; ответ «возможно»
+ * перепроверяется запросом к БД. Новые значения добавляются сразу после коммита, удаленные
+ * остаются в фильтре до периодической пересборки — это лишь лишние запросы к БД, а не неверные ответы.
+ */
+@Slf4j
+@Service
+public class UserAvailabilityService {
+
+    private final UserRepository userRepository;
+    private final AvailabilityProperties properties;
+    private final TransactionTemplate primaryTransaction;
+    private final Counter filterHits;
+    private final Counter databaseChecks;
+    private final AtomicLong filterBytes = new AtomicLong();
+
+    // Пара фильтров подменяется целиком при пересборке; null — фильтры еще не построены
+    private volatile Filters filters;
+    // Значения, добавленные во время пересборки: попадут в новый фильтр после подмены
+    private List<String[]> pendingDuringRebuild;
+    // Обновления по инвалидациям с других узлов выполняются в своем потоке, а не в потоке шины:
+    // иначе запрос к БД задерживал бы доставку следующих инвалидаций кэша пользователей
+    private final ExecutorService updateExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "availability-update");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // id, пришедшие, пока поток занят запросом к БД, объединяются в следующий запрос
+    private final Set<Integer> pendingIds = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public UserAvailabilityService(UserRepository userRepository, AvailabilityProperties properties,
+                                   PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        // Не read-only: такая транзакция ушла бы на реплику, и фильтр, собранный по отстающей реплике,
+        // потерял бы только что созданных пользователей (отрицательный ответ фильтра в БД не перепроверяется)
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.filterHits = Counter.builder("academix.availability.checks")
+                .tag("source", "filter")
+                .description("Availability checks answered by the Bloom filter without SQL")
+                .register(meterRegistry);
+        this.databaseChecks = Counter.builder("academix.availability.checks")
+                .tag("source", "database")
+                .description("Availability checks that needed a database lookup")
+                .register(meterRegistry);
+        Gauge.builder("academix.availability.filter.bytes", filterBytes, AtomicLong::get)
+                .description("Memory used by the email and username Bloom filters")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Проверяет занятость переданных значений; незаданное значение не проверяется.
+     */
+    public AvailabilityDTO check(String email, String username) {
+        Boolean emailAvailable = email == null ? null : isAvailable(email, true);
+        Boolean usernameAvailable = username == null ? null : isAvailable(username, false);
+        return new AvailabilityDTO(emailAvailable, usernameAvailable);
+    }
+
+    /**
+     * Отмечает значения как занятые. Вызывается после коммита создания или изменения пользователя.
+     */
+    public void add(String email, String username) {
+        synchronized (this) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(new String[]{email, username});
+            }
+        }
+        Filters current = filters;
+        if (current != null) {
+            current.put(email, username);
+        }
+    }
+
+    public void addAll(Collection<? extends UserIdentity> identities) {
+        identities.forEach(identity -> add(identity.getEmail(), identity.getUsername()));
+    }
+
+    /**
+     * Асинхронно добавляет email и username пользователей, созданных или измененных на других узлах.
+     */
+    public void addByIdsAsync(Collection<Integer> userIds) {
+        pendingIds.addAll(userIds);
+        updateExecutor.execute(this::loadPending);
+    }
+
+    /**
+     * Асинхронная {@link #rebuild()} — для вызова из потока шины инвалидации.
+     */
+    public void rebuildAsync() {
+        updateExecutor.execute(this::rebuild);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updateExecutor.shutdownNow();
+    }
+
+    /**
+     * Строит фильтры заново потоковым чтением всех email и username.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${academix.availability.rebuild-interval:1h}",
+            fixedDelayString = "${academix.availability.rebuild-interval:1h}")
+    public void rebuild() {
+        synchronized (this) {
+            if (pendingDuringRebuild != null) {
+                return;
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        try {
+            long started = System.nanoTime();
+            long count = userRepository.count();
+            long capacity = Math.max(properties.getMinimumCapacity(), count * 2);
+            Filters rebuilt = new Filters(capacity, properties.getFalsePositiveRate());
+            primaryTransaction.executeWithoutResult(status -> {
+                try (Stream<UserIdentity> identities = userRepository.streamAllIdentities()) {
+                    identities.forEach(identity -> rebuilt.put(identity.getEmail(), identity.getUsername()));
+                }
+            });
+            synchronized (this) {
+                pendingDuringRebuild.forEach(values -> rebuilt.put(values[0], values[1]));
+                filters = rebuilt;
+                filterBytes.set(rebuilt.sizeInBytes());
+            }
+            log.info("Availability filters rebuilt: {} users, {} KiB, {} ms", rebuilt.emails.getInsertions(),
+                    rebuilt.sizeInBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+        }
+    }
+
+    private void loadPending() {
+        List<Integer> userIds = List.copyOf(pendingIds);
+        if (userIds.isEmpty()) {
+            return;
+        }
+        pendingIds.removeAll(userIds);
+        try {
+            // Из основной БД, как и при пересборке: на отстающей реплике нового пользователя еще может не быть
+            addAll(primaryTransaction.execute(status -> userRepository.findIdentitiesByIdIn(userIds)));
+        } catch (RuntimeException e) {
+            // Пропущенные значения попадут в фильтр при плановой пересборке
+            log.warn("Failed to load identities of {} users changed on other nodes", userIds.size(), e);
+        }
+    }
+
+    private boolean isAvailable(String rawValue, boolean email) {
+        String value = User.normalizeIdentifier(rawValue);
+        Filters current = filters;
+        if (current != null) {
+            BloomFilter filter = email ? current.emails : current.usernames;
+            if (!filter.mightContain(value)) {
+                filterHits.increment();
+                return true;
+            }
+        }
+        databaseChecks.increment();
+        return email ? !userRepository.existsByEmail(value) : !userRepository.existsByUsername(value);
+    }
+
+    private static final class Filters {
+
+        private final BloomFilter emails;
+        private final BloomFilter usernames;
+
+        private Filters(long capacity, double falsePositiveRate) {
+            this.emails = BloomFilter.create(capacity, falsePositiveRate);
+            this.usernames = BloomFilter.create(capacity, falsePositiveRate);
+        }
+
+        private void put(String email, String username) {
+            if (email != null) {
+                emails.put(User.normalizeIdentifier(email));
+            }
+            if (username != null) {
+                usernames.put(User.normalizeIdentifier(username));
+            }
+        }
+
+        private long sizeInBytes() {
+            return emails.sizeInBytes() + usernames.sizeInBytes();
+        }
+    }
+}
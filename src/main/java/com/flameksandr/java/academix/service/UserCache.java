@@ -0,0 +1,166 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.config.UserCacheProperties;
+import com.flameksandr.java.academix.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through кэш пользователей по id, email и username.
+ * <p>
+ * Сама запись хранится один раз (по id), а email и username — вторичные индексы,
+ * указывающие на id. При удалении записи из кэша (явно, по размеру или TTL)
+ * соответствующие ключи индексов удаляются вместе с ней.
+ * <p>
+ * Заполнение при промахе не должно пережить инвалидацию, случившуюся во время загрузки: иначе строка,
+ * прочитанная до коммита обновления, осталась бы в кэше до TTL. Поэтому у каждого id есть поколение
+ * инвалидаций (счетчик в одной из {@link #GENERATION_STRIPES} полос по id), которое запоминается до загрузки;
+ * если к моменту записи в кэш оно изменилось, загруженная строка возвращается, но не кэшируется.
+ * Запись идет атомарно по ключу id, поэтому {@link #evict} либо увеличит поколение раньше проверки,
+ * либо дождется записи и удалит ее.
+ */
+@Component
+public class UserCache {
+
+    // Полосы поколений: общее поколение у разных id лишь изредка отбрасывает лишнее заполнение
+    static final int GENERATION_STRIPES = 64;
+
+    private final ConcurrentStatsCounter statsCounter = new ConcurrentStatsCounter();
+    private final ConcurrentMap<String, Integer> idsByEmail = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> idsByUsername = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final Cache<Integer, User> usersById;
+
+    public UserCache(UserCacheProperties properties, MeterRegistry meterRegistry) {
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats(() -> statsCounter)
+                .executor(Runnable::run)  // Индексы чистим синхронно, в потоке операции
+                .removalListener(this::onRemoval)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users");
+    }
+
+    public Optional<User> getById(Integer id, Function<Integer, Optional<User>> loader) {
+        User[] loaded = new User[1];
+        // Загрузка внутри атомарного get: evict того же id дождется ее окончания
+        User cached = usersById.get(id, key -> {
+            long generation = generations.get(stripe(key));
+            loaded[0] = loader.apply(key).orElse(null);
+            return generations.get(stripe(key)) == generation ? loaded[0] : null;
+        });
+        if (cached == null) {
+            return Optional.ofNullable(loaded[0]);
+        }
+        if (cached == loaded[0]) {
+            index(cached);
+        }
+        return Optional.of(cached);
+    }
+
+    public Optional<User> getByEmail(String email, Function<String, Optional<User>> loader) {
+        return peekByEmail(email).or(() -> load(email, loader));
+    }
+
+    public Optional<User> getByUsername(String username, Function<String, Optional<User>> loader) {
+        return peekByUsername(username).or(() -> load(username, loader));
+    }
+
+    // Чтение без загрузки при промахе (например, для сверки ETag)
+    public Optional<User> peekById(Integer id) {
+        return Optional.ofNullable(usersById.getIfPresent(id));
+    }
+
+    public Optional<User> peekByEmail(String email) {
+        User cached = lookup(idsByEmail.get(email));
+        return cached != null && email.equals(cached.getEmail()) ? Optional.of(cached) : Optional.empty();
+    }
+
+    public Optional<User> peekByUsername(String username) {
+        User cached = lookup(idsByUsername.get(username));
+        return cached != null && username.equals(cached.getUsername()) ? Optional.of(cached) : Optional.empty();
+    }
+
+    public void put(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        // Сначала заменяем запись: слушатель удалит ключи старых email/username
+        usersById.put(user.getId(), user);
+        index(user);
+    }
+
+    public void evict(Integer id) {
+        // Поколение увеличивается до удаления: заполнение, начатое раньше, уже не попадет в кэш
+        generations.incrementAndGet(stripe(id));
+        usersById.invalidate(id);
+    }
+
+    public void evictAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        usersById.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    private User lookup(Integer id) {
+        if (id == null) {
+            // Промах по вторичному индексу тоже учитываем в статистике
+            statsCounter.recordMisses(1);
+            return null;
+        }
+        return usersById.getIfPresent(id);
+    }
+
+    // Загрузка по email или username: id заранее неизвестен, поэтому запоминаются поколения всех полос
+    private <K> Optional<User> load(K key, Function<K, Optional<User>> loader) {
+        long[] snapshot = new long[GENERATION_STRIPES];
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            snapshot[i] = generations.get(i);
+        }
+        Optional<User> loaded = loader.apply(key);
+        loaded.filter(user -> user.getId() != null).ifPresent(user -> {
+            User cached = usersById.asMap().compute(user.getId(),
+                    (id, current) -> generations.get(stripe(id)) == snapshot[stripe(id)] ? user : current);
+            if (cached == user) {
+                index(user);
+            }
+        });
+        return loaded;
+    }
+
+    // Индексы добавляются после записи; если запись уже удалена, peekByEmail/peekByUsername не найдут ее по id
+    private void index(User user) {
+        idsByEmail.put(user.getEmail(), user.getId());
+        idsByUsername.put(user.getUsername(), user.getId());
+    }
+
+    private static int stripe(Integer id) {
+        return Math.floorMod(id.hashCode(), GENERATION_STRIPES);
+    }
+
+    private void onRemoval(Integer id, User user, RemovalCause cause) {
+        if (user == null) {
+            return;
+        }
+        idsByEmail.remove(user.getEmail(), id);
+        idsByUsername.remove(user.getUsername(), id);
+    }
+}
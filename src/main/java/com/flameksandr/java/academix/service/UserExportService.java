@@ -0,0 +1,146 @@
+package com.flameksandr.java.academix.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flameksandr.java.academix.dto.UserSummaryDTO;
+import com.flameksandr.java.academix.exception.InvalidRequestException;
+import com.flameksandr.java.academix.mapper.UserMapper;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка всех пользователей в NDJSON или CSV.
+ * <p>
+ * Строки читаются курсором с фиксированным fetch size, каждая сущность отсоединяется
+ * от контекста сразу после записи, а вывод сбрасывается в ответ порциями —
+ * расход памяти не зависит от числа пользователей.
+ */
+@Service
+@Slf4j
+public class UserExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final String CSV_HEADER = "id,username,email,full_name,role,created_at";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequestException("Unsupported export format: " + value, e);
+            }
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final UserMapper userMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public UserExportService(UserRepository userRepository, ObjectMapper objectMapper, UserMapper userMapper) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.userMapper = userMapper;
+    }
+
+    /**
+     * Записывает всех пользователей в поток вывода.
+     *
+     * @param format формат выгрузки
+     * @param out    поток ответа; не закрывается
+     * @return число выгруженных пользователей
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.setRootValueSeparator(null);
+
+        long rows = 0;
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<User> users = userRepository.streamAllByOrderById()) {
+            for (Iterator<User> iterator = users.iterator(); iterator.hasNext(); ) {
+                User user = iterator.next();
+                UserSummaryDTO row = userMapper.toSummary(user);
+                // Отсоединяем сущность, чтобы контекст персистентности не рос
+                entityManager.detach(user);
+
+                if (format == Format.NDJSON) {
+                    generator.writeObject(row);
+                    generator.flush();
+                    writer.write('\n');
+                } else {
+                    writeCsvRow(writer, row);
+                }
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Exported {} users as {}", rows, format);
+        return rows;
+    }
+
+    private static void writeCsvRow(Writer writer, UserSummaryDTO row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(csv(row.getUsername()));
+        writer.write(',');
+        writer.write(csv(row.getEmail()));
+        writer.write(',');
+        writer.write(csv(row.getFullName()));
+        writer.write(',');
+        writer.write(row.getRole() != null ? row.getRole().name() : "");
+        writer.write(',');
+        writer.write(row.getCreatedAt() != null ? row.getCreatedAt().toString() : "");
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
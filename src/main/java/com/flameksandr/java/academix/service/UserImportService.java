@@ -0,0 +1,364 @@
+package com.flameksandr.java.academix.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flameksandr.java.academix.cache.CacheInvalidationBus;
+import com.flameksandr.java.academix.dto.BulkImportResultDTO;
+import com.flameksandr.java.academix.dto.BulkImportRowDTO;
+import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.exception.DuplicateUserException;
+import com.flameksandr.java.academix.exception.InvalidRequestException;
+import com.flameksandr.java.academix.exception.PasswordHashingRejectedException;
+import com.flameksandr.java.academix.exception.PayloadTooLargeException;
+import com.flameksandr.java.academix.mapper.UserMapper;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserRepository;
+import com.flameksandr.java.academix.security.BoundedPasswordEncoder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Массовый импорт пользователей из JSON-массива или CSV.
+ * <p>
+ * Каждая строка валидируется отдельно (по ограничениям UserDTO и User), пароли хешируются параллельно в пуле
+ * {@link BoundedPasswordEncoder}, а вставка идет порциями в одной транзакции
+ * на порцию с JDBC batching. Если порция падает на уникальном ограничении,
+ * она повторяется построчно, чтобы указать в отчете конкретные строки. Если пул хеширования
+ * перегружен, строки порции отмечаются в отчете как SERVICE_BUSY, а импорт продолжается
+ * со следующей порции: уже закоммиченные порции не теряются из отчета.
+ * <p>
+ * Размер импорта ограничен: не более {@code academix.import.max-rows} строк, JSON — не более
+ * {@code academix.import.max-size} байт (размер CSV-файла ограничивает {@code spring.servlet.multipart}).
+ * Оба формата читаются потоково и прерываются, как только лимит превышен.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("username", "email", "password", "full_name", "role");
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final UserAvailabilityService userAvailabilityService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxRows;
+    private final long maxSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public UserImportService(UserRepository userRepository, UserMapper userMapper, BoundedPasswordEncoder passwordEncoder,
+                             Validator validator, UserAvailabilityService userAvailabilityService,
+                             CacheInvalidationBus cacheInvalidationBus, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${academix.import.chunk-size:500}") int chunkSize,
+                             @Value("${academix.import.max-rows:10000}") int maxRows,
+                             @Value("${academix.import.max-size:5MB}") DataSize maxSize) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.userAvailabilityService = userAvailabilityService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+        this.maxSize = maxSize.toBytes();
+    }
+
+    public BulkImportResultDTO importUsers(List<UserDTO> userDTOs) {
+        checkRowLimit(userDTOs.size());
+        BulkImportRowDTO[] results = new BulkImportRowDTO[userDTOs.size()];
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenUsernames = new HashSet<>();
+
+        // Валидация и поиск дубликатов внутри самого файла — без обращения к БД
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < userDTOs.size(); i++) {
+            UserDTO userDTO = userDTOs.get(i);
+            Optional<ConstraintViolation<?>> violation = validate(userDTO);
+            if (violation.isPresent()) {
+                results[i] = validationError(i, violation.get());
+            } else if (!seenEmails.add(User.normalizeIdentifier(userDTO.getEmail()))) {
+                results[i] = BulkImportRowDTO.failed(i + 1, "DUPLICATE_EMAIL", "Email already exists");
+            } else if (!seenUsernames.add(User.normalizeIdentifier(userDTO.getUsername()))) {
+                results[i] = BulkImportRowDTO.failed(i + 1, "DUPLICATE_USERNAME", "Username already exists");
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            importChunk(userDTOs, chunk, results);
+        }
+
+        List<BulkImportRowDTO> rows = Arrays.asList(results);
+        int created = (int) rows.stream().filter(row -> row.getId() != null).count();
+        log.info("Bulk import finished: {} rows, {} created", rows.size(), created);
+        return new BulkImportResultDTO(rows.size(), created, rows.size() - created, rows);
+    }
+
+    /**
+     * Импорт из JSON-массива пользователей; тело читается потоково не дальше лимитов импорта.
+     *
+     * @throws PayloadTooLargeException если превышен лимит строк или байт
+     * @throws InvalidRequestException  если тело — не JSON-массив пользователей
+     */
+    public BulkImportResultDTO importJson(InputStream body) throws IOException {
+        return importUsers(parseJson(new LimitedInputStream(body, maxSize)));
+    }
+
+    public BulkImportResultDTO importCsv(Reader reader) throws IOException {
+        return importUsers(parseCsv(reader));
+    }
+
+    private void importChunk(List<UserDTO> userDTOs, List<Integer> chunk, BulkImportRowDTO[] results) {
+        List<String> hashes;
+        try {
+            hashes = passwordEncoder.encodeAll(chunk.stream().map(i -> userDTOs.get(i).getPassword()).toList());
+        } catch (PasswordHashingRejectedException e) {
+            // Предыдущие порции уже закоммичены: отчитываемся по строкам, а не роняем весь запрос
+            log.warn("Password hashing is overloaded, {} import rows rejected", chunk.size());
+            for (int index : chunk) {
+                results[index] = BulkImportRowDTO.failed(index + 1, "SERVICE_BUSY", "The service is temporarily overloaded, retry this row later.");
+            }
+            return;
+        }
+        List<User> users = new ArrayList<>(chunk.size());
+        for (int j = 0; j < chunk.size(); j++) {
+            users.add(toUser(userDTOs.get(chunk.get(j)), hashes.get(j)));
+        }
+
+        try {
+            insert(users);
+            for (int j = 0; j < chunk.size(); j++) {
+                results[chunk.get(j)] = BulkImportRowDTO.created(chunk.get(j) + 1, users.get(j).getId());
+            }
+        } catch (DataIntegrityViolationException | ConstraintViolationException e) {
+            // Порция откатилась целиком — повторяем построчно, чтобы найти конфликтующие строки
+            log.warn("Bulk insert chunk of {} rows hit a constraint, retrying row by row", chunk.size());
+            for (int j = 0; j < chunk.size(); j++) {
+                int index = chunk.get(j);
+                User user = toUser(userDTOs.get(index), hashes.get(j));
+                try {
+                    insert(List.of(user));
+                    results[index] = BulkImportRowDTO.created(index + 1, user.getId());
+                } catch (DataIntegrityViolationException rowError) {
+                    results[index] = DuplicateUserException.from(rowError)
+                            .map(duplicate -> BulkImportRowDTO.failed(index + 1, "DUPLICATE_" + duplicate.getField(), duplicate.getMessage()))
+                            .orElseGet(() -> BulkImportRowDTO.failed(index + 1, "DUPLICATE_DATA", "Email or Username already exists."));
+                } catch (ConstraintViolationException rowError) {
+                    results[index] = validationError(index, rowError.getConstraintViolations().iterator().next());
+                }
+            }
+        }
+    }
+
+    private void insert(List<User> users) {
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.saveAll(users);
+            userRepository.flush();
+            // Освобождаем контекст персистентности после каждой порции
+            entityManager.clear();
+        });
+        // Порция закоммичена: ее email/username заняты на этом узле, остальные узлы подгрузят их по id
+        for (User user : users) {
+            userAvailabilityService.add(user.getEmail(), user.getUsername());
+            cacheInvalidationBus.publish(user.getId());
+        }
+    }
+
+    // Ограничения UserDTO и, для полей профиля, ограничения User: иначе строку отклонит
+    // валидация сущности при flush, уже после хеширования пароля
+    private Optional<ConstraintViolation<?>> validate(UserDTO userDTO) {
+        Set<ConstraintViolation<?>> violations = new HashSet<>(validator.validate(userDTO));
+        violations.addAll(validator.validateValue(User.class, "username", userDTO.getUsername()));
+        violations.addAll(validator.validateValue(User.class, "email", userDTO.getEmail()));
+        violations.addAll(validator.validateValue(User.class, "fullName", userDTO.getFullName()));
+        return violations.stream().findFirst();
+    }
+
+    private static BulkImportRowDTO validationError(int index, ConstraintViolation<?> violation) {
+        return BulkImportRowDTO.failed(index + 1, "VALIDATION_ERROR", violation.getPropertyPath() + ": " + violation.getMessage());
+    }
+
+    private User toUser(UserDTO userDTO, String passwordHash) {
+        User user = userMapper.toEntity(userDTO);
+        user.setPassword(passwordHash);
+        if (user.getRole() == null) {
+            user.setRole(Role.STUDENT);
+        }
+        return user;
+    }
+
+    private void checkRowLimit(int rows) {
+        if (rows > maxRows) {
+            throw new PayloadTooLargeException("Bulk import is limited to " + maxRows + " rows");
+        }
+    }
+
+    private List<UserDTO> parseJson(InputStream input) throws IOException {
+        List<UserDTO> userDTOs = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidRequestException("Bulk import body must be a JSON array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                checkRowLimit(userDTOs.size() + 1);
+                userDTOs.add(objectMapper.readValue(parser, UserDTO.class));
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new InvalidRequestException("Bulk import body must be a JSON array of users");
+            }
+        } catch (LimitedInputStream.LimitExceededException e) {
+            throw new PayloadTooLargeException("Bulk import is limited to " + maxSize + " bytes");
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequestException("Malformed bulk import body", e);
+        }
+        return userDTOs;
+    }
+
+    private List<UserDTO> parseCsv(Reader source) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return List.of();
+        }
+        List<String> header = parseCsvLine(headerLine).stream().map(column -> column.trim().toLowerCase(Locale.ROOT)).toList();
+        int[] positions = new int[CSV_COLUMNS.size()];
+        for (int c = 0; c < CSV_COLUMNS.size(); c++) {
+            positions[c] = header.indexOf(CSV_COLUMNS.get(c));
+        }
+        if (positions[0] < 0 || positions[1] < 0 || positions[2] < 0 || positions[3] < 0) {
+            throw new InvalidRequestException("CSV header must contain " + CSV_COLUMNS.subList(0, 4));
+        }
+
+        List<UserDTO> userDTOs = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            checkRowLimit(userDTOs.size() + 1);
+            List<String> values = parseCsvLine(line);
+            String role = column(values, positions[4]);
+            userDTOs.add(new UserDTO(null,
+                    column(values, positions[0]),
+                    column(values, positions[1]),
+                    column(values, positions[2]),
+                    column(values, positions[3]),
+                    role == null || role.isBlank() ? null : parseRole(role)));
+        }
+        return userDTOs;
+    }
+
+    private static Role parseRole(String value) {
+        try {
+            return Role.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown role: " + value, e);
+        }
+    }
+
+    private static String column(List<String> values, int position) {
+        return position >= 0 && position < values.size() ? values.get(position) : null;
+    }
+
+    // Разбор строки CSV с поддержкой кавычек ("" внутри кавычек — экранированная кавычка)
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    current.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(ch);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    // Поток, который прерывает чтение после limit байт: тело не разбирается дальше лимита
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                consume(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                consume(read);
+            }
+            return read;
+        }
+
+        private void consume(int bytes) throws LimitExceededException {
+            remaining -= bytes;
+            if (remaining < 0) {
+                throw new LimitExceededException();
+            }
+        }
+
+        // IOException, а не RuntimeException: Jackson пропускает IOException без обертки
+        static final class LimitExceededException extends IOException {
+        }
+    }
+}
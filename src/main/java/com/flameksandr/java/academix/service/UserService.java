@@ -1,32 +1,74 @@
 package com.flameksandr.java.academix.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.flameksandr.java.academix.cache.CacheInvalidationBus;
 import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.dto.UserPageDTO;
+import com.flameksandr.java.academix.dto.UserSummaryDTO;
+import com.flameksandr.java.academix.exception.DuplicateUserException;
+import com.flameksandr.java.academix.exception.InvalidRequestException;
+import com.flameksandr.java.academix.exception.PreconditionFailedException;
 import com.flameksandr.java.academix.exception.UserNotFoundException;
+import com.flameksandr.java.academix.mapper.UserMapper;
 import com.flameksandr.java.academix.model.Role;
 import com.flameksandr.java.academix.model.User;
 import com.flameksandr.java.academix.repository.UserRepository;
+import com.flameksandr.java.academix.repository.UserVersion;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.annotation.Validated;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
 @Service
+@Timed("academix.service")
 @Validated
 @Slf4j
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final UserAvailabilityService userAvailabilityService;
+    private final Validator validator;
+    private final TransactionTemplate primaryTransaction;
 
     @Autowired
-    public UserService(UserRepository userRepository, ModelMapper modelMapper, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder,
+                       UserCache userCache, CacheInvalidationBus cacheInvalidationBus,
+                       UserAvailabilityService userAvailabilityService, Validator validator,
+                       PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.userAvailabilityService = userAvailabilityService;
+        this.validator = validator;
+        // Транзакция не read-only, то есть в основной БД. В ней читается промах кэша: строка с отстающей реплики
+        // после инвалидации снова попала бы в кэш на весь TTL, и по ней отвечали бы 304 на устаревший ETag.
+        // В ней же идет обновление, чтобы хеширование пароля шло до транзакции
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
     }
 
     public void registerUser(User user) {
@@ -36,76 +78,318 @@ public class UserService {
         // Шифруем пароль перед сохранением в БД
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         userRepository.save(user);
+        markTakenAfterCommit(user.getId(), user.getEmail(), user.getUsername());
     }
 
     public User createUser(@Valid UserDTO userDTO) {
-        // Проверка на уникальность email
-        if (userRepository.existsByEmail(userDTO.getEmail())) {
-            log.warn("Email already exists: {}", userDTO.getEmail());  // Логируем предупреждение
-            throw new IllegalArgumentException("Email already exists");
-        }
+        // Преобразуем DTO в сущность User и хешируем пароль (единственный раз)
+        User user = userMapper.toEntity(userDTO);
+        user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
 
-        // Проверка на уникальность username
-        if (userRepository.existsByUsername(userDTO.getUsername())) {
-            log.warn("Username already exists: {}", userDTO.getUsername());  // Логируем предупреждение
-            throw new IllegalArgumentException("Username already exists");
+        // Вставляем сразу, не проверяя email/username заранее: уникальность гарантируют индексы,
+        // а нарушение ограничения распознается по его имени
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            DuplicateUserException duplicate = DuplicateUserException.from(e).orElseThrow(() -> e);
+            log.warn("{} already exists: {}", duplicate.getField(),
+                    duplicate.getField() == DuplicateUserException.Field.EMAIL ? userDTO.getEmail() : userDTO.getUsername());  // Логируем предупреждение
+            throw duplicate;
         }
-
-        // Преобразуем DTO в сущность User
-        User user = modelMapper.map(userDTO, User.class);
-
-        // Сохраняем пользователя и логируем успешное создание
-        User savedUser = userRepository.save(user);
+        markTakenAfterCommit(savedUser.getId(), savedUser.getEmail(), savedUser.getUsername());
         log.info("Created new user with id: {}", savedUser.getId());  // Логируем успешное создание пользователя
 
         return savedUser;
     }
 
-    public User getUserByEmail(String email) {
-        log.info("Fetching user by email: {}", email);  // Логируем получение пользователя по email
-        return userRepository.findByEmail(email)
+    public UserPageDTO listUsers(Role role, String query, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // Префикс нормализуется так же, как email и username при записи: поиск не зависит от регистра
+        String prefix = query == null || query.isBlank() ? null : User.normalizeIdentifier(query);
+
+        LocalDateTime afterCreatedAt = null;
+        Integer afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterCreatedAt = LocalDateTime.parse(position[0]);
+            afterId = Integer.valueOf(position[1]);
+        }
+
+        // Запрашиваем на одну строку больше, чтобы понять, есть ли следующая страница
+        List<UserSummaryDTO> rows = userRepository.findSummaries(role, prefix, afterCreatedAt, afterId, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new UserPageDTO(rows, null);
+        }
+        List<UserSummaryDTO> items = rows.subList(0, pageSize);
+        UserSummaryDTO last = items.get(pageSize - 1);
+        return new UserPageDTO(new ArrayList<>(items), encodeCursor(last.getCreatedAt(), last.getId()));
+    }
+
+    public User getUserById(Integer id) {
+        log.debug("Fetching user by id: {}", id);  // Логируем получение пользователя по id
+        return userCache.getById(id, this::loadById)
+                .orElseThrow(() -> {
+                    log.debug("User not found with id: {}", id);  // Не ошибка сервера: клиент получит 404
+                    return UserNotFoundException.by("id", id);
+                });
+    }
+
+    public User getUserByEmail(String rawEmail) {
+        String email = User.normalizeIdentifier(rawEmail);
+        log.debug("Fetching user by email: {}", email);  // Логируем получение пользователя по email
+        return userCache.getByEmail(email, this::loadByEmail)
                 .orElseThrow(() -> {
-                    log.error("User not found with email: {}", email);  // Логируем ошибку, если пользователь не найден
-                    return new UserNotFoundException("User not found with email: " + email);
+                    log.debug("User not found with email: {}", email);  // Не ошибка сервера: клиент получит 404
+                    return UserNotFoundException.by("email", email);
                 });
     }
 
-    public User getUserByUsername(String username) {
-        log.info("Fetching user by username: {}", username);  // Логируем получение пользователя по username
-        return userRepository.findByUsername(username)
+    public User getUserByUsername(String rawUsername) {
+        String username = User.normalizeIdentifier(rawUsername);
+        log.debug("Fetching user by username: {}", username);  // Логируем получение пользователя по username
+        return userCache.getByUsername(username, this::loadByUsername)
                 .orElseThrow(() -> {
-                    log.error("User not found with username: {}", username);  // Логируем ошибку, если пользователь не найден
-                    return new UserNotFoundException("User not found with username: " + username);
+                    log.debug("User not found with username: {}", username);  // Не ошибка сервера: клиент получит 404
+                    return UserNotFoundException.by("username", username);
                 });
     }
 
+    /**
+     * Текущая версия пользователя для сверки ETag: из кэша, а при промахе — запросом только id и version
+     * (сущность не загружается и в кэш не попадает).
+     *
+     * @param id идентификатор пользователя
+     * @return версия или пустой результат, если пользователя нет
+     */
+    public Optional<UserVersion> findVersionById(Integer id) {
+        return userCache.peekById(id).map(UserService::versionOf).or(() -> userRepository.findVersionById(id));
+    }
+
+    public Optional<UserVersion> findVersionByEmail(String rawEmail) {
+        String email = User.normalizeIdentifier(rawEmail);
+        return userCache.peekByEmail(email).map(UserService::versionOf).or(() -> userRepository.findVersionByEmail(email));
+    }
+
+    public Optional<UserVersion> findVersionByUsername(String rawUsername) {
+        String username = User.normalizeIdentifier(rawUsername);
+        return userCache.peekByUsername(username).map(UserService::versionOf).or(() -> userRepository.findVersionByUsername(username));
+    }
+
     public User updateUser(@Valid UserDTO userDTO) {
-        log.info("Updating user with id: {}", userDTO.getId());  // Логируем обновление пользователя
+        return updateUser(userDTO, null);
+    }
 
-        if (!userRepository.existsById(userDTO.getId())) {
-            log.error("User not found with id: {}", userDTO.getId());  // Логируем ошибку, если пользователь не найден
-            throw new UserNotFoundException("User not found with id: " + userDTO.getId());
+    /**
+     * Обновление пользователя с защитой от потерянного обновления: если задана ожидаемая версия
+     * (из {@code If-Match}), а текущая другая, пользователь не изменяется.
+     *
+     * @param userDTO         новые данные пользователя
+     * @param expectedVersion версия, которую видел клиент, или null без проверки
+     * @throws PreconditionFailedException если версия не совпала
+     */
+    public User updateUser(@Valid UserDTO userDTO, Long expectedVersion) {
+        log.debug("Updating user with id: {}", userDTO.getId());  // Логируем обновление пользователя
+
+        // Хешируем до начала транзакции, как при создании: соединение из пула не занято на время bcrypt
+        String passwordHash = passwordEncoder.encode(userDTO.getPassword());
+        return primaryTransaction.execute(status -> update(userDTO, expectedVersion, passwordHash));
+    }
+
+    private User update(UserDTO userDTO, Long expectedVersion, String passwordHash) {
+        User user = userRepository.findById(userDTO.getId())
+                .orElseThrow(() -> {
+                    log.debug("User not found with id: {}", userDTO.getId());  // Не ошибка сервера: клиент получит 404
+                    return UserNotFoundException.by("id", userDTO.getId());
+                });
+        // Изменение между этой проверкой и коммитом отловит @Version (409)
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            log.debug("Version mismatch while updating user with id: {}", userDTO.getId());  // Клиент получит 412
+            throw new PreconditionFailedException("User with id " + userDTO.getId() + " has version " + user.getVersion()
+                    + ", expected " + expectedVersion);
         }
 
-        // Преобразуем DTO в сущность User
-        User user = modelMapper.map(userDTO, User.class);
+        // Переносим поля профиля и новый хеш пароля в загруженную сущность (createdAt и version сохраняются)
+        userMapper.copyProfile(userDTO, user);
+        user.setPassword(passwordHash);
 
-        // Сохраняем обновленного пользователя
+        // Сущность управляемая: UPDATE изменившихся столбцов уйдет при коммите
         User updatedUser = userRepository.save(user);
+        // Удаляем запись из кэша вместе со старыми ключами email/username и оповещаем остальные узлы
+        evictAfterCommit(updatedUser.getId());
+        markTakenAfterCommit(null, updatedUser.getEmail(), updatedUser.getUsername());
         log.info("User with id {} updated successfully", updatedUser.getId());  // Логируем успешное обновление
 
         return updatedUser;
     }
 
+    /**
+     * Частичное обновление по семантике JSON Merge Patch (RFC 7396): меняются только переданные поля,
+     * одним UPDATE без предварительного чтения. Необязательное поле {@code version} задает ожидаемую версию.
+     *
+     * @param id    идентификатор пользователя
+     * @param patch тело запроса
+     */
+    @Transactional
+    public void patchUser(Integer id, JsonNode patch) {
+        log.debug("Patching user with id: {}", id);  // Логируем частичное обновление пользователя
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidRequestException("Patch body must be a JSON object");
+        }
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+        Long expectedVersion = null;
+        for (Iterator<Map.Entry<String, JsonNode>> fields = patch.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            switch (field.getKey()) {
+                case "username", "email" -> changes.put(field.getKey(), User.normalizeIdentifier(validatedText(field.getKey(), value)));
+                case "fullName" -> changes.put("fullName", validatedText("fullName", value));
+                case "password" -> changes.put("password", passwordEncoder.encode(validatedText("password", value)));
+                case "role" -> changes.put("role", value.isNull() ? null : parseRole(value.asText()));
+                case "telegramChatId" -> changes.put("telegramChatId", parseChatId(value));
+                case "version" -> expectedVersion = value.isIntegralNumber() ? value.asLong() : null;
+                default -> throw new InvalidRequestException("Field cannot be patched: " + field.getKey());
+            }
+        }
+        if (changes.isEmpty()) {
+            throw new InvalidRequestException("Patch does not change any field");
+        }
+
+        if (userRepository.patch(id, changes, expectedVersion) == 0) {
+            // Дополнительный запрос только на неуспешном пути: отличаем отсутствие пользователя от конфликта версий
+            if (!userRepository.existsById(id)) {
+                log.debug("User not found with id: {}", id);  // Не ошибка сервера: клиент получит 404
+                throw UserNotFoundException.by("id", id);
+            }
+            log.warn("Version conflict while patching user with id: {}", id);
+            throw new OptimisticLockingFailureException("User with id " + id + " was modified concurrently");
+        }
+        evictAfterCommit(id);
+        if (changes.containsKey("email") || changes.containsKey("username")) {
+            markTakenAfterCommit(null, (String) changes.get("email"), (String) changes.get("username"));
+        }
+        log.info("User with id {} patched fields {}", id, changes.keySet());  // Логируем успешное обновление
+    }
+
     public void deleteUser(Integer id) {
-        log.info("Deleting user with id: {}", id);  // Логируем удаление пользователя
+        log.debug("Deleting user with id: {}", id);  // Логируем удаление пользователя
 
         if (!userRepository.existsById(id)) {
-            log.error("User not found with id: {}", id);  // Логируем ошибку, если пользователь не найден
-            throw new UserNotFoundException("User not found with id: " + id);
+            log.debug("User not found with id: {}", id);  // Не ошибка сервера: клиент получит 404
+            throw UserNotFoundException.by("id", id);
         }
 
         userRepository.deleteById(id);
+        evictAfterCommit(id);
         log.info("User with id {} deleted successfully", id);  // Логируем успешное удаление
     }
+
+    private Optional<User> loadById(Integer id) {
+        return primaryTransaction.execute(status -> userRepository.findById(id));
+    }
+
+    private Optional<User> loadByEmail(String email) {
+        return primaryTransaction.execute(status -> userRepository.findByEmail(email));
+    }
+
+    private Optional<User> loadByUsername(String username) {
+        return primaryTransaction.execute(status -> userRepository.findByUsername(username));
+    }
+
+    private static UserVersion versionOf(User user) {
+        return new UserVersion(user.getId(), user.getVersion());
+    }
+
+    private String validatedText(String field, JsonNode value) {
+        if (!value.isTextual()) {
+            throw new InvalidRequestException("Field " + field + " must be a string");
+        }
+        // Те же ограничения, что и при создании пользователя; UPDATE-запрос обходит валидацию сущности,
+        // поэтому для полей профиля проверяем и ограничения User
+        Set<ConstraintViolation<?>> violations = new HashSet<>(validator.validateValue(UserDTO.class, field, value.asText()));
+        if (!"password".equals(field)) {
+            violations.addAll(validator.validateValue(User.class, field, value.asText()));
+        }
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestException(violations.iterator().next().getMessage());
+        }
+        return value.asText();
+    }
+
+    private static Role parseRole(String value) {
+        try {
+            return Role.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown role: " + value, e);
+        }
+    }
+
+    // Идентификатор чата Telegram — целое число (у групп отрицательное); null отключает уведомления
+    private static Long parseChatId(JsonNode value) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (!value.isIntegralNumber() || !value.canConvertToLong()) {
+            throw new InvalidRequestException("telegramChatId must be an integer");
+        }
+        return value.asLong();
+    }
+
+    // Инвалидация кэша после коммита, чтобы параллельное чтение не закэшировало старое состояние
+    private void evictAfterCommit(Integer id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userCache.evict(id);
+            cacheInvalidationBus.publish(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userCache.evict(id);
+                cacheInvalidationBus.publish(id);
+            }
+        });
+    }
+
+    // Новые email/username отмечаются занятыми после коммита; другие узлы узнают о созданном пользователе
+    // из шины инвалидации (для измененного его id уже публикует evictAfterCommit)
+    private void markTakenAfterCommit(Integer createdId, String email, String username) {
+        Runnable markTaken = () -> {
+            userAvailabilityService.add(email, username);
+            if (createdId != null) {
+                cacheInvalidationBus.publish(createdId);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markTaken.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markTaken.run();
+            }
+        });
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, Integer id) {
+        String position = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new InvalidRequestException("Invalid cursor: " + cursor);
+            }
+            LocalDateTime.parse(parts[0]);
+            Integer.parseInt(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor, e);
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package com.flameksandr.java.academix.telegram;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flameksandr.java.academix.config.TelegramProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Клиент Bot API поверх {@link HttpClient}: один метод {@code sendMessage}.
+ * <p>
+ * Код ответа переводится в {@link TelegramClient.Status}: 429 и 5xx — временные ошибки
+ * (для 429 учитывается {@code parameters.retry_after}), прочие 4xx — постоянные.
+ * Адрес запроса содержит токен бота, поэтому в лог он не пишется.
+ */
+@Slf4j
+@Component
+public class HttpTelegramClient implements TelegramClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI sendMessageUri;
+    private final Duration requestTimeout;
+
+    @Autowired
+    public HttpTelegramClient(TelegramProperties properties, ObjectMapper objectMapper) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getRequestTimeout())
+                .build();
+        this.objectMapper = objectMapper;
+        this.sendMessageUri = URI.create(properties.getApiUrl() + "/bot" + properties.getBotToken() + "/sendMessage");
+        this.requestTimeout = properties.getRequestTimeout();
+    }
+
+    @Override
+    public Delivery sendMessage(long chatId, String text) {
+        HttpResponse<byte[]> response;
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(Map.of("chat_id", chatId, "text", text));
+            HttpRequest request = HttpRequest.newBuilder(sendMessageUri)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            log.debug("Telegram request for chat {} failed: {}", chatId, e.toString());
+            return Delivery.RETRY;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Delivery.RETRY;
+        }
+
+        int status = response.statusCode();
+        if (status == 200) {
+            return Delivery.SENT;
+        }
+        if (status == 429) {
+            return Delivery.retryAfter(retryAfter(response.body()));
+        }
+        if (status >= 500) {
+            return Delivery.RETRY;
+        }
+        log.debug("Telegram rejected message for chat {} with status {}", chatId, status);
+        return Delivery.REJECTED;
+    }
+
+    // {"ok":false,"error_code":429,"parameters":{"retry_after":5}}
+    private Duration retryAfter(byte[] body) {
+        try {
+            JsonNode seconds = objectMapper.readTree(body).path("parameters").path("retry_after");
+            return seconds.isIntegralNumber() ? Duration.ofSeconds(seconds.asLong()) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
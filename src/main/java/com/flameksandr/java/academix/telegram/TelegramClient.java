@@ -0,0 +1,42 @@
+package com.flameksandr.java.academix.telegram;
+
+import java.time.Duration;
+
+/**
+ * Отправка сообщений в Telegram. Реализация не повторяет запросы сама: повторы и ограничение
+ * частоты — забота вызывающего, поэтому результат говорит, имеет ли смысл повтор.
+ */
+public interface TelegramClient {
+
+    /**
+     * Отправляет текстовое сообщение в чат.
+     *
+     * @param chatId идентификатор чата
+     * @param text   текст сообщения
+     * @return исход отправки
+     */
+    Delivery sendMessage(long chatId, String text);
+
+    enum Status {
+        // Сообщение принято Telegram
+        SENT,
+        // Временная ошибка (429, 5xx, сеть): можно повторить
+        RETRY,
+        // Постоянная ошибка (бот заблокирован, чат не найден): повтор не поможет
+        REJECTED
+    }
+
+    /**
+     * Исход отправки; {@code retryAfter} — пауза, которую потребовал Telegram (только для 429), иначе null.
+     */
+    record Delivery(Status status, Duration retryAfter) {
+
+        public static final Delivery SENT = new Delivery(Status.SENT, null);
+        public static final Delivery REJECTED = new Delivery(Status.REJECTED, null);
+        public static final Delivery RETRY = new Delivery(Status.RETRY, null);
+
+        public static Delivery retryAfter(Duration retryAfter) {
+            return new Delivery(Status.RETRY, retryAfter);
+        }
+    }
+}
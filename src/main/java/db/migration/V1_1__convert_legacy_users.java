@@ -0,0 +1,82 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Приводит таблицу users, созданную до Flyway через {@code ddl-auto=update}, к схеме V1.
+ * <p>
+ * Такая база принимается как версия 1 ({@code spring.flyway.baseline-on-migrate}), и V1 на ней не выполняется.
+ * У таблицы Hibernate нет users_seq (id — IDENTITY) и столбца version, а уникальные ограничения email и username
+ * названы самой СУБД (например, {@code users_email_key}), поэтому {@link com.flameksandr.java.academix.exception.DuplicateUserException}
+ * не распознал бы их. Миграция создает последовательность за max(id), добавляет version, переименовывает
+ * ограничения в uk_users_email/uk_users_username и создает индексы V1. На базе, созданной V1, ничего не делает.
+ * <p>
+ * Миграция на Java: имена ограничений заранее неизвестны и ищутся в information_schema.
+ */
+public class V1_1__convert_legacy_users extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        if (sequenceExists(connection)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            long maxId;
+            try (ResultSet resultSet = statement.executeQuery("select coalesce(max(id), 0) from users")) {
+                resultSet.next();
+                maxId = resultSet.getLong(1);
+            }
+            // Hibernate берет блок из 50 id, заканчивающийся полученным значением (см. V7)
+            statement.execute("create sequence users_seq start with " + (maxId + ALLOCATION_SIZE) + " increment by " + ALLOCATION_SIZE);
+            statement.execute("alter table users add column version bigint default 0 not null");
+            renameUniqueConstraint(connection, statement, "email", "uk_users_email");
+            renameUniqueConstraint(connection, statement, "username", "uk_users_username");
+            statement.execute("create index idx_users_created_at_id on users (created_at, id)");
+            statement.execute("create index idx_users_role_created_at_id on users (role, created_at, id)");
+        }
+    }
+
+    private static boolean sequenceExists(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("""
+                select count(*) from information_schema.sequences
+                where lower(sequence_schema) = lower(current_schema) and lower(sequence_name) = 'users_seq'""");
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1) > 0;
+        }
+    }
+
+    private static void renameUniqueConstraint(Connection connection, Statement statement, String column, String name) throws SQLException {
+        String current;
+        try (PreparedStatement query = connection.prepareStatement("""
+                select tc.constraint_name
+                from information_schema.table_constraints tc
+                join information_schema.key_column_usage kcu
+                  on kcu.constraint_schema = tc.constraint_schema and kcu.constraint_name = tc.constraint_name
+                where tc.constraint_type = 'UNIQUE'
+                  and lower(tc.table_schema) = lower(current_schema)
+                  and lower(tc.table_name) = 'users'
+                  and lower(kcu.column_name) = ?""")) {
+            query.setString(1, column);
+            try (ResultSet resultSet = query.executeQuery()) {
+                current = resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+        if (current == null) {
+            // Ограничения нет (удалено вручную) — создаем его, иначе дубликаты не будут отклоняться
+            statement.execute("alter table users add constraint " + name + " unique (" + column + ")");
+        } else {
+            statement.execute("alter table users rename constraint \"" + current.replace("\"", "\"\"") + "\" to " + name);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Сдвигает users_seq за max(users.id).
+ * <p>
+ * Последовательность могла отставать от уже выданных id (например, после вставок в обход Hibernate);
+ * в базах, созданных через {@code ddl-auto=update}, ее создает {@link V1_1__convert_legacy_users}.
+ * Hibernate берет из users_seq блок из 50 id, заканчивающийся полученным значением, поэтому следующее
+ * значение должно быть не меньше {@code max(id) + 50}. Последовательность, которая уже впереди, назад не сдвигается.
+ * <p>
+ * Миграция на Java: {@code setval} есть только в PostgreSQL, а {@code alter sequence ... restart with}
+ * принимает только константу — значение вычисляется здесь и подставляется в команду.
+ */
+public class V7__advance_users_seq extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId = queryLong(statement, "select coalesce(max(id), 0) from users");
+            // Значение, которое получил бы следующий вызов; расходуется, но не выдается Hibernate
+            long next = queryLong(statement, "select nextval('users_seq')");
+            long restartWith = Math.max(next, maxId + ALLOCATION_SIZE);
+            statement.execute("alter sequence users_seq restart with " + restartWith);
+        }
+    }
+
+    private static long queryLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
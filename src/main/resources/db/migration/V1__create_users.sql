@@ -0,0 +1,22 @@
+-- Пользователи. Имена уникальных ограничений используются в DuplicateUserException
+create sequence users_seq start with 1 increment by 50;
+
+create table users (
+    id         integer      not null,
+    username   varchar(20)  not null,
+    email      varchar(255) not null,
+    password   varchar(255) not null,
+    full_name  varchar(100) not null,
+    role       varchar(20),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    version    bigint       default 0 not null,
+    constraint pk_users primary key (id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_username unique (username),
+    constraint ck_users_role check (role in ('ADMIN', 'STUDENT', 'TEACHER'))
+);
+
+-- Keyset-пагинация списка пользователей, в том числе с фильтром по роли
+create index idx_users_created_at_id on users (created_at, id);
+create index idx_users_role_created_at_id on users (role, created_at, id);
@@ -0,0 +1,8 @@
+-- Email и username хранятся нормализованными (User.normalizeIdentifier). Строки, созданные до нормализации,
+-- приводятся к нижнему регистру; если два пользователя различаются только регистром, миграция остановится
+-- на уникальном ограничении и конфликт нужно разрешить вручную. NFKC применяется при следующей записи.
+update users
+set email    = lower(trim(email)),
+    username = lower(trim(username))
+where email <> lower(trim(email))
+   or username <> lower(trim(username));
@@ -0,0 +1,23 @@
+-- История событий прогресса (пишется пачками из очереди write-behind)
+create table progress_events (
+    id          bigint generated by default as identity,
+    user_id     integer      not null,
+    course_id   integer      not null,
+    lesson_id   integer      not null,
+    occurred_at timestamp(6) not null,
+    constraint pk_progress_events primary key (id),
+    constraint fk_progress_events_user foreign key (user_id) references users (id) on delete cascade
+);
+
+create index idx_progress_events_user_course on progress_events (user_id, course_id);
+
+-- Агрегат по (пользователь, курс), обновляется инкрементально; прогресс пользователя читается по префиксу ключа
+create table course_progress (
+    user_id           integer      not null,
+    course_id         integer      not null,
+    completed_lessons bigint       not null,
+    last_lesson_id    integer      not null,
+    last_event_at     timestamp(6) not null,
+    constraint pk_course_progress primary key (user_id, course_id),
+    constraint fk_course_progress_user foreign key (user_id) references users (id) on delete cascade
+);
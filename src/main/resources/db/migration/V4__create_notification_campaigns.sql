@@ -0,0 +1,25 @@
+-- Чат Telegram пользователя; рассылка выбирает получателей роли keyset-выборкой по id
+alter table users add column telegram_chat_id bigint;
+
+create index idx_users_role_id on users (role, id);
+
+-- Рассылка и ее курсор: id последнего пользователя, чья страница уже отправлена.
+-- Аренда (lease_owner, lease_until) не дает двум узлам отправлять одну рассылку
+create table notification_campaigns (
+    id             bigint generated by default as identity,
+    role           varchar(20),
+    message        varchar(4096) not null,
+    status         varchar(20)   not null,
+    cursor_user_id integer       default 0 not null,
+    sent           bigint        default 0 not null,
+    failed         bigint        default 0 not null,
+    lease_owner    varchar(36),
+    lease_until    timestamp(6),
+    created_at     timestamp(6)  not null,
+    completed_at   timestamp(6),
+    constraint pk_notification_campaigns primary key (id),
+    constraint ck_notification_campaigns_role check (role in ('ADMIN', 'STUDENT', 'TEACHER')),
+    constraint ck_notification_campaigns_status check (status in ('RUNNING', 'COMPLETED'))
+);
+
+create index idx_notification_campaigns_status_id on notification_campaigns (status, id);
@@ -0,0 +1,14 @@
+-- Первые ответы на запросы с заголовком Idempotency-Key (хранилище academix.idempotency.type=jdbc).
+-- Строка без status — запрос выполняется; locked_until ограничивает, сколько ждать упавший узел
+create table idempotency_keys (
+    idempotency_key varchar(320) not null,
+    fingerprint     varchar(64)  not null,
+    status          integer,
+    content_type    varchar(255),
+    body            bytea,
+    locked_until    timestamp(6),
+    expires_at      timestamp(6) not null,
+    constraint pk_idempotency_keys primary key (idempotency_key)
+);
+
+create index idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
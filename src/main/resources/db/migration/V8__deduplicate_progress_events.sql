@@ -0,0 +1,23 @@
+-- Урок учитывается в прогрессе один раз: повторы события (переотправка клиентом, повтор пачки после сбоя,
+-- дочитывание журнала после рестарта) раньше записывались заново и увеличивали completed_lessons
+
+-- Оставляем первое событие по каждому уроку
+delete from progress_events e
+where exists (select 1
+              from progress_events d
+              where d.user_id = e.user_id
+                and d.course_id = e.course_id
+                and d.lesson_id = e.lesson_id
+                and d.id < e.id);
+
+-- Агрегаты пересчитываются по очищенной истории: события пишутся в одной транзакции с агрегатом
+update course_progress p
+set completed_lessons = (select count(*)
+                         from progress_events e
+                         where e.user_id = p.user_id
+                           and e.course_id = p.course_id);
+
+-- Уникальный ключ заменяет индекс (user_id, course_id): тот же префикс для поиска по пользователю и курсу
+alter table progress_events add constraint uq_progress_events_lesson unique (user_id, course_id, lesson_id);
+
+drop index idx_progress_events_user_course;
@@ -0,0 +1,3 @@
+-- Токен владельца аренды: сохранить ответ, освободить или продлить аренду может только занявший ключ запрос.
+-- Строки, занятые до миграции, остаются без владельца и перехватываются по истечении аренды
+alter table idempotency_keys add column lock_owner varchar(36);
@@ -0,0 +1,47 @@
+package com.flameksandr.java.academix.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void shouldNeverReportAddedValueAsAbsent() {
+        // Given
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+        assertEquals(10_000, filter.getInsertions());
+    }
+
+    @Test
+    void shouldKeepFalsePositiveRateNearConfiguredValue() {
+        // Given: фильтр заполнен до расчетной емкости
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+
+        // Then: ~1 %, около 9.6 бита на элемент
+        assertTrue(falsePositives < 1_500, "False positives: " + falsePositives);
+        assertEquals(7, filter.getHashCount());
+        assertTrue(filter.sizeInBytes() < 125_000, "Size: " + filter.sizeInBytes());
+    }
+}
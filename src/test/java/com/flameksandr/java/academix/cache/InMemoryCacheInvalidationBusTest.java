@@ -0,0 +1,92 @@
+package com.flameksandr.java.academix.cache;
+
+import com.flameksandr.java.academix.AcademixApplication;
+import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryCacheInvalidationBusTest {
+
+    @Test
+    void shouldCoalesceBurstIntoSingleDeliveryAndSkipOwnMessages() throws Exception {
+        // Given
+        List<Set<Integer>> publisherBatches = new CopyOnWriteArrayList<>();
+        List<Set<Integer>> receiverBatches = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        try (InMemoryCacheInvalidationBus publisher = new InMemoryCacheInvalidationBus("coalesce-test", Duration.ofMillis(100));
+             InMemoryCacheInvalidationBus receiver = new InMemoryCacheInvalidationBus("coalesce-test", Duration.ofMillis(100))) {
+            publisher.subscribe(recording(publisherBatches, new CountDownLatch(1)));
+            receiver.subscribe(recording(receiverBatches, delivered));
+
+            // When
+            for (int i = 0; i < 100; i++) {
+                publisher.publish(1);
+                publisher.publish(2);
+            }
+
+            // Then
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of(Set.of(1, 2)), receiverBatches);
+            assertTrue(publisherBatches.isEmpty());
+        }
+    }
+
+    @Test
+    void shouldEvictUserOnOtherNodeAfterUpdate() throws Exception {
+        // Given: два узла над одной базой и общим каналом
+        try (ConfigurableApplicationContext nodeA = startNode();
+             ConfigurableApplicationContext nodeB = startNode()) {
+            UserService serviceA = nodeA.getBean(UserService.class);
+            UserService serviceB = nodeB.getBean(UserService.class);
+            User created = serviceA.createUser(new UserDTO(null, "cluster_user", "cluster@example.com", "password123", "Old Name", Role.STUDENT));
+            assertEquals("Old Name", serviceB.getUserByEmail("cluster@example.com").getFullName());
+
+            // When
+            serviceA.updateUser(new UserDTO(created.getId(), "cluster_user", "cluster@example.com", "password123", "New Name", Role.STUDENT));
+
+            // Then: узел B перестает отдавать устаревшую запись из своего кэша
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!"New Name".equals(serviceB.getUserByEmail("cluster@example.com").getFullName())) {
+                assertTrue(System.nanoTime() < deadline, "Node B still serves a stale user");
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(AcademixApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.datasource.url=jdbc:h2:mem:cluster;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "academix.cache-invalidation.channel=cluster-test")
+                .run();
+    }
+
+    private static CacheInvalidationBus.Listener recording(List<Set<Integer>> batches, CountDownLatch delivered) {
+        return new CacheInvalidationBus.Listener() {
+            @Override
+            public void onInvalidate(Set<Integer> userIds) {
+                batches.add(userIds);
+                delivered.countDown();
+            }
+
+            @Override
+            public void onInvalidateAll() {
+            }
+        };
+    }
+}
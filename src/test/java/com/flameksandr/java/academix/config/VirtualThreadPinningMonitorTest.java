@@ -0,0 +1,45 @@
+package com.flameksandr.java.academix.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(10), meterRegistry);
+    private final Object lock = new Object();
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void shouldCountVirtualThreadPinnedInsideSynchronized() throws Exception {
+        // Given
+        monitor.start();
+
+        // When: виртуальный поток блокируется, удерживая монитор
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        // Then: JFR отдает события с задержкой, поэтому ждем до 10 секунд
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (meterRegistry.get("academix.virtual-threads.pinned").counter().count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(meterRegistry.get("academix.virtual-threads.pinned").counter().count() >= 1);
+    }
+}
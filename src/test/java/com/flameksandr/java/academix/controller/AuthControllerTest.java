@@ -0,0 +1,54 @@
+package com.flameksandr.java.academix.controller;
+
+import com.flameksandr.java.academix.dto.LoginRequestDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "academix.auth.per-ip.capacity=2")
+class AuthControllerTest {
+
+    private final AtomicInteger logins = new AtomicInteger();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shouldRateLimitByForwardedClientAddress() {
+        // Given: запросы приходят через балансировщик (localhost — доверенный прокси)
+        assertEquals(HttpStatus.UNAUTHORIZED, login("203.0.113.1"));
+        assertEquals(HttpStatus.UNAUTHORIZED, login("203.0.113.1"));
+
+        // When & Then: лимит исчерпан только у этого клиента, а не у всех клиентов балансировщика
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, login("203.0.113.1"));
+        assertEquals(HttpStatus.UNAUTHORIZED, login("203.0.113.2"));
+    }
+
+    @Test
+    void shouldIgnoreAddressesPrependedByClient() {
+        // Given
+        assertEquals(HttpStatus.UNAUTHORIZED, login("203.0.113.3"));
+        assertEquals(HttpStatus.UNAUTHORIZED, login("203.0.113.3"));
+
+        // When & Then: адрес, дописанный самим клиентом перед адресом от балансировщика, не учитывается
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, login("198.51.100.7, 203.0.113.3"));
+    }
+
+    // Каждый раз новый логин: срабатывает только лимит по адресу, а не по логину
+    private HttpStatus login(String forwardedFor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", forwardedFor);
+        LoginRequestDTO request = new LoginRequestDTO("ghost" + logins.incrementAndGet(), "password123");
+        return HttpStatus.valueOf(restTemplate.postForEntity("/api/auth/login", new HttpEntity<>(request, headers), String.class)
+                .getStatusCode().value());
+    }
+}
@@ -0,0 +1,83 @@
+package com.flameksandr.java.academix.controller;
+
+import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.exception.ErrorResponse;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserControllerConcurrencyTest {
+
+    private static final int THREADS = 50;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldCreateOneUserAndReturnDuplicateUsernameToTheRest() throws Exception {
+        // Given: 50 потоков с одинаковым username и разными email стартуют одновременно
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<ResponseEntity<ErrorResponse>>> responses = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            UserDTO userDTO = new UserDTO(null, "racer", "racer" + i + "@example.com", "password123", "Race Runner", Role.STUDENT);
+            responses.add(executor.submit(() -> {
+                startGate.await();
+                return restTemplate.postForEntity("/api/users", userDTO, ErrorResponse.class);
+            }));
+        }
+
+        // When
+        startGate.countDown();
+        int created = 0;
+        int duplicates = 0;
+        for (Future<ResponseEntity<ErrorResponse>> future : responses) {
+            ResponseEntity<ErrorResponse> response = future.get(30, TimeUnit.SECONDS);
+            if (response.getStatusCode() == HttpStatus.CREATED) {
+                created++;
+            } else {
+                assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+                assertEquals("DUPLICATE_USERNAME", response.getBody().getErrorCode());
+                duplicates++;
+            }
+        }
+        executor.shutdown();
+        long statements = statistics.getPrepareStatementCount();
+
+        // Then: ровно одна вставка прошла, и каждая попытка стоила одного INSERT
+        // (плюс выборка блока id из последовательности раз в 50 вставок)
+        assertEquals(1, created);
+        assertEquals(THREADS - 1, duplicates);
+        assertEquals(1, userRepository.count());
+        assertTrue(statements <= THREADS + 2, "Prepared statements: " + statements);
+    }
+}
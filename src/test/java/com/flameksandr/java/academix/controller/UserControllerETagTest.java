@@ -0,0 +1,177 @@
+package com.flameksandr.java.academix.controller;
+
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserRepository;
+import com.flameksandr.java.academix.service.UserCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerETagTest {
+
+    private static final String UPDATE_BODY = """
+            {"username": "etag_user", "email": "etag@example.com", "password": "password123", "fullName": "New Name", "role": "STUDENT"}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "etag_user", "etag@example.com", "password123", "Old Name",
+                Role.STUDENT, null, null, null, null));
+        userCache.evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        userCache.evictAll();
+    }
+
+    @Test
+    void shouldReturnETagDerivedFromIdAndVersion() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/users/email/ETag@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + user.getId() + "-0\""))
+                .andExpect(jsonPath("$.fullName").value("Old Name"));
+    }
+
+    @Test
+    void shouldKeepSameBodyForETagWhenPasswordIsRehashed() throws Exception {
+        // Given
+        MvcResult before = mockMvc.perform(get("/api/users/" + user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.password").doesNotExist())
+                .andReturn();
+
+        // When: вход пересчитал хеш пароля, версия не изменилась
+        userRepository.replacePasswordHash(user.getId(), "password123", "{bcrypt}$2a$04$rehashed-password-hash");
+        userCache.evictAll();
+
+        // Then: тот же сильный ETag описывает то же тело
+        MvcResult after = mockMvc.perform(get("/api/users/" + user.getId())).andExpect(status().isOk()).andReturn();
+        assertEquals(before.getResponse().getHeader(HttpHeaders.ETAG), after.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(before.getResponse().getContentAsString(), after.getResponse().getContentAsString());
+    }
+
+    @Test
+    void shouldReturnNotModifiedFromCacheWithoutQueries() throws Exception {
+        // Given: первый запрос кладет пользователя в кэш
+        String eTag = mockMvc.perform(get("/api/users/username/etag_user"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Statistics statistics = statistics();
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users/username/etag_user").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andReturn();
+
+        // Then: ни тела, ни обращений к БД
+        assertEquals(0, result.getResponse().getContentLength());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldCheckFreshnessWithVersionQueryOnCacheMiss() throws Exception {
+        // Given
+        String eTag = "\"" + user.getId() + "-0\"";
+        Statistics statistics = statistics();
+
+        // When
+        mockMvc.perform(get("/api/users/email/etag@example.com").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // Then: один запрос версии, сущность не загружается и в кэш не попадает
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(userCache.peekById(user.getId()).isEmpty());
+    }
+
+    @Test
+    void shouldReturnFullBodyWhenETagIsStale() throws Exception {
+        // Given: клиент видел версию 0, после чего пользователь изменился
+        String staleETag = "\"" + user.getId() + "-0\"";
+        mockMvc.perform(put("/api/users/" + user.getId()).contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + user.getId() + "-1\""));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/" + user.getId()).header(HttpHeaders.IF_NONE_MATCH, staleETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + user.getId() + "-1\""))
+                .andExpect(jsonPath("$.fullName").value("New Name"));
+    }
+
+    @Test
+    void shouldUpdateWhenIfMatchIsCurrent() throws Exception {
+        // When & Then
+        mockMvc.perform(put("/api/users/" + user.getId()).contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY)
+                        .header(HttpHeaders.IF_MATCH, "\"" + user.getId() + "-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + user.getId() + "-1\""));
+        assertEquals("New Name", userRepository.findById(user.getId()).orElseThrow().getFullName());
+    }
+
+    @Test
+    void shouldRejectLostUpdateWithPreconditionFailed() throws Exception {
+        // Given: другой клиент уже изменил пользователя
+        mockMvc.perform(put("/api/users/" + user.getId()).contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY))
+                .andExpect(status().isOk());
+
+        // When & Then: изменение по устаревшей версии не применяется
+        mockMvc.perform(put("/api/users/" + user.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE_BODY.replace("New Name", "Lost Name"))
+                        .header(HttpHeaders.IF_MATCH, "\"" + user.getId() + "-0\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.errorCode").value("PRECONDITION_FAILED"));
+        assertEquals("New Name", userRepository.findById(user.getId()).orElseThrow().getFullName());
+    }
+
+    @Test
+    void shouldRejectWeakOrForeignETagInIfMatch() throws Exception {
+        // When & Then
+        mockMvc.perform(put("/api/users/" + user.getId()).contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY)
+                        .header(HttpHeaders.IF_MATCH, "W/\"" + user.getId() + "-0\", \"0-0\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/users/" + user.getId()).contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY)
+                        .header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isOk());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,80 @@
+package com.flameksandr.java.academix.datasource;
+
+import com.flameksandr.java.academix.config.AuthProperties;
+import com.flameksandr.java.academix.config.ReadReplicaProperties;
+import com.flameksandr.java.academix.security.TokenService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private final ReadReplicaProperties replicaProperties = replicaProperties();
+    private final ReplicaStickiness stickiness = new ReplicaStickiness(replicaProperties);
+
+    @Test
+    void shouldKeepClientStickyOnAnotherNode() throws Exception {
+        // Given: два узла с общим ключом подписи; клиент пишет через первый
+        ReadYourWritesFilter nodeA = filter(SECRET);
+        ReadYourWritesFilter nodeB = filter(SECRET);
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        nodeA.doFilter(new MockHttpServletRequest("POST", "/api/users"), writeResponse, (request, response) -> {
+        });
+        Cookie cookie = cookie(writeResponse);
+
+        // When & Then: чтение на втором узле идет в основную БД, без cookie — на реплику
+        assertTrue(readIsSticky(nodeB, cookie));
+        assertFalse(readIsSticky(nodeB, null));
+    }
+
+    @Test
+    void shouldIgnoreCookieSignedWithAnotherKey() throws Exception {
+        // Given
+        byte[] otherKey = new byte[32];
+        otherKey[0] = 1;
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        filter(Base64.getEncoder().encodeToString(otherKey))
+                .doFilter(new MockHttpServletRequest("PATCH", "/api/users/1"), writeResponse, (request, response) -> {
+                });
+
+        // When & Then
+        assertFalse(readIsSticky(filter(SECRET), cookie(writeResponse)));
+    }
+
+    private boolean readIsSticky(ReadYourWritesFilter filter, Cookie cookie) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        AtomicBoolean sticky = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> sticky.set(stickiness.isSticky()));
+        return sticky.get();
+    }
+
+    private static Cookie cookie(MockHttpServletResponse response) {
+        String header = response.getHeader(HttpHeaders.SET_COOKIE);
+        String pair = header.substring(0, header.indexOf(';'));
+        return new Cookie(ReadYourWritesFilter.COOKIE_NAME, pair.substring(pair.indexOf('=') + 1));
+    }
+
+    private ReadYourWritesFilter filter(String secret) {
+        AuthProperties authProperties = new AuthProperties();
+        authProperties.setSecret(secret);
+        return new ReadYourWritesFilter(stickiness, new TokenService(authProperties), replicaProperties);
+    }
+
+    private static ReadReplicaProperties replicaProperties() {
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        properties.getReplicas().add(new ReadReplicaProperties.Replica());
+        return properties;
+    }
+}
@@ -0,0 +1,216 @@
+package com.flameksandr.java.academix.datasource;
+
+import com.flameksandr.java.academix.dto.LoginRequestDTO;
+import com.flameksandr.java.academix.exception.InvalidCredentialsException;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserRepository;
+import com.flameksandr.java.academix.service.AuthService;
+import com.flameksandr.java.academix.service.UserCache;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Две встроенные H2: основная из application.properties и «реплика» со своей схемой. Репликации между ними нет,
+ * поэтому у одного и того же пользователя в них разные fullName — по нему видно, откуда прочитана строка.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReplicaRoutingDataSourceTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private ReplicaStickiness stickiness;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    private User user;
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+        replica.execute("create table if not exists replica_status (lag_millis bigint)");
+        registry.add("academix.datasource.replicas[0].url", () -> REPLICA_URL);
+        registry.add("academix.datasource.lag-query", () -> "select lag_millis from replica_status");
+        registry.add("academix.datasource.health-check-interval", () -> "1h");
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Given: пользователь в основной БД и его отстающая копия на реплике
+        user = userRepository.save(user("Primary Name"));
+        replica.update("insert into users (id, username, email, password, full_name, role, created_at, updated_at, version)"
+                        + " values (?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), "Replica Name", user.getRole().name(),
+                Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(LocalDateTime.now()));
+        replica.update("delete from replica_status");
+        replica.update("insert into replica_status values (0)");
+        routingDataSource.checkReplicas();
+        userCache.evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        replica.update("delete from users");
+        stickiness.unbind();
+    }
+
+    @Test
+    void shouldReadFromReplicaOnlyInReadOnlyTransactions() {
+        // When
+        String readOnly = userRepository.findByEmail(user.getEmail()).orElseThrow().getFullName();
+        String insideWrite = new TransactionTemplate(transactionManager)
+                .execute(status -> userRepository.findByEmail(user.getEmail()).orElseThrow().getFullName());
+
+        // Then
+        assertEquals("Replica Name", readOnly);
+        assertEquals("Primary Name", insideWrite);
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimary() {
+        // Given: клиент писал секунду назад
+        stickiness.bind(Instant.now().minusSeconds(1));
+
+        // When: его чтение, а затем чтение клиента, чье окно уже закрылось
+        String ownRead = userRepository.findByEmail(user.getEmail()).orElseThrow().getFullName();
+        stickiness.bind(Instant.now().minus(Duration.ofMinutes(1)));
+        String otherRead = userRepository.findByEmail(user.getEmail()).orElseThrow().getFullName();
+
+        // Then
+        assertEquals("Primary Name", ownRead);
+        assertEquals("Replica Name", otherRead);
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaIsBehind() {
+        // Given
+        replica.update("update replica_status set lag_millis = 5000");
+        routingDataSource.checkReplicas();
+
+        // When & Then
+        assertEquals("Primary Name", userRepository.findByEmail(user.getEmail()).orElseThrow().getFullName());
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenHealthCheckFails() {
+        // Given
+        replica.execute("drop table replica_status");
+        try {
+            routingDataSource.checkReplicas();
+
+            // When & Then
+            assertEquals("Primary Name", userRepository.findByEmail(user.getEmail()).orElseThrow().getFullName());
+        } finally {
+            replica.execute("create table replica_status (lag_millis bigint)");
+        }
+    }
+
+    @Test
+    void shouldKeepClientOnPrimaryAfterItsHttpWrite() throws Exception {
+        // Given: клиент меняет имя (запись только в основной БД) и получает cookie со временем записи
+        Cookie cookie = mockMvc.perform(patch("/api/users/{id}", user.getId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"fullName\": \"Patched Name\"}"))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        Cookie forged = new Cookie(cookie.getName(), cookie.getValue() + "x");
+
+        // When & Then: с cookie клиент ищет себя в списке (read-only запрос) в основной БД
+        mockMvc.perform(get("/api/users").param("q", "replicated").cookie(cookie))
+                .andExpect(jsonPath("$.items[0].fullName").value("Patched Name"));
+
+        // Другой клиент и клиент с поддельной подписью читают с реплики
+        mockMvc.perform(get("/api/users").param("q", "replicated"))
+                .andExpect(jsonPath("$.items[0].fullName").value("Replica Name"));
+        mockMvc.perform(get("/api/users").param("q", "replicated").cookie(forged))
+                .andExpect(jsonPath("$.items[0].fullName").value("Replica Name"));
+    }
+
+    @Test
+    void shouldFillUserCacheFromPrimary() throws Exception {
+        // Given: имя изменено на другом узле, инвалидация удалила пользователя из кэша, реплика еще отстает
+        primary.update("update users set full_name = 'Changed Elsewhere', version = version + 1 where id = ?", user.getId());
+        userCache.evict(user.getId());
+
+        // When: читает клиент, который ничего не писал
+        mockMvc.perform(get("/api/users/{id}", user.getId()).with(request -> {
+                    request.setRemoteAddr("10.0.0.3");
+                    return request;
+                }))
+                .andExpect(jsonPath("$.fullName").value("Changed Elsewhere"));
+
+        // Then: в кэше новая строка, а не копия с реплики
+        assertEquals("Changed Elsewhere", userCache.peekById(user.getId()).orElseThrow().getFullName());
+    }
+
+    @Test
+    void shouldFillUserCacheFromPrimaryOnLogin() {
+        // Given: имя изменено на другом узле, реплика еще отстает
+        primary.update("update users set full_name = 'Changed Elsewhere', version = version + 1 where id = ?", user.getId());
+        userCache.evict(user.getId());
+
+        // When: вход вызывается в обход HTTP-фильтра, без признака записи
+        assertThrows(InvalidCredentialsException.class,
+                () -> authService.login(new LoginRequestDTO("replicated", "wrong-password"), "10.0.0.4"));
+
+        // Then: пользователь для входа загружен в кэш из основной БД
+        assertEquals("Changed Elsewhere", userCache.peekByUsername("replicated").orElseThrow().getFullName());
+    }
+
+    private static User user(String fullName) {
+        User user = new User();
+        user.setUsername("replicated");
+        user.setEmail("replicated@example.com");
+        user.setPassword("password-hash");
+        user.setFullName(fullName);
+        user.setRole(Role.STUDENT);
+        return user;
+    }
+}
@@ -0,0 +1,97 @@
+package com.flameksandr.java.academix.datasource;
+
+import com.flameksandr.java.academix.config.ReadReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaSelectionTest {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @AfterEach
+    void tearDown() {
+        routingDataSource.close();
+    }
+
+    @Test
+    void shouldAlternateReplicasRoundRobin() throws SQLException {
+        // Given
+        routingDataSource = routing(ReadReplicaProperties.Selection.ROUND_ROBIN);
+
+        // When & Then
+        assertEquals(List.of("replica_a", "replica_b", "replica_a"), List.of(database(), database(), database()));
+    }
+
+    @Test
+    void shouldPreferReplicaWithFewerBusyConnections() throws SQLException {
+        // Given
+        routingDataSource = routing(ReadReplicaProperties.Selection.LEAST_CONNECTIONS);
+
+        // When: одно соединение с первой репликой занято
+        try (Connection busy = routingDataSource.getConnection()) {
+            String busyDatabase = name(busy);
+
+            // Then
+            assertNotEquals(busyDatabase, database());
+        }
+    }
+
+    @Test
+    void shouldUsePrimaryUntilReplicasPassHealthCheck() throws SQLException {
+        // Given
+        ReadReplicaProperties properties = properties(ReadReplicaProperties.Selection.ROUND_ROBIN);
+        routingDataSource = new ReplicaRoutingDataSource(new DriverManagerDataSource(url("primary"), "sa", ""),
+                List.of(pool("replica_a")), properties, new ReplicaStickiness(properties), new SimpleMeterRegistry());
+
+        // When & Then
+        assertEquals("primary", database());
+    }
+
+    private ReplicaRoutingDataSource routing(ReadReplicaProperties.Selection selection) {
+        ReadReplicaProperties properties = properties(selection);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(new DriverManagerDataSource(url("primary"), "sa", ""),
+                List.of(pool("replica_a"), pool("replica_b")), properties, new ReplicaStickiness(properties), new SimpleMeterRegistry());
+        routing.checkReplicas();
+        return routing;
+    }
+
+    private static ReadReplicaProperties properties(ReadReplicaProperties.Selection selection) {
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        properties.setSelection(selection);
+        properties.setLagQuery("");
+        return properties;
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url(name));
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+
+    private static String url(String name) {
+        return "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+    }
+
+    private String database() throws SQLException {
+        try (Connection connection = routingDataSource.getConnection()) {
+            return name(connection);
+        }
+    }
+
+    private static String name(Connection connection) throws SQLException {
+        String url = connection.getMetaData().getURL();
+        return url.substring("jdbc:h2:mem:".length()).split(";")[0];
+    }
+}
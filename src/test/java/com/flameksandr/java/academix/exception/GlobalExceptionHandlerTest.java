@@ -0,0 +1,102 @@
+package com.flameksandr.java.academix.exception;
+
+import com.flameksandr.java.academix.dto.UserDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class GlobalExceptionHandlerTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ErrorResponses errorResponses;
+
+    @Test
+    void shouldReturnPreallocatedResponseForMissingUser() {
+        // When
+        ResponseEntity<ErrorResponse> response = restTemplate.getForEntity("/api/users/email/nobody@example.com", ErrorResponse.class);
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("USER_NOT_FOUND", response.getBody().getErrorCode());
+        assertNull(response.getBody().getFieldErrors());
+        assertSame(errorResponses.get(ErrorCode.USER_NOT_FOUND, Locale.ENGLISH), errorResponses.get(ErrorCode.USER_NOT_FOUND, Locale.US));
+    }
+
+    @Test
+    void shouldReturnFieldErrorsForInvalidBody() {
+        // Given
+        UserDTO invalid = new UserDTO(null, "ab", "not-an-email", "password123", "Full Name", null);
+
+        // When
+        ResponseEntity<ErrorResponse> response = restTemplate.postForEntity("/api/users", invalid, ErrorResponse.class);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("VALIDATION_FAILED", response.getBody().getErrorCode());
+        assertEquals(2, response.getBody().getFieldErrors().size());
+        assertTrue(response.getBody().getFieldErrors().stream().anyMatch(error -> error.getField().equals("username")));
+        assertTrue(response.getBody().getFieldErrors().stream().anyMatch(error -> error.getField().equals("email")));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownPath() {
+        // When
+        ResponseEntity<ErrorResponse> response = restTemplate.getForEntity("/api/unknown", ErrorResponse.class);
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("NOT_FOUND", response.getBody().getErrorCode());
+    }
+
+    @Test
+    void shouldReturnMethodNotAllowedWithAllowHeader() {
+        // When
+        ResponseEntity<ErrorResponse> response = restTemplate.getForEntity("/api/auth/login", ErrorResponse.class);
+
+        // Then
+        assertEquals(HttpStatus.METHOD_NOT_ALLOWED, response.getStatusCode());
+        assertEquals("METHOD_NOT_ALLOWED", response.getBody().getErrorCode());
+        assertEquals(Set.of(HttpMethod.POST), response.getHeaders().getAllow());
+    }
+
+    @Test
+    void shouldReturnUnsupportedMediaType() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.TEXT_PLAIN);
+
+        // When
+        ResponseEntity<ErrorResponse> response = restTemplate.postForEntity("/api/auth/login",
+                new HttpEntity<>("login=john", headers), ErrorResponse.class);
+
+        // Then
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, response.getStatusCode());
+        assertEquals("UNSUPPORTED_MEDIA_TYPE", response.getBody().getErrorCode());
+    }
+
+    @Test
+    void shouldNotCaptureStackTraceForDomainExceptions() {
+        // When
+        UserNotFoundException exception = UserNotFoundException.by("id", 42);
+
+        // Then
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals("User not found with id: 42", exception.getMessage());
+    }
+}
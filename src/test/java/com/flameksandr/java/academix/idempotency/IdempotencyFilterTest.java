@@ -0,0 +1,158 @@
+package com.flameksandr.java.academix.idempotency;
+
+import com.flameksandr.java.academix.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class IdempotencyFilterTest {
+
+    private static final int THREADS = 20;
+    private static final String USER_JSON = """
+            {"username": "retry_user", "email": "retry@example.com", "password": "password123", "fullName": "Retry User"}""";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReplayFirstResponseWithoutTouchingTheDatabase() {
+        // Given: первый запрос создал пользователя
+        String key = UUID.randomUUID().toString();
+        ResponseEntity<String> first = post("/api/users", key, USER_JSON);
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        assertNull(first.getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+        Statistics statistics = statistics();
+
+        // When: клиент повторяет запрос после таймаута
+        ResponseEntity<String> retry = post("/api/users", key, USER_JSON);
+
+        // Then: тот же ответ, без обращений к БД и без второго пользователя
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, retry.getHeaders().getContentType());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void shouldExecuteConcurrentRetriesOnce() throws Exception {
+        // Given: 20 повторов с одним ключом стартуют одновременно
+        String key = UUID.randomUUID().toString();
+        double executedBefore = executed();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            responses.add(executor.submit(() -> {
+                startGate.await();
+                return post("/api/users", key, USER_JSON);
+            }));
+        }
+
+        // When
+        startGate.countDown();
+        List<ResponseEntity<String>> results = new ArrayList<>();
+        for (Future<ResponseEntity<String>> future : responses) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Then: запрос выполнен один раз, остальные дождались его ответа вместо ошибки о дубликате
+        assertEquals(1, executed() - executedBefore);
+        assertEquals(1, userRepository.count());
+        for (ResponseEntity<String> result : results) {
+            assertEquals(HttpStatus.CREATED, result.getStatusCode());
+            assertEquals(results.get(0).getBody(), result.getBody());
+        }
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentBody() {
+        // Given
+        String key = UUID.randomUUID().toString();
+        post("/api/users/register", key, USER_JSON);
+
+        // When
+        ResponseEntity<String> response = post("/api/users/register", key, USER_JSON.replace("Retry User", "Other User"));
+
+        // Then
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertTrue(response.getBody().contains("IDEMPOTENCY_KEY_REUSED"));
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void shouldScopeKeyToPath() {
+        // Given: тот же ключ на регистрации и на создании — разные запросы
+        String key = UUID.randomUUID().toString();
+        assertEquals(HttpStatus.OK, post("/api/users/register", key, USER_JSON).getStatusCode());
+
+        // When
+        ResponseEntity<String> response = post("/api/users", key, USER_JSON);
+
+        // Then: выполнен как новый запрос и получил ошибку о дубликате
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void shouldRejectTooLongKey() {
+        // When
+        ResponseEntity<String> response = post("/api/users", "k".repeat(256), USER_JSON);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(0, userRepository.count());
+    }
+
+    private ResponseEntity<String> post(String path, String key, String json) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        return restTemplate.postForEntity(path, new HttpEntity<>(json, headers), String.class);
+    }
+
+    private double executed() {
+        return meterRegistry.get("academix.idempotency.requests").tag("result", "executed").counter().count();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
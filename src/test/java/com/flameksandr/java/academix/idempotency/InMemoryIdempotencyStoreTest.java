@@ -0,0 +1,86 @@
+package com.flameksandr.java.academix.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryIdempotencyStoreTest {
+
+    private static final IdempotencyStore.StoredResponse CREATED =
+            new IdempotencyStore.StoredResponse(201, "application/json", "{\"id\":1}".getBytes());
+
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofHours(1), 1024 * 1024);
+
+    @Test
+    void shouldHandOutKeyOnceAndReplayStoredResponse() {
+        // When
+        IdempotencyStore.Claim first = store.claim("k", "f");
+        IdempotencyStore.Claim duplicate = store.claim("k", "f");
+        store.complete("k", first.token(), CREATED);
+        IdempotencyStore.Claim replay = store.claim("k", "f");
+
+        // Then
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, first.outcome());
+        assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, duplicate.outcome());
+        assertEquals(IdempotencyStore.Outcome.COMPLETED, replay.outcome());
+        assertSame(CREATED, replay.response());
+        assertEquals(IdempotencyStore.Outcome.MISMATCH, store.claim("k", "other").outcome());
+    }
+
+    @Test
+    void shouldWakeUpWaitersOnCompleteAndRelease() throws Exception {
+        // Given
+        String doneToken = store.claim("done", "f").token();
+        String failedToken = store.claim("failed", "f").token();
+        CompletableFuture<Optional<IdempotencyStore.StoredResponse>> done = CompletableFuture.supplyAsync(() -> await("done"));
+        CompletableFuture<Optional<IdempotencyStore.StoredResponse>> failed = CompletableFuture.supplyAsync(() -> await("failed"));
+        Thread.sleep(50);
+
+        // When
+        store.complete("done", doneToken, CREATED);
+        store.release("failed", failedToken);
+
+        // Then: после release ключ свободен, и повтор может выполнить запрос сам
+        assertSame(CREATED, done.get(5, TimeUnit.SECONDS).orElseThrow());
+        assertTrue(failed.get(5, TimeUnit.SECONDS).isEmpty());
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, store.claim("failed", "f").outcome());
+    }
+
+    @Test
+    void shouldStopWaitingAfterTimeout() throws Exception {
+        // Given
+        store.claim("slow", "f");
+
+        // When & Then
+        assertTrue(store.await("slow", Duration.ofMillis(20)).isEmpty());
+    }
+
+    @Test
+    void shouldBoundMemoryByResponseSize() {
+        // Given: 64 КиБ памяти и ответы по 4 КиБ
+        InMemoryIdempotencyStore bounded = new InMemoryIdempotencyStore(Duration.ofHours(1), 64 * 1024);
+        IdempotencyStore.StoredResponse large = new IdempotencyStore.StoredResponse(201, "application/json", new byte[4096]);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            String token = bounded.claim("key-" + i, "f").token();
+            bounded.complete("key-" + i, token, large);
+        }
+
+        // Then: хранится не больше 64 КиБ / 4 КиБ записей
+        assertTrue(bounded.size() <= 16, "Stored keys: " + bounded.size());
+    }
+
+    private Optional<IdempotencyStore.StoredResponse> await(String key) {
+        try {
+            return store.await(key, Duration.ofSeconds(5));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.flameksandr.java.academix.idempotency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Хранилище на таблице idempotency_keys из миграций; два экземпляра изображают два узла.
+ */
+@SpringBootTest
+class JdbcIdempotencyStoreTest {
+
+    private static final IdempotencyStore.StoredResponse CREATED =
+            new IdempotencyStore.StoredResponse(201, "application/json", "{\"id\":1}".getBytes());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcIdempotencyStore nodeA;
+    private JdbcIdempotencyStore nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofSeconds(30), Duration.ofMillis(10));
+        nodeB = new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofSeconds(30), Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.close();
+        nodeB.close();
+        jdbcTemplate.update("delete from idempotency_keys");
+    }
+
+    @Test
+    void shouldShareKeyBetweenNodes() throws Exception {
+        // Given
+        IdempotencyStore.Claim claim = nodeA.claim("k", "f");
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, claim.outcome());
+        assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, nodeB.claim("k", "f").outcome());
+        CompletableFuture<IdempotencyStore.StoredResponse> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return nodeB.await("k", Duration.ofSeconds(5)).orElseThrow();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // When
+        nodeA.complete("k", claim.token(), CREATED);
+
+        // Then
+        IdempotencyStore.StoredResponse replayed = waiter.get(5, TimeUnit.SECONDS);
+        assertEquals(201, replayed.status());
+        assertEquals("application/json", replayed.contentType());
+        assertArrayEquals(CREATED.body(), replayed.body());
+        assertEquals(IdempotencyStore.Outcome.COMPLETED, nodeB.claim("k", "f").outcome());
+        assertEquals(IdempotencyStore.Outcome.MISMATCH, nodeB.claim("k", "other").outcome());
+    }
+
+    @Test
+    void shouldGrantKeyToExactlyOneConcurrentClaim() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<IdempotencyStore.Outcome>> outcomes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            JdbcIdempotencyStore store = i % 2 == 0 ? nodeA : nodeB;
+            outcomes.add(executor.submit(() -> {
+                startGate.await();
+                return store.claim("race", "f").outcome();
+            }));
+        }
+
+        // When
+        startGate.countDown();
+        int acquired = 0;
+        for (Future<IdempotencyStore.Outcome> outcome : outcomes) {
+            if (outcome.get(10, TimeUnit.SECONDS) == IdempotencyStore.Outcome.ACQUIRED) {
+                acquired++;
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, acquired);
+    }
+
+    @Test
+    void shouldReleaseKeyAndTakeOverExpiredLease() throws Exception {
+        // Given: узел A занял ключ и освободил его после ошибки, а ключ «crashed» держит без ответа
+        String failedToken = nodeA.claim("failed", "f").token();
+        nodeA.claim("crashed", "f");
+        nodeA.release("failed", failedToken);
+        jdbcTemplate.update("update idempotency_keys set locked_until = ? where idempotency_key = 'crashed'",
+                Timestamp.from(Instant.now().minusSeconds(1)));
+
+        // When & Then
+        assertTrue(nodeB.await("failed", Duration.ofMillis(50)).isEmpty());
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, nodeB.claim("failed", "f").outcome());
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, nodeB.claim("crashed", "f").outcome());
+        assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, nodeA.claim("crashed", "f").outcome());
+    }
+
+    @Test
+    void shouldNotLetSupersededOwnerCompleteOrReleaseKey() {
+        // Given: запрос узла A завис, его аренда истекла, и ключ перехватил узел B
+        String staleToken = nodeA.claim("slow", "f").token();
+        jdbcTemplate.update("update idempotency_keys set locked_until = ? where idempotency_key = 'slow'",
+                Timestamp.from(Instant.now().minusSeconds(1)));
+        String ownerToken = nodeB.claim("slow", "f").token();
+
+        // When: A наконец отвечает, а затем пытается освободить ключ
+        nodeA.complete("slow", staleToken, new IdempotencyStore.StoredResponse(409, "application/json", new byte[0]));
+        nodeA.release("slow", staleToken);
+
+        // Then: ключ по-прежнему у B, и сохраняется ответ B
+        assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, nodeA.claim("slow", "f").outcome());
+        nodeB.complete("slow", ownerToken, CREATED);
+        assertEquals(201, nodeA.claim("slow", "f").response().status());
+    }
+
+    @Test
+    void shouldRenewLeaseWhileRequestIsRunning() {
+        // Given: запрос узла A еще выполняется, а срок аренды почти вышел
+        nodeA.claim("long", "f");
+        jdbcTemplate.update("update idempotency_keys set locked_until = ? where idempotency_key = 'long'",
+                Timestamp.from(Instant.now().plusMillis(100)));
+
+        // When
+        nodeA.renewLeases();
+
+        // Then: аренда продлена на полный срок, и ключ не перехватить
+        Instant lockedUntil = jdbcTemplate.queryForObject("select locked_until from idempotency_keys where idempotency_key = 'long'",
+                Timestamp.class).toInstant();
+        assertTrue(lockedUntil.isAfter(Instant.now().plusSeconds(20)), "locked until " + lockedUntil);
+        assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, nodeB.claim("long", "f").outcome());
+    }
+
+    @Test
+    void shouldForgetExpiredKeys() {
+        // Given
+        nodeA.complete("old", nodeA.claim("old", "f").token(), CREATED);
+        nodeA.complete("stale", nodeA.claim("stale", "f").token(), CREATED);
+        jdbcTemplate.update("update idempotency_keys set expires_at = ?", Timestamp.from(Instant.now().minusSeconds(1)));
+
+        // When
+        IdempotencyStore.Claim claim = nodeB.claim("old", "other");
+        nodeB.purgeExpired();
+
+        // Then: просроченный ответ не возвращается, а ключ можно использовать заново
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, claim.outcome());
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from idempotency_keys", Integer.class));
+    }
+}
@@ -0,0 +1,47 @@
+package com.flameksandr.java.academix.mapper;
+
+import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserMapperTest {
+
+    private final UserMapper userMapper = new UserMapper();
+
+    @Test
+    void shouldNotCopyIdPasswordOrTimestampsIntoEntity() {
+        // Given
+        UserDTO userDTO = new UserDTO(7, "john_doe", "john@example.com", "password123", "John Doe", Role.TEACHER);
+
+        // When
+        User user = userMapper.toEntity(userDTO);
+
+        // Then: id, присланный клиентом, не попадает в новую сущность
+        assertNull(user.getId());
+        assertEquals("john_doe", user.getUsername());
+        assertEquals("john@example.com", user.getEmail());
+        assertEquals("John Doe", user.getFullName());
+        assertEquals(Role.TEACHER, user.getRole());
+        assertNull(user.getPassword());
+        assertNull(user.getCreatedAt());
+        assertNull(user.getUpdatedAt());
+    }
+
+    @Test
+    void shouldNotExposePasswordHashInDto() {
+        // Given
+        User user = new User(7, "john_doe", "john@example.com", "$2a$10$hash", "John Doe", Role.STUDENT, LocalDateTime.now(), LocalDateTime.now(), 0L, null);
+
+        // When
+        UserDTO userDTO = userMapper.toDto(user);
+
+        // Then
+        assertNull(userDTO.getPassword());
+        assertEquals("john_doe", userDTO.getUsername());
+    }
+}
@@ -0,0 +1,39 @@
+package com.flameksandr.java.academix.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Без этой аннотации Spring Boot в тестах отключает экспорт метрик
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MetricsEndpointTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shouldExposeLayerTimersWithHistogramsForPrometheus() {
+        // Given: один запрос проходит контроллер, сервис и репозиторий
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity("/api/users/email/nobody@example.com", String.class).getStatusCode());
+
+        // When
+        ResponseEntity<String> scrape = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+        String body = scrape.getBody();
+        assertNotNull(body);
+        assertTrue(body.contains("http_server_requests_seconds_bucket"));
+        assertTrue(body.contains("academix_service_seconds_bucket{class=\"com.flameksandr.java.academix.service.UserService\""));
+        assertTrue(body.contains("spring_data_repository_invocations_seconds_bucket"));
+        assertTrue(body.contains("hikaricp_connections_acquire_seconds_bucket"));
+        assertTrue(body.contains("academix_logging_events_per_request_count"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.flameksandr.java.academix.metrics;
+
+import com.flameksandr.java.academix.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class SlowQueryLogTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ofMillis(100), 0.0, meterRegistry);
+
+    @Test
+    void shouldCountBindParametersOutsideLiterals() {
+        assertEquals(2, SlowQueryLog.countBindParameters("select * from users where email=? and role='?' and id>?"));
+        assertEquals(0, SlowQueryLog.countBindParameters("select count(*) from users"));
+    }
+
+    @Test
+    void shouldReportOnlyCallsOverThreshold() throws Exception {
+        // Given
+        slowQueryLog.inspect("select u.id from users u where u.email=?");
+
+        // When
+        slowQueryLog.afterInvocation(invocation(50));
+        slowQueryLog.inspect("select u.id from users u where u.username=?");
+        slowQueryLog.afterInvocation(invocation(150));
+
+        // Then
+        assertEquals(1.0, meterRegistry.get("academix.repository.slow").counter().count());
+    }
+
+    private static RepositoryMethodInvocation invocation(long millis) throws NoSuchMethodException {
+        return new RepositoryMethodInvocation(UserRepository.class, UserRepository.class.getMethod("findByEmail", String.class),
+                mock(RepositoryMethodInvocationListener.RepositoryMethodInvocationResult.class), TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
@@ -0,0 +1,32 @@
+package com.flameksandr.java.academix.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class StartupTimeReportTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void shouldReportStartupPhases() {
+        // Then: схема создана миграциями, а фазы старта доступны как метрики
+        assertNotNull(flyway.info().current());
+        assertEquals(0, flyway.info().pending().length);
+        for (String phase : new String[]{"jvm", "context", "migration", "jpa"}) {
+            assertNotNull(meterRegistry.find("academix.startup.phase").tag("phase", phase).timeGauge(), phase);
+        }
+        assertTrue(meterRegistry.get("academix.startup.phase").tag("phase", "jpa").timeGauge().value(TimeUnit.MILLISECONDS) > 0);
+    }
+}
@@ -0,0 +1,32 @@
+package com.flameksandr.java.academix.repository;
+
+import com.flameksandr.java.academix.model.ProgressEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgressRepositoryTest {
+
+    @Test
+    void shouldCoalesceEventsPerUserAndCourse() {
+        // Given
+        List<ProgressEvent> events = List.of(event(1, 10, 100, 1), event(1, 10, 102, 3), event(1, 10, 101, 2), event(2, 10, 100, 1));
+
+        // When
+        List<ProgressRepository.Delta> deltas = new ArrayList<>(ProgressRepository.coalesce(events));
+
+        // Then: одно изменение на (пользователь, курс), последний урок — по времени события
+        assertEquals(2, deltas.size());
+        assertEquals(3, deltas.get(0).completedLessons());
+        assertEquals(102, deltas.get(0).lastLessonId());
+        assertEquals(1, deltas.get(1).completedLessons());
+    }
+
+    private static ProgressEvent event(int userId, int courseId, int lessonId, long second) {
+        return new ProgressEvent(userId, courseId, lessonId, Instant.parse("2024-05-01T10:00:00Z").plusSeconds(second));
+    }
+}
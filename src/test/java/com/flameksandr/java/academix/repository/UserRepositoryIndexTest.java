@@ -0,0 +1,94 @@
+package com.flameksandr.java.academix.repository;
+
+import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.exception.DuplicateUserException;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserRepositoryIndexTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldStoreNormalizedIdentifiers() {
+        // When: регистр сбрасывается, полноширинные символы приводятся NFKC к ASCII
+        User user = userService.createUser(new UserDTO(null, "Ａlice_W", "Alice.W@Example.COM", "password123", "Alice W", null));
+
+        // Then
+        assertEquals("alice_w", user.getUsername());
+        assertEquals("alice.w@example.com", user.getEmail());
+        assertEquals(user.getId(), userService.getUserByEmail(" ALICE.W@example.com ").getId());
+        assertEquals(user.getId(), userService.getUserByUsername("Alice_W").getId());
+    }
+
+    @Test
+    void shouldRejectEmailDifferingOnlyInCase() {
+        // Given
+        userService.createUser(new UserDTO(null, "bob_one", "Bob@Example.com", "password123", "Bob One", null));
+
+        // When & Then
+        DuplicateUserException exception = assertThrows(DuplicateUserException.class,
+                () -> userService.createUser(new UserDTO(null, "bob_two", "bob@example.COM", "password123", "Bob Two", null)));
+        assertEquals(DuplicateUserException.Field.EMAIL, exception.getField());
+    }
+
+    @Test
+    void shouldIgnoreClientSuppliedIdOnCreate() {
+        // Given
+        User existing = userService.createUser(new UserDTO(null, "carol", "carol@example.com", "password123", "Carol C", null));
+
+        // When: клиент прислал id уже существующего пользователя
+        User created = userService.createUser(new UserDTO(existing.getId(), "dave", "dave@example.com", "password123", "Dave D", null));
+
+        // Then: создан новый пользователь, существующий не изменился
+        assertNotEquals(existing.getId(), created.getId());
+        assertEquals("carol", userRepository.findById(existing.getId()).orElseThrow().getUsername());
+        assertEquals(2, userRepository.count());
+    }
+
+    @Test
+    void shouldLookUpEmailByUniqueIndex() {
+        // When
+        String plan = explain("select u.id, u.email from users u where u.email = 'alice@example.com'");
+
+        // Then
+        assertTrue(plan.contains(User.EMAIL_CONSTRAINT), plan);
+        assertFalse(plan.contains("tablescan"), plan);
+    }
+
+    @Test
+    void shouldLookUpUsernameByUniqueIndex() {
+        // When
+        String plan = explain("select u.id from users u where u.username = 'alice' fetch first 1 rows only");
+
+        // Then
+        assertTrue(plan.contains(User.USERNAME_CONSTRAINT), plan);
+        assertFalse(plan.contains("tablescan"), plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,62 @@
+package com.flameksandr.java.academix.repository;
+
+import com.flameksandr.java.academix.exception.DuplicateUserException;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsersSequenceMigrationTest {
+
+    // Схема, которую Hibernate 6.6 (PostgreSQLDialect, ddl-auto=update) создавал для User до перехода на Flyway:
+    // IDENTITY вместо users_seq, нет version, имена уникальных ограничений выбирает СУБД
+    private static final String LEGACY_SCHEMA = """
+            create table users (id integer generated by default as identity, created_at timestamp(6) not null,
+            updated_at timestamp(6) not null, username varchar(20) not null unique, full_name varchar(100) not null,
+            email varchar(255) not null unique, password varchar(255) not null,
+            role varchar(255) check (role in ('STUDENT','TEACHER','ADMIN')), primary key (id))""";
+
+    @Test
+    void shouldConvertSchemaCreatedByHibernate() {
+        // Given: база создана ddl-auto=update, часть id выдана IDENTITY, часть вставлена явно
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:pre-flyway;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(LEGACY_SCHEMA);
+        jdbcTemplate.update("""
+                insert into users (username, email, password, full_name, role, created_at, updated_at)
+                values ('first', 'first@example.com', 'hash', 'First User', 'STUDENT', now(), now())""");
+        jdbcTemplate.update("""
+                insert into users (id, username, email, password, full_name, role, created_at, updated_at)
+                values (1000, 'legacy', 'legacy@example.com', 'hash', 'Legacy User', 'STUDENT', now(), now())""");
+
+        // When: первый запуск с Flyway принимает базу как версию 1 и применяет остальные миграции
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+        flyway.migrate();
+
+        // Then: следующий блок Hibernate (значение - 49 .. значение) начинается после max(id)
+        Long next = jdbcTemplate.queryForObject("select nextval('users_seq')", Long.class);
+        assertTrue(next - 49 > 1000, "next block starts at " + (next - 49));
+        assertEquals(0, flyway.info().pending().length);
+
+        // Then: у существующих строк есть версия, ограничения называются так, как их ищет DuplicateUserException
+        assertEquals(List.of(0L), jdbcTemplate.queryForList("select distinct version from users", Long.class));
+        assertEquals(List.of("uk_users_email", "uk_users_username"), jdbcTemplate.queryForList("""
+                select lower(constraint_name) from information_schema.table_constraints
+                where lower(table_name) = 'users' and constraint_type = 'UNIQUE' order by 1""", String.class));
+        DataIntegrityViolationException duplicate = assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update("""
+                insert into users (id, username, email, password, full_name, role, created_at, updated_at, version)
+                values (?, 'other', 'legacy@example.com', 'hash', 'Other User', 'STUDENT', now(), now(), 0)""", next));
+        assertEquals(DuplicateUserException.Field.EMAIL, DuplicateUserException.from(duplicate).orElseThrow().getField());
+    }
+}
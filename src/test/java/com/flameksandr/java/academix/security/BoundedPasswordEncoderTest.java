@@ -0,0 +1,72 @@
+package com.flameksandr.java.academix.security;
+
+import com.flameksandr.java.academix.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    void shouldEncodeAndMatchOnHashingPool() {
+        // Given
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, meterRegistry);
+
+        // When
+        String hash = encoder.encode("password123");
+
+        // Then
+        assertTrue(encoder.matches("password123", hash));
+        assertFalse(encoder.matches("wrong-password", hash));
+        assertEquals(3, meterRegistry.get("academix.password.hash").timer().count());
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        // Given: один рабочий поток, занятый "медленным" хешем, и очередь на одну задачу
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        encoder = new BoundedPasswordEncoder(slowEncoder, 1, 1, meterRegistry);
+
+        CompletableFuture<String> running = encoder.encodeAsync("first-password");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = encoder.encodeAsync("second-password");
+        assertEquals(1, encoder.getQueueDepth());
+
+        // When & Then
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("third-password"));
+        assertEquals(1.0, meterRegistry.get("academix.password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertNotNull(running.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+}
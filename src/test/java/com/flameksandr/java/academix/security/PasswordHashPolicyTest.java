@@ -0,0 +1,55 @@
+package com.flameksandr.java.academix.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashPolicyTest {
+
+    @Test
+    void shouldEncodeWithPrefixAndAcceptLegacyHashes() {
+        // Given
+        PasswordHashPolicy policy = new PasswordHashPolicy(5);
+        PasswordEncoder encoder = policy.createEncoder();
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password123");
+
+        // When
+        String hash = encoder.encode("password123");
+
+        // Then
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("password123", hash));
+        assertTrue(encoder.matches("password123", legacyHash));
+        assertFalse(encoder.upgradeEncoding(hash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void shouldUpgradeOnlyLowerCost() {
+        // Given: узлы с разным откалиброванным cost
+        PasswordHashPolicy policy = new PasswordHashPolicy(5);
+        String weakerHash = new PasswordHashPolicy(4).createEncoder().encode("password123");
+        String strongerHash = new PasswordHashPolicy(6).createEncoder().encode("password123");
+
+        // When & Then: хеш более сильного узла не понижается, более слабого — пересчитывается
+        assertFalse(policy.isOutdated(strongerHash));
+        assertFalse(policy.createEncoder().upgradeEncoding(strongerHash));
+        assertTrue(policy.isOutdated(weakerHash));
+        assertTrue(policy.isOutdated("{bcrypt}garbage"));
+    }
+
+    @Test
+    void shouldCalibrateWithinBounds() {
+        // When
+        PasswordHashPolicy tiny = PasswordHashPolicy.calibrate(Duration.ofNanos(1), 4, 12);
+        PasswordHashPolicy huge = PasswordHashPolicy.calibrate(Duration.ofDays(1), 4, 6);
+
+        // Then
+        assertEquals(4, tiny.getStrength());
+        assertEquals(6, huge.getStrength());
+    }
+}
@@ -0,0 +1,66 @@
+package com.flameksandr.java.academix.security;
+
+import com.flameksandr.java.academix.config.AuthProperties;
+import com.flameksandr.java.academix.exception.InvalidTokenException;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final User user = new User(7, "john|doe", "john@example.com", "hash", "John Doe", Role.TEACHER, null, null, 0L, null);
+
+    @Test
+    void shouldRoundTripClaims() {
+        // Given
+        TokenService tokenService = tokenService(NOW);
+
+        // When
+        TokenClaims claims = tokenService.verify(tokenService.issue(user));
+
+        // Then
+        assertEquals(7, claims.getUserId());
+        assertEquals("john|doe", claims.getUsername());
+        assertEquals(Role.TEACHER, claims.getRole());
+        assertEquals(NOW.plus(Duration.ofMinutes(15)), claims.getExpiresAt());
+    }
+
+    @Test
+    void shouldRejectTamperedToken() {
+        // Given
+        TokenService tokenService = tokenService(NOW);
+        String token = tokenService.issue(user);
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("7|ADMIN|" + NOW.plusSeconds(900).getEpochSecond() + "|john|doe").getBytes());
+
+        // When & Then
+        assertThrows(InvalidTokenException.class, () -> tokenService.verify(forgedPayload + token.substring(token.indexOf('.'))));
+        assertThrows(InvalidTokenException.class, () -> tokenService.verify("not-a-token"));
+        assertThrows(InvalidTokenException.class, () -> tokenService.verify(null));
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        // Given
+        String token = tokenService(NOW).issue(user);
+
+        // When & Then
+        assertThrows(InvalidTokenException.class, () -> tokenService(NOW.plus(Duration.ofMinutes(16))).verify(token));
+    }
+
+    private static TokenService tokenService(Instant now) {
+        AuthProperties properties = new AuthProperties();
+        properties.setSecret(Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes()));
+        return new TokenService(properties, Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
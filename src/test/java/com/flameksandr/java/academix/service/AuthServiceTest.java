@@ -0,0 +1,139 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.cache.CacheInvalidationBus;
+import com.flameksandr.java.academix.config.AuthProperties;
+import com.flameksandr.java.academix.config.UserCacheProperties;
+import com.flameksandr.java.academix.dto.LoginRequestDTO;
+import com.flameksandr.java.academix.dto.TokenResponseDTO;
+import com.flameksandr.java.academix.exception.InvalidCredentialsException;
+import com.flameksandr.java.academix.exception.RateLimitExceededException;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserRepository;
+import com.flameksandr.java.academix.security.PasswordHashPolicy;
+import com.flameksandr.java.academix.security.TokenClaims;
+import com.flameksandr.java.academix.security.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AuthServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CacheInvalidationBus cacheInvalidationBus = mock(CacheInvalidationBus.class);
+    private final PasswordEncoder passwordEncoder = spy(new PasswordHashPolicy(4).createEncoder());
+    private AuthService authService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        AuthProperties properties = new AuthProperties();
+        properties.setPerUser(new AuthProperties.Limit(2, Duration.ofMinutes(1)));
+        authService = new AuthService(userRepository, new UserCache(new UserCacheProperties(), new SimpleMeterRegistry()),
+                cacheInvalidationBus, passwordEncoder, new TokenService(properties), properties, mock(PlatformTransactionManager.class));
+        user = new User(7, "john_doe", "john@example.com", passwordEncoder.encode("password123"), "John Doe", Role.STUDENT, null, null, 0L, null);
+    }
+
+    @Test
+    void shouldIssueTokenForValidCredentials() {
+        // Given
+        when(userRepository.findByUsername("john_doe")).thenReturn(Optional.of(user));
+
+        // When
+        TokenResponseDTO response = authService.login(new LoginRequestDTO("john_doe", "password123"), "10.0.0.1");
+
+        // Then: токен проверяется без обращения к репозиторию
+        clearInvocations(userRepository);
+        TokenClaims claims = authService.authenticate("Bearer " + response.getAccessToken());
+        assertEquals(7, claims.getUserId());
+        assertEquals("john_doe", claims.getUsername());
+        assertEquals(Role.STUDENT, claims.getRole());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldIssueTokenForUserWithoutRole() {
+        // Given
+        user.setRole(null);
+        when(userRepository.findByUsername("john_doe")).thenReturn(Optional.of(user));
+
+        // When
+        TokenResponseDTO response = authService.login(new LoginRequestDTO("john_doe", "password123"), "10.0.0.1");
+
+        // Then
+        TokenClaims claims = authService.authenticate("Bearer " + response.getAccessToken());
+        assertEquals(7, claims.getUserId());
+        assertNull(claims.getRole());
+    }
+
+    @Test
+    void shouldVerifyDummyHashForUnknownUser() {
+        // Given
+        when(userRepository.findByEmail("ghost@example.com")).thenReturn(Optional.empty());
+        clearInvocations(passwordEncoder);
+
+        // When & Then: bcrypt выполняется и для несуществующего логина
+        assertThrows(InvalidCredentialsException.class,
+                () -> authService.login(new LoginRequestDTO("ghost@example.com", "password123"), "10.0.0.1"));
+        verify(passwordEncoder).matches(eq("password123"), anyString());
+    }
+
+    @Test
+    void shouldRateLimitBeforeHashing() {
+        // Given
+        when(userRepository.findByUsername("john_doe")).thenReturn(Optional.of(user));
+        LoginRequestDTO wrongPassword = new LoginRequestDTO("john_doe", "wrong-password");
+        assertThrows(InvalidCredentialsException.class, () -> authService.login(wrongPassword, "10.0.0.1"));
+        assertThrows(InvalidCredentialsException.class, () -> authService.login(wrongPassword, "10.0.0.2"));
+        clearInvocations(passwordEncoder);
+
+        // When: лимит на логин исчерпан, даже с другого адреса и с верным паролем
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> authService.login(new LoginRequestDTO("John_Doe", "password123"), "10.0.0.3"));
+
+        // Then
+        assertTrue(e.getRetryAfter().compareTo(Duration.ZERO) > 0);
+        verify(passwordEncoder, never()).matches(any(), any());
+    }
+
+    @Test
+    void shouldRehashOutdatedPasswordOnLogin() {
+        // Given: хеш без префикса и с другим cost
+        String legacyHash = new PasswordHashPolicy(5).createEncoder().encode("password123").substring("{bcrypt}".length());
+        user.setPassword(legacyHash);
+        when(userRepository.findByUsername("john_doe")).thenReturn(Optional.of(user));
+        when(userRepository.replacePasswordHash(eq(7), eq(legacyHash), anyString())).thenReturn(1);
+
+        // When
+        authService.login(new LoginRequestDTO("john_doe", "password123"), "10.0.0.1");
+
+        // Then
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).replacePasswordHash(eq(7), eq(legacyHash), newHash.capture());
+        assertTrue(newHash.getValue().startsWith("{bcrypt}$2a$04$"));
+        assertTrue(passwordEncoder.matches("password123", newHash.getValue()));
+        verify(cacheInvalidationBus).publish(7);
+    }
+
+    @Test
+    void shouldNotRehashCurrentPassword() {
+        // Given
+        when(userRepository.findByUsername("john_doe")).thenReturn(Optional.of(user));
+
+        // When
+        authService.login(new LoginRequestDTO("john_doe", "password123"), "10.0.0.1");
+
+        // Then
+        verify(userRepository, never()).replacePasswordHash(any(), any(), any());
+    }
+}
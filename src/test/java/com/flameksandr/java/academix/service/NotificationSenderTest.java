@@ -0,0 +1,158 @@
+package com.flameksandr.java.academix.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flameksandr.java.academix.config.NotificationProperties;
+import com.flameksandr.java.academix.config.TelegramProperties;
+import com.flameksandr.java.academix.telegram.HttpTelegramClient;
+import com.flameksandr.java.academix.telegram.TelegramStubServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationSenderTest {
+
+    private static TelegramStubServer stubServer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationSender sender;
+
+    @BeforeAll
+    static void startStub() throws IOException {
+        stubServer = new TelegramStubServer();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stubServer.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stubServer.reset();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.close();
+    }
+
+    @Test
+    void shouldRetryTransientFailuresAndGiveUpOnRejectedChats() {
+        // Given
+        sender = sender(new NotificationProperties.Limit(1000, Duration.ofSeconds(1)), new NotificationProperties.Limit(100, Duration.ofSeconds(1)));
+        stubServer.failTransiently(1, 2);
+        stubServer.block(2);
+        stubServer.failTransiently(3, 10);
+
+        // When
+        boolean retried = sender.send(1, "text").join();
+        boolean blocked = sender.send(2, "text").join();
+        boolean exhausted = sender.send(3, "text").join();
+
+        // Then: временные сбои повторены до успеха, 403 не повторяется, попытки ограничены
+        assertTrue(retried);
+        assertFalse(blocked);
+        assertFalse(exhausted);
+        assertEquals(1, stubServer.getDelivered(1).size());
+        assertEquals(3 + 1 + 5, stubServer.getRequests());
+        assertEquals(1, meterRegistry.get("academix.notification.messages").tag("result", "sent").counter().count());
+        assertEquals(2, meterRegistry.get("academix.notification.messages").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void shouldStayWithinGlobalLimit() {
+        // Given: заглушка отвечает 429 сверх 20 сообщений в секунду; корзина клиента — 5 сразу и 10 в секунду,
+        // то есть не больше 15 сообщений в любом окне в секунду
+        sender = sender(new NotificationProperties.Limit(5, Duration.ofMillis(500)), new NotificationProperties.Limit(1, Duration.ofSeconds(1)));
+        stubServer.limitMessagesPerSecond(20);
+        long started = System.nanoTime();
+
+        // When
+        List<CompletableFuture<Boolean>> results = LongStream.rangeClosed(1, 30).mapToObj(chatId -> sender.send(chatId, "text")).toList();
+        results.forEach(CompletableFuture::join);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        // Then: 5 сразу и остальные 25 по одному в 100 мс, без отказов Telegram
+        assertTrue(results.stream().allMatch(CompletableFuture::join));
+        assertEquals(30, stubServer.getDelivered().size());
+        assertEquals(0, stubServer.getThrottled());
+        assertTrue(elapsed.compareTo(Duration.ofMillis(2300)) >= 0, "elapsed " + elapsed);
+    }
+
+    @Test
+    void shouldPauseAllSendsWhenTelegramAsksToRetryLater() {
+        // Given: лимит клиента выше, чем у заглушки, — часть запросов получит 429 с retry_after
+        sender = sender(new NotificationProperties.Limit(1000, Duration.ofSeconds(1)), new NotificationProperties.Limit(100, Duration.ofSeconds(1)));
+        stubServer.limitMessagesPerSecond(5);
+
+        // When
+        List<CompletableFuture<Boolean>> results = LongStream.rangeClosed(1, 10).mapToObj(chatId -> sender.send(chatId, "text")).toList();
+        results.forEach(CompletableFuture::join);
+
+        // Then
+        assertTrue(results.stream().allMatch(CompletableFuture::join));
+        assertEquals(10, stubServer.getDelivered().size());
+        assertTrue(stubServer.getThrottled() > 0);
+    }
+
+    @Test
+    void shouldSpaceMessagesToOneChat() {
+        // Given
+        sender = sender(new NotificationProperties.Limit(1000, Duration.ofSeconds(1)), new NotificationProperties.Limit(1, Duration.ofMillis(200)));
+
+        // When
+        List<CompletableFuture<Boolean>> results = List.of(sender.send(7, "a"), sender.send(7, "b"), sender.send(7, "c"));
+        results.forEach(CompletableFuture::join);
+
+        // Then
+        List<TelegramStubServer.Message> delivered = stubServer.getDelivered(7);
+        assertEquals(3, delivered.size());
+        long first = delivered.stream().mapToLong(TelegramStubServer.Message::deliveredAtNanos).min().orElseThrow();
+        long last = delivered.stream().mapToLong(TelegramStubServer.Message::deliveredAtNanos).max().orElseThrow();
+        assertTrue(Duration.ofNanos(last - first).compareTo(Duration.ofMillis(350)) >= 0);
+    }
+
+    @Test
+    void shouldNotSpendGlobalTokenOnMessageWaitingForItsChat() {
+        // Given: в общей корзине два токена, следующий — через 2 с
+        sender = sender(new NotificationProperties.Limit(2, Duration.ofSeconds(4)), new NotificationProperties.Limit(1, Duration.ofSeconds(1)));
+        long started = System.nanoTime();
+
+        // When: второе сообщение в чат 7 ждет токен чата
+        List<CompletableFuture<Boolean>> sameChat = List.of(sender.send(7, "a"), sender.send(7, "b"));
+        boolean otherChat = sender.send(8, "c").join();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        sameChat.forEach(CompletableFuture::join);
+
+        // Then: второй общий токен достался чату 8, а не отложенному сообщению
+        assertTrue(otherChat);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(1)) < 0, "elapsed " + elapsed);
+        assertEquals(2, stubServer.getDelivered(7).size());
+    }
+
+    private NotificationSender sender(NotificationProperties.Limit global, NotificationProperties.Limit perChat) {
+        NotificationProperties properties = new NotificationProperties();
+        properties.setGlobal(global);
+        properties.setPerChat(perChat);
+        properties.setSenderThreads(4);
+        properties.setInitialBackoff(Duration.ofMillis(10));
+        properties.setMaxBackoff(Duration.ofMillis(50));
+
+        TelegramProperties telegramProperties = new TelegramProperties();
+        telegramProperties.setApiUrl(stubServer.getUri());
+        telegramProperties.setBotToken("123:test");
+        return new NotificationSender(new HttpTelegramClient(telegramProperties, new ObjectMapper()), properties, meterRegistry);
+    }
+}
@@ -0,0 +1,240 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.dto.NotificationCampaignDTO;
+import com.flameksandr.java.academix.dto.NotificationRequestDTO;
+import com.flameksandr.java.academix.exception.NotificationNotFoundException;
+import com.flameksandr.java.academix.model.NotificationCampaign;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.NotificationRepository;
+import com.flameksandr.java.academix.repository.UserRepository;
+import com.flameksandr.java.academix.telegram.TelegramStubServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Короткая аренда: страница под лимитом 429 отправляется дольше нее
+@SpringBootTest(properties = "academix.notification.lease=300ms")
+class NotificationServiceTest {
+
+    private static final TelegramStubServer stubServer = startStub();
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationDispatcher dispatcher;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<User> students;
+
+    @DynamicPropertySource
+    static void telegramProperties(DynamicPropertyRegistry registry) {
+        registry.add("academix.telegram.api-url", () -> stubServer.getUri().toString());
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stubServer.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stubServer.reset();
+        // Given: пять студентов с Telegram, студент без Telegram и преподаватель
+        students = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            students.add(userRepository.save(user("student" + i, Role.STUDENT, 1000L + i)));
+        }
+        userRepository.save(user("offline", Role.STUDENT, null));
+        userRepository.save(user("teacher", Role.TEACHER, 2000L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from notification_campaigns");
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldSendCampaignToEveryRecipientOfRoleOnce() {
+        // When
+        NotificationCampaignDTO created = notificationService.createCampaign(new NotificationRequestDTO(Role.STUDENT, "Новый курс!"));
+        dispatcher.dispatch();
+        NotificationCampaignDTO campaign = notificationService.getCampaign(created.getId());
+
+        // Then
+        assertEquals(NotificationCampaign.Status.COMPLETED, campaign.getStatus());
+        assertEquals(5, campaign.getSent());
+        assertEquals(students.get(4).getId(), campaign.getCursorUserId());
+        assertEquals(5, stubServer.getDelivered().size());
+        for (User student : students) {
+            assertEquals(List.of("Новый курс!"), stubServer.getDelivered(student.getTelegramChatId()).stream()
+                    .map(TelegramStubServer.Message::text).toList());
+        }
+        assertTrue(stubServer.getDelivered(2000L).isEmpty());
+    }
+
+    @Test
+    void shouldResumeFromCursorAfterRestart() {
+        // Given: узел упал, отправив первые две страницы; его аренда истекла
+        long id = notificationRepository.create(Role.STUDENT, "Напоминание", Instant.now());
+        notificationRepository.claimNext("crashed-node", Instant.now(), Instant.now().plus(Duration.ofMinutes(1)));
+        notificationRepository.advance(id, "crashed-node", students.get(3).getId(), 4, 0, Instant.now().minusSeconds(1));
+
+        // When
+        dispatcher.dispatch();
+
+        // Then: отправлено только оставшимся
+        NotificationCampaignDTO campaign = notificationService.getCampaign(id);
+        assertEquals(NotificationCampaign.Status.COMPLETED, campaign.getStatus());
+        assertEquals(5, campaign.getSent());
+        assertEquals(1, stubServer.getDelivered().size());
+        assertEquals(1, stubServer.getDelivered(students.get(4).getTelegramChatId()).size());
+    }
+
+    @Test
+    void shouldNotTakeOverCampaignLeasedByAnotherNode() {
+        // Given
+        long id = notificationRepository.create(null, "Всем", Instant.now());
+        notificationRepository.claimNext("other-node", Instant.now(), Instant.now().plus(Duration.ofMinutes(1)));
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        assertEquals(NotificationCampaign.Status.RUNNING, notificationService.getCampaign(id).getStatus());
+        assertTrue(stubServer.getDelivered().isEmpty());
+    }
+
+    @Test
+    void shouldNotStartAnotherCampaignWhileOneIsSentByAnotherNode() {
+        // Given: другой узел отправляет старую рассылку, новая свободна
+        long leased = notificationRepository.create(Role.TEACHER, "Преподавателям", Instant.now());
+        notificationRepository.claimNext("other-node", Instant.now(), Instant.now().plus(Duration.ofMinutes(1)));
+        long waiting = notificationRepository.create(Role.STUDENT, "Студентам", Instant.now());
+
+        // When
+        dispatcher.dispatch();
+
+        // Then: вторая рассылка ждет, иначе два узла вместе превысили бы лимит бота
+        assertEquals(NotificationCampaign.Status.RUNNING, notificationService.getCampaign(leased).getStatus());
+        assertEquals(NotificationCampaign.Status.RUNNING, notificationService.getCampaign(waiting).getStatus());
+        assertTrue(stubServer.getDelivered().isEmpty());
+    }
+
+    @Test
+    void shouldKeepLeaseWhilePageIsSentLongerThanLease() throws Exception {
+        // Given: Telegram пропускает одно сообщение в секунду, страница из двух сообщений дольше аренды
+        stubServer.limitMessagesPerSecond(1);
+        long id = notificationRepository.create(Role.STUDENT, "Медленно", Instant.now());
+
+        // When
+        CompletableFuture<Void> dispatching = CompletableFuture.runAsync(dispatcher::dispatch);
+        while (stubServer.getDelivered().isEmpty()) {
+            Thread.sleep(10);
+        }
+        while (!dispatching.isDone()) {
+            // Then: другой узел не может забрать рассылку, пока страница отправляется
+            assertTrue(notificationRepository.claimNext("other-node", Instant.now(), Instant.now().plusSeconds(60)).isEmpty());
+            Thread.sleep(50);
+        }
+        dispatching.get(30, TimeUnit.SECONDS);
+
+        // Then: каждый получил сообщение один раз
+        assertEquals(NotificationCampaign.Status.COMPLETED, notificationService.getCampaign(id).getStatus());
+        for (User student : students) {
+            assertEquals(1, stubServer.getDelivered(student.getTelegramChatId()).size());
+        }
+    }
+
+    @Test
+    void shouldCancelRestOfPageWhenLeaseIsTakenOver() throws Exception {
+        // Given: первое сообщение страницы ушло, второе ждет паузы 429
+        stubServer.limitMessagesPerSecond(1);
+        long id = notificationRepository.create(Role.STUDENT, "Один раз", Instant.now());
+        CompletableFuture<Void> dispatching = CompletableFuture.runAsync(dispatcher::dispatch);
+        while (stubServer.getDelivered().isEmpty()) {
+            Thread.sleep(10);
+        }
+
+        // When: аренду забирает другой узел
+        jdbcTemplate.update("update notification_campaigns set lease_owner = 'other-node', lease_until = ? where id = ?",
+                Timestamp.from(Instant.now().plusSeconds(60)), id);
+        dispatching.get(30, TimeUnit.SECONDS);
+
+        // Then: остаток страницы не отправлен, курсор не сдвинут — страницу продолжит новый владелец
+        Thread.sleep(1500);
+        assertEquals(1, stubServer.getDelivered().size());
+        NotificationCampaignDTO campaign = notificationService.getCampaign(id);
+        assertEquals(0, campaign.getCursorUserId());
+        assertEquals(0, campaign.getSent());
+    }
+
+    @Test
+    void shouldCountUndeliveredMessages() {
+        // Given
+        stubServer.block(students.get(0).getTelegramChatId());
+
+        // When
+        NotificationCampaignDTO created = notificationService.createCampaign(new NotificationRequestDTO(null, "Всем"));
+        dispatcher.dispatch();
+        NotificationCampaignDTO campaign = notificationService.getCampaign(created.getId());
+
+        // Then: рассылка без роли доходит и до преподавателя
+        assertEquals(5, campaign.getSent());
+        assertEquals(1, campaign.getFailed());
+        assertEquals(1, stubServer.getDelivered(2000L).size());
+    }
+
+    @Test
+    void shouldThrowWhenCampaignDoesNotExist() {
+        // When & Then
+        assertThrows(NotificationNotFoundException.class, () -> notificationService.getCampaign(Long.MAX_VALUE));
+    }
+
+    private static User user(String username, Role role, Long chatId) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password-hash");
+        user.setFullName("Notification " + username);
+        user.setRole(role);
+        user.setTelegramChatId(chatId);
+        return user;
+    }
+
+    private static TelegramStubServer startStub() {
+        try {
+            return new TelegramStubServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserRepository;
+import com.flameksandr.java.academix.security.PasswordHashPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PasswordHashAuditJobTest {
+
+    @Autowired
+    private PasswordHashAuditJob passwordHashAuditJob;
+
+    @Autowired
+    private PasswordHashPolicy policy;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldCountOnlyHashesThatLoginWouldRehash() {
+        // Given: cost узла — 04; хеш с cost 10 записан другим узлом
+        List<String> hashes = List.of(
+                "$2a$10$unprefixed-legacy-hash",
+                "{bcrypt}$2a$03$lower-cost-hash",
+                "{bcrypt}$2a$x4$unparsable-cost",
+                "{bcrypt}$2a$04$current-cost-hash",
+                "{bcrypt}$2b$10$higher-cost-hash");
+        for (int i = 0; i < hashes.size(); i++) {
+            userRepository.save(new User(null, "audit_" + i, "audit" + i + "@example.com", hashes.get(i), "Audit User", Role.STUDENT, null, null, null, null));
+        }
+
+        // When
+        long outdated = passwordHashAuditJob.audit();
+
+        // Then: аудит согласован с тем, что пересчитает вход
+        assertEquals(4, policy.getStrength());
+        assertEquals(hashes.stream().filter(policy::isOutdated).count(), outdated);
+        assertEquals(3, outdated);
+    }
+}
@@ -0,0 +1,77 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.model.ProgressEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgressEventLogTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldReplayEventsAfterCheckpoint() {
+        // Given
+        List<ProgressEventLog.Entry> entries;
+        try (ProgressEventLog eventLog = new ProgressEventLog(directory)) {
+            entries = eventLog.append(List.of(event(1, 10, 100), event(1, 10, 101), event(2, 20, 200)));
+            eventLog.checkpoint(entries.get(0).endOffset());
+        }
+
+        // When: журнал открыт заново, как после рестарта
+        try (ProgressEventLog reopened = new ProgressEventLog(directory)) {
+            List<ProgressEventLog.Entry> replayed = reopened.readUncommitted();
+
+            // Then
+            assertEquals(2, replayed.size());
+            assertEquals(101, replayed.get(0).event().getLessonId());
+            assertEquals(2, replayed.get(1).event().getUserId());
+            assertEquals(entries.get(2).endOffset(), replayed.get(1).endOffset());
+        }
+    }
+
+    @Test
+    void shouldTruncateWhenEverythingIsCheckpointed() {
+        try (ProgressEventLog eventLog = new ProgressEventLog(directory)) {
+            // Given
+            List<ProgressEventLog.Entry> entries = eventLog.append(List.of(event(1, 10, 100), event(1, 10, 101)));
+
+            // When
+            eventLog.checkpoint(entries.get(1).endOffset());
+
+            // Then
+            assertEquals(0, eventLog.size());
+            assertTrue(eventLog.readUncommitted().isEmpty());
+        }
+    }
+
+    @Test
+    void shouldDiscardPartiallyWrittenLine() throws Exception {
+        // Given: последняя строка оборвана на середине
+        try (ProgressEventLog eventLog = new ProgressEventLog(directory)) {
+            eventLog.append(List.of(event(1, 10, 100)));
+        }
+        Files.writeString(directory.resolve("progress-events.log"), "2,20,2", StandardOpenOption.APPEND);
+
+        // When
+        try (ProgressEventLog reopened = new ProgressEventLog(directory)) {
+            List<ProgressEventLog.Entry> replayed = reopened.readUncommitted();
+
+            // Then
+            assertEquals(1, replayed.size());
+            assertEquals(replayed.get(0).endOffset(), reopened.size());
+        }
+    }
+
+    private static ProgressEvent event(int userId, int courseId, int lessonId) {
+        return new ProgressEvent(userId, courseId, lessonId, Instant.parse("2024-05-01T10:00:00Z").plusSeconds(lessonId));
+    }
+}
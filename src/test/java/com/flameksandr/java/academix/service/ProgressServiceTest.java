@@ -0,0 +1,105 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.dto.ProgressAcceptedDTO;
+import com.flameksandr.java.academix.dto.ProgressEventDTO;
+import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.dto.UserProgressDTO;
+import com.flameksandr.java.academix.exception.InvalidRequestException;
+import com.flameksandr.java.academix.exception.UserNotFoundException;
+import com.flameksandr.java.academix.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProgressServiceTest {
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Autowired
+    private ProgressWriteBehind progressWriteBehind;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldAggregateProgressPerCourse() {
+        // Given
+        Integer userId = userService.createUser(new UserDTO(null, "student", "student@example.com", "password123", "Student", null)).getId();
+        Instant start = Instant.parse("2024-05-01T10:00:00Z");
+
+        // When: два запроса, события одного курса склеиваются при записи
+        ProgressAcceptedDTO accepted = progressService.acceptEvents(List.of(
+                new ProgressEventDTO(userId, 1, 11, start),
+                new ProgressEventDTO(userId, 1, 13, start.plusSeconds(20)),
+                new ProgressEventDTO(userId, 2, 21, start)));
+        progressService.acceptEvents(List.of(new ProgressEventDTO(userId, 1, 12, start.plusSeconds(10))));
+        assertTrue(progressWriteBehind.flush());
+        UserProgressDTO progress = progressService.getUserProgress(userId);
+
+        // Then
+        assertEquals(3, accepted.getAccepted());
+        assertFalse(accepted.isDurable());
+        assertEquals(2, progress.getCoursesStarted());
+        assertEquals(4, progress.getLessonsCompleted());
+        assertEquals(3, progress.getCourses().get(0).getCompletedLessons());
+        assertEquals(13, progress.getCourses().get(0).getLastLessonId());
+    }
+
+    @Test
+    void shouldCountEachLessonOnceWhenEventsAreReplayed() {
+        // Given: урок 11 уже учтен
+        Integer userId = userService.createUser(new UserDTO(null, "replayer", "replayer@example.com", "password123", "Replayer", null)).getId();
+        Instant start = Instant.parse("2024-05-01T10:00:00Z");
+        progressService.acceptEvents(List.of(new ProgressEventDTO(userId, 1, 11, start)));
+        assertTrue(progressWriteBehind.flush());
+
+        // When: клиент переотправляет запрос, а в новой пачке урок 12 приходит дважды
+        progressService.acceptEvents(List.of(new ProgressEventDTO(userId, 1, 11, start)));
+        progressService.acceptEvents(List.of(
+                new ProgressEventDTO(userId, 1, 12, start.plusSeconds(10)),
+                new ProgressEventDTO(userId, 1, 12, start.plusSeconds(20))));
+        assertTrue(progressWriteBehind.flush());
+        UserProgressDTO progress = progressService.getUserProgress(userId);
+
+        // Then
+        assertEquals(2, progress.getLessonsCompleted());
+        assertEquals(12, progress.getCourses().get(0).getLastLessonId());
+    }
+
+    @Test
+    void shouldDropEventsOfMissingUserWithoutLosingOthers() {
+        // Given
+        Integer userId = userService.createUser(new UserDTO(null, "learner", "learner@example.com", "password123", "Learner", null)).getId();
+
+        // When
+        progressService.acceptEvents(List.of(new ProgressEventDTO(userId, 1, 11, null), new ProgressEventDTO(999_999, 1, 11, null)));
+        assertTrue(progressWriteBehind.flush());
+
+        // Then
+        assertEquals(1, progressService.getUserProgress(userId).getLessonsCompleted());
+        assertThrows(UserNotFoundException.class, () -> progressService.getUserProgress(999_999));
+    }
+
+    @Test
+    void shouldRejectInvalidEvents() {
+        // When & Then
+        assertThrows(InvalidRequestException.class, () -> progressService.acceptEvents(List.of()));
+        assertThrows(InvalidRequestException.class, () -> progressService.acceptEvents(List.of(new ProgressEventDTO(1, null, 11, null))));
+    }
+}
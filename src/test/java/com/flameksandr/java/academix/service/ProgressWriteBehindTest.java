@@ -0,0 +1,98 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.config.ProgressProperties;
+import com.flameksandr.java.academix.exception.ProgressQueueFullException;
+import com.flameksandr.java.academix.model.ProgressEvent;
+import com.flameksandr.java.academix.repository.ProgressRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProgressWriteBehindTest {
+
+    @TempDir
+    private Path directory;
+
+    private final ProgressRepository progressRepository = mock(ProgressRepository.class);
+
+    @Test
+    void shouldRejectWhenQueueIsFull() {
+        // Given
+        ProgressWriteBehind writeBehind = new ProgressWriteBehind(progressRepository, properties(ProgressProperties.Durability.MEMORY, 2),
+                new SimpleMeterRegistry());
+        writeBehind.submit(List.of(event(1, 10, 100, 1)));
+
+        // When & Then: пачка не помещается целиком — не принимается ни одно событие
+        assertThrows(ProgressQueueFullException.class, () -> writeBehind.submit(List.of(event(1, 10, 101, 2), event(1, 10, 102, 3))));
+        assertEquals(1, writeBehind.getQueueDepth());
+    }
+
+    @Test
+    void shouldKeepBatchAfterDatabaseFailure() {
+        // Given
+        ProgressWriteBehind writeBehind = new ProgressWriteBehind(progressRepository, properties(ProgressProperties.Durability.MEMORY, 10),
+                new SimpleMeterRegistry());
+        writeBehind.submit(List.of(event(1, 10, 100, 1)));
+        doThrow(new org.springframework.dao.QueryTimeoutException("timeout")).doReturn(1).when(progressRepository).apply(anyList());
+
+        // When
+        boolean firstAttempt = writeBehind.flush();
+        boolean secondAttempt = writeBehind.flush();
+
+        // Then
+        assertFalse(firstAttempt);
+        assertTrue(secondAttempt);
+        verify(progressRepository, times(2)).apply(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReplayUnwrittenEventsFromLogAfterRestart() {
+        // Given: события подтверждены в режиме FSYNC, но узел упал до записи в БД
+        ProgressProperties properties = properties(ProgressProperties.Durability.FSYNC, 10);
+        ProgressWriteBehind crashed = new ProgressWriteBehind(progressRepository, properties, new SimpleMeterRegistry());
+        crashed.start();
+        crashed.submit(List.of(event(1, 10, 100, 1), event(1, 10, 101, 2)));
+        assertTrue(crashed.isDurable());
+
+        // When
+        ProgressWriteBehind restarted = new ProgressWriteBehind(progressRepository, properties, new SimpleMeterRegistry());
+        restarted.start();
+        restarted.flush();
+
+        // Then
+        ArgumentCaptor<List<ProgressEvent>> written = ArgumentCaptor.forClass(List.class);
+        verify(progressRepository).apply(written.capture());
+        assertEquals(List.of(100, 101), written.getValue().stream().map(ProgressEvent::getLessonId).toList());
+
+        restarted.stop();
+        ProgressWriteBehind afterCleanShutdown = new ProgressWriteBehind(progressRepository, properties, new SimpleMeterRegistry());
+        afterCleanShutdown.start();
+        assertTrue(afterCleanShutdown.flush());
+        verify(progressRepository, times(1)).apply(anyList());
+        afterCleanShutdown.stop();
+    }
+
+    private ProgressProperties properties(ProgressProperties.Durability durability, int queueCapacity) {
+        ProgressProperties properties = new ProgressProperties();
+        properties.setDurability(durability);
+        properties.setLogDirectory(directory);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setFlushInterval(Duration.ofHours(1));
+        return properties;
+    }
+
+    private static ProgressEvent event(int userId, int courseId, int lessonId, long second) {
+        return new ProgressEvent(userId, courseId, lessonId, Instant.parse("2024-05-01T10:00:00Z").plusSeconds(second));
+    }
+}
@@ -0,0 +1,128 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.dto.AvailabilityDTO;
+import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserAvailabilityServiceTest {
+
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        userAvailabilityService.rebuild();
+    }
+
+    @Test
+    void shouldAnswerFreeValuesWithoutDatabase() {
+        // Given
+        userAvailabilityService.rebuild();
+        double databaseChecks = databaseChecks();
+
+        // When
+        AvailabilityDTO result = userAvailabilityService.check("free@example.com", "free_user");
+
+        // Then
+        assertTrue(result.getEmailAvailable());
+        assertTrue(result.getUsernameAvailable());
+        assertEquals(databaseChecks, databaseChecks());
+    }
+
+    @Test
+    void shouldReportCreatedUserAsTaken() {
+        // Given
+        userAvailabilityService.rebuild();
+
+        // When
+        userService.createUser(new UserDTO(null, "taken_user", "Taken@Example.com", "password123", "Taken User", null));
+        AvailabilityDTO result = userAvailabilityService.check("Taken@Example.com", "taken_user");
+
+        // Then
+        assertFalse(result.getEmailAvailable());
+        assertFalse(result.getUsernameAvailable());
+        assertNull(userAvailabilityService.check(null, "someone_else").getEmailAvailable());
+    }
+
+    @Test
+    void shouldIncludeImportedAndExistingUsersAfterRebuild() {
+        // Given
+        userImportService.importUsers(List.of(new UserDTO(null, "imported", "imported@example.com", "password123", "Imported", null)));
+
+        // When
+        userAvailabilityService.rebuild();
+
+        // Then
+        assertFalse(userAvailabilityService.check("imported@example.com", null).getEmailAvailable());
+        assertFalse(userAvailabilityService.check(null, "imported").getUsernameAvailable());
+    }
+
+    @Test
+    void shouldFreeDeletedValuesAfterRebuild() {
+        // Given
+        Integer id = userService.createUser(new UserDTO(null, "deleted_user", "deleted@example.com", "password123", "Deleted", null)).getId();
+        userService.deleteUser(id);
+
+        // When: до пересборки значение остается в фильтре, но БД подтверждает, что оно свободно
+        AvailabilityDTO beforeRebuild = userAvailabilityService.check("deleted@example.com", "deleted_user");
+        userAvailabilityService.rebuild();
+        double databaseChecks = databaseChecks();
+        AvailabilityDTO afterRebuild = userAvailabilityService.check("deleted@example.com", "deleted_user");
+
+        // Then
+        assertTrue(beforeRebuild.getEmailAvailable());
+        assertTrue(afterRebuild.getEmailAvailable());
+        assertTrue(afterRebuild.getUsernameAvailable());
+        assertTrue(databaseChecks() - databaseChecks <= 1);
+    }
+
+    private double databaseChecks() {
+        return meterRegistry.get("academix.availability.checks").tag("source", "database").counter().count();
+    }
+
+    @Test
+    void shouldLoadUsersChangedOnOtherNodesAsynchronously() throws Exception {
+        // Given: пользователь создан «на другом узле» — в БД он есть, в локальном фильтре нет
+        userAvailabilityService.rebuild();
+        User user = userRepository.save(new User(null, "remote_user", "remote@example.com", "password-hash", "Remote User",
+                Role.STUDENT, null, null, null, null));
+        assertTrue(userAvailabilityService.check("remote@example.com", null).getEmailAvailable());
+
+        // When: инвалидация с его id
+        userAvailabilityService.addByIdsAsync(Set.of(user.getId()));
+
+        // Then: значение появляется в фильтре после запроса в фоновом потоке
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (userAvailabilityService.check("remote@example.com", null).getEmailAvailable() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(userAvailabilityService.check("remote@example.com", null).getEmailAvailable());
+    }
+}
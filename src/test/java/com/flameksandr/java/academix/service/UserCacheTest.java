@@ -0,0 +1,113 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.config.UserCacheProperties;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserCache userCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new UserCache(new UserCacheProperties(), meterRegistry);
+        user = new User(1, "john_doe", "john@example.com", "hash", "John Doe", Role.STUDENT, null, null, null, null);
+    }
+
+    @Test
+    void shouldShareOneEntryAcrossAllLookupKeys() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        userCache.getByEmail("john@example.com", email -> {
+            loads.incrementAndGet();
+            return Optional.of(user);
+        });
+
+        // Then
+        assertSame(user, userCache.getById(1, id -> fail("should be cached")).orElseThrow());
+        assertSame(user, userCache.getByUsername("john_doe", username -> fail("should be cached")).orElseThrow());
+        assertEquals(1, loads.get());
+        assertEquals(2, userCache.stats().hitCount());
+        assertEquals(1, userCache.stats().missCount());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void shouldDropOldEmailAndUsernameKeysOnEvict() {
+        // Given
+        userCache.put(user);
+
+        // When
+        userCache.evict(1);
+        User renamed = new User(1, "johnny", "johnny@example.com", "hash", "John Doe", Role.STUDENT, null, null, null, null);
+        userCache.put(renamed);
+
+        // Then: старые ключи больше не ведут к записи
+        assertTrue(userCache.getByEmail("john@example.com", email -> Optional.empty()).isEmpty());
+        assertTrue(userCache.getByUsername("john_doe", username -> Optional.empty()).isEmpty());
+        assertSame(renamed, userCache.getByEmail("johnny@example.com", email -> fail("should be cached")).orElseThrow());
+    }
+
+    @Test
+    void shouldNotCacheRowLoadedBeforeConcurrentEviction() throws Exception {
+        // Given: загрузка по id прочитала строку, и в этот момент коммит обновления вызывает evict
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        CompletableFuture<Optional<User>> read = CompletableFuture.supplyAsync(() -> userCache.getById(1, id -> {
+            loading.countDown();
+            await(proceed);
+            return Optional.of(user);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> eviction = CompletableFuture.runAsync(() -> userCache.evict(1));
+
+        // When: загрузка завершается уже после инвалидации
+        Thread.sleep(100);
+        proceed.countDown();
+
+        // Then: читатель получил строку, но в кэше ее нет
+        assertSame(user, read.get(5, TimeUnit.SECONDS).orElseThrow());
+        eviction.get(5, TimeUnit.SECONDS);
+        assertTrue(userCache.peekById(1).isEmpty());
+        assertTrue(userCache.peekByEmail("john@example.com").isEmpty());
+    }
+
+    @Test
+    void shouldNotCacheRowLoadedByEmailBeforeEviction() {
+        // When: инвалидация приходит, пока строка загружается по email
+        Optional<User> loaded = userCache.getByEmail("john@example.com", email -> {
+            userCache.evict(1);
+            return Optional.of(user);
+        });
+
+        // Then
+        assertSame(user, loaded.orElseThrow());
+        assertTrue(userCache.peekById(1).isEmpty());
+        assertSame(user, userCache.getByEmail("john@example.com", email -> Optional.of(user)).orElseThrow());
+        assertSame(user, userCache.peekById(1).orElseThrow());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserExportServiceTest {
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldKeepPersistenceContextFlatRegardlessOfRowCount() throws Exception {
+        // Given
+        insertUsers(0, 1000);
+        ContextSizeProbe small = new ContextSizeProbe();
+        userExportService.exportUsers(UserExportService.Format.NDJSON, small);
+
+        insertUsers(1000, 5000);
+        ContextSizeProbe large = new ContextSizeProbe();
+
+        // When
+        long exported = userExportService.exportUsers(UserExportService.Format.NDJSON, large);
+
+        // Then: число управляемых сущностей не растет вместе с выгрузкой
+        assertEquals(5000, exported);
+        assertEquals(5000, large.toString(StandardCharsets.UTF_8).lines().count());
+        assertTrue(large.flushes >= 5);
+        assertTrue(large.maxManagedEntities <= 1, "Managed entities: " + large.maxManagedEntities);
+        assertEquals(small.maxManagedEntities, large.maxManagedEntities);
+    }
+
+    @Test
+    void shouldQuoteCsvFields() throws Exception {
+        // Given
+        userRepository.save(new User(null, "doe_j", "doe@example.com", "password-hash", "Doe, \"JD\" John", Role.TEACHER, null, null, null, null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        userExportService.exportUsers(UserExportService.Format.CSV, out);
+
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals("id,username,email,full_name,role,created_at", lines.get(0));
+        assertTrue(lines.get(1).contains(",doe_j,doe@example.com,\"Doe, \"\"JD\"\" John\",TEACHER,"));
+        assertFalse(lines.get(1).contains("password-hash"));
+    }
+
+    private void insertUsers(int from, int to) {
+        List<User> users = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            users.add(new User(null, "export_" + i, "export" + i + "@example.com", "password-hash", "Export User", Role.STUDENT, null, null, null, null));
+        }
+        userRepository.saveAll(users);
+    }
+
+    // Поток ответа, который на каждом сбросе порции замеряет размер контекста персистентности
+    private class ContextSizeProbe extends ByteArrayOutputStream {
+
+        int flushes;
+        int maxManagedEntities;
+
+        @Override
+        public void flush() {
+            flushes++;
+            int managed = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+            maxManagedEntities = Math.max(maxManagedEntities, managed);
+        }
+    }
+}
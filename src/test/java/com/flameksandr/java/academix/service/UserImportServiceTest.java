@@ -0,0 +1,176 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.dto.BulkImportResultDTO;
+import com.flameksandr.java.academix.dto.BulkImportRowDTO;
+import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.exception.InvalidRequestException;
+import com.flameksandr.java.academix.exception.PasswordHashingRejectedException;
+import com.flameksandr.java.academix.exception.PayloadTooLargeException;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserRepository;
+import com.flameksandr.java.academix.security.BoundedPasswordEncoder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {"academix.import.max-rows=1000", "academix.import.max-size=64KB"})
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoSpyBean
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldInsertRowsInJdbcBatches() {
+        // Given
+        List<UserDTO> userDTOs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            userDTOs.add(new UserDTO(null, "bulk_" + i, "bulk" + i + "@example.com", "password123", "Bulk User", null));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        BulkImportResultDTO result = userImportService.importUsers(userDTOs);
+
+        // Then: вставки идут пачками, а не по запросу на строку
+        assertEquals(1000, result.getCreated());
+        assertEquals(0, result.getFailed());
+        assertEquals(1000, userRepository.count());
+        assertTrue(statistics.getPrepareStatementCount() < 100, "Prepared statements: " + statistics.getPrepareStatementCount());
+        assertEquals(Role.STUDENT, userRepository.findByUsername("bulk_0").orElseThrow().getRole());
+    }
+
+    @Test
+    void shouldReportInvalidAndDuplicateRowsIndividually() throws Exception {
+        // Given
+        userRepository.save(new User(null, "taken", "taken@example.com", "password-hash", "Existing User", Role.STUDENT, null, null, null, null));
+        String csv = """
+                username,email,password,full_name,role
+                alice,alice@example.com,password123,Alice,teacher
+                bob,not-an-email,password123,Bob,
+                taken,carol@example.com,password123,Carol,
+                dave,alice@example.com,password123,"Dave, Jr.",
+                erin,erin@example.com,password123,Erin,
+                """;
+
+        // When
+        BulkImportResultDTO result = userImportService.importCsv(new StringReader(csv));
+
+        // Then
+        List<BulkImportRowDTO> rows = result.getRows();
+        assertEquals(5, result.getTotal());
+        assertEquals(2, result.getCreated());
+        assertNotNull(rows.get(0).getId());
+        assertEquals("VALIDATION_ERROR", rows.get(1).getErrorCode());
+        assertEquals("DUPLICATE_USERNAME", rows.get(2).getErrorCode());
+        assertEquals("DUPLICATE_EMAIL", rows.get(3).getErrorCode());
+        assertNotNull(rows.get(4).getId());
+        assertEquals(Role.TEACHER, userRepository.findByUsername("alice").orElseThrow().getRole());
+    }
+
+    @Test
+    void shouldReportRowsOfRejectedChunkAndKeepCommittedOnes() {
+        // Given: пул хеширования перегружен на второй порции
+        List<UserDTO> userDTOs = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            userDTOs.add(new UserDTO(null, "busy_" + i, "busy" + i + "@example.com", "password123", "Busy User", null));
+        }
+        doCallRealMethod()
+                .doThrow(new PasswordHashingRejectedException("Password hashing queue is full"))
+                .when(passwordEncoder).encodeAll(anyList());
+
+        // When
+        BulkImportResultDTO result = userImportService.importUsers(userDTOs);
+
+        // Then: первая порция закоммичена и есть в отчете, строки второй отклонены построчно
+        assertEquals(500, result.getCreated());
+        assertEquals(100, result.getFailed());
+        assertEquals(500, userRepository.count());
+        assertNotNull(result.getRows().get(499).getId());
+        assertEquals("SERVICE_BUSY", result.getRows().get(500).getErrorCode());
+    }
+
+    @Test
+    void shouldReportRowViolatingEntityConstraintsWithoutAbortingImport() {
+        // Given: короткое имя проходит проверку UserDTO, но не ограничение User.fullName
+        List<UserDTO> userDTOs = new ArrayList<>();
+        for (int i = 0; i < 800; i++) {
+            userDTOs.add(new UserDTO(null, "short_" + i, "short" + i + "@example.com", "password123",
+                    i == 650 ? "Al" : "Short Name User", null));
+        }
+
+        // When
+        BulkImportResultDTO result = userImportService.importUsers(userDTOs);
+
+        // Then: отклонена только эта строка, порции до и после нее импортированы
+        assertEquals(799, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals("VALIDATION_ERROR", result.getRows().get(650).getErrorCode());
+        assertTrue(result.getRows().get(650).getMessage().startsWith("fullName"), result.getRows().get(650).getMessage());
+        assertNotNull(result.getRows().get(799).getId());
+        assertEquals(799, userRepository.count());
+    }
+
+    @Test
+    void shouldRejectImportsOverLimits() {
+        // Given
+        StringBuilder csv = new StringBuilder("username,email,password,full_name\n");
+        for (int i = 0; i <= 1000; i++) {
+            csv.append("csv_").append(i).append(",csv").append(i).append("@example.com,password123,Csv User\n");
+        }
+        String json = "[" + "{\"username\": \"json_user\", \"fullName\": \"" + "x".repeat(70_000) + "\"}" + "]";
+
+        // When & Then: лишняя строка CSV и JSON больше max-size не импортируются вовсе
+        assertThrows(PayloadTooLargeException.class, () -> userImportService.importCsv(new StringReader(csv.toString())));
+        assertThrows(PayloadTooLargeException.class,
+                () -> userImportService.importJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+        assertEquals(0, userRepository.count());
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void shouldImportJsonArray() throws Exception {
+        // Given
+        String json = """
+                [{"username": "json_user", "email": "json@example.com", "password": "password123", "fullName": "Json User"}]""";
+
+        // When
+        BulkImportResultDTO result = userImportService.importJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        assertEquals(1, result.getCreated());
+        assertTrue(userRepository.findByUsername("json_user").isPresent());
+        assertThrows(InvalidRequestException.class,
+                () -> userImportService.importJson(new ByteArrayInputStream("{\"username\": 1}".getBytes(StandardCharsets.UTF_8))));
+    }
+}
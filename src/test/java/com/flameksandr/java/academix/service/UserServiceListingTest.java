@@ -0,0 +1,95 @@
+package com.flameksandr.java.academix.service;
+
+import com.flameksandr.java.academix.dto.UserPageDTO;
+import com.flameksandr.java.academix.dto.UserSummaryDTO;
+import com.flameksandr.java.academix.exception.InvalidRequestException;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserServiceListingTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Role role = i % 5 == 0 ? Role.TEACHER : Role.STUDENT;
+            users.add(new User(null, "user_" + i, "user" + i + "@example.com", "password-hash-" + i, "Student " + i, role, null, null, null, null));
+        }
+        userRepository.saveAll(users);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldWalkAllPagesWithoutGapsOrDuplicates() {
+        // Given
+        List<Integer> seen = new ArrayList<>();
+        String cursor = null;
+
+        // When
+        do {
+            UserPageDTO page = userService.listUsers(null, null, cursor, 10);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertEquals(25, seen.size());
+        assertEquals(seen.stream().sorted().toList(), seen);
+    }
+
+    @Test
+    void shouldFilterByRoleAndPrefix() {
+        // When
+        UserPageDTO teachers = userService.listUsers(Role.TEACHER, null, null, 20);
+        UserPageDTO byPrefix = userService.listUsers(null, "user_2", null, 20);
+
+        // Then
+        assertEquals(5, teachers.getItems().size());
+        assertTrue(teachers.getItems().stream().allMatch(item -> item.getRole() == Role.TEACHER));
+        assertNull(teachers.getNextCursor());
+        assertEquals(List.of("user_2", "user_20", "user_21", "user_22", "user_23", "user_24"),
+                byPrefix.getItems().stream().map(UserSummaryDTO::getUsername).toList());
+    }
+
+    @Test
+    void shouldMatchPrefixRegardlessOfCase() {
+        // When
+        UserPageDTO byUsername = userService.listUsers(null, "  USER_2", null, 20);
+        UserPageDTO byEmail = userService.listUsers(null, "User24@Example", null, 20);
+        UserPageDTO byFullName = userService.listUsers(null, "STUDENT 1", null, 20);
+
+        // Then
+        assertEquals(6, byUsername.getItems().size());
+        assertEquals(List.of("user_24"), byEmail.getItems().stream().map(UserSummaryDTO::getUsername).toList());
+        assertEquals(List.of("user_1", "user_10", "user_11", "user_12", "user_13", "user_14", "user_15", "user_16", "user_17", "user_18", "user_19"),
+                byFullName.getItems().stream().map(UserSummaryDTO::getUsername).toList());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        // When & Then
+        assertThrows(InvalidRequestException.class, () -> userService.listUsers(null, null, "not-a-cursor", 10));
+    }
+}
@@ -0,0 +1,106 @@
+package com.flameksandr.java.academix.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flameksandr.java.academix.exception.InvalidRequestException;
+import com.flameksandr.java.academix.exception.UserNotFoundException;
+import com.flameksandr.java.academix.model.Role;
+import com.flameksandr.java.academix.model.User;
+import com.flameksandr.java.academix.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserServicePatchTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "patch_me", "patch@example.com", "password-hash", "Patch Me", Role.STUDENT, null, null, null, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldUpdateOnlySuppliedFieldsWithSingleStatement() throws Exception {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        userService.patchUser(user.getId(), objectMapper.readTree("{\"fullName\": \"Patched Name\"}"));
+        long statements = statistics.getPrepareStatementCount();
+
+        // Then: один UPDATE без предварительного SELECT, остальные поля не тронуты
+        assertEquals(1, statements);
+        User patched = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals("Patched Name", patched.getFullName());
+        assertEquals("patch_me", patched.getUsername());
+        assertEquals("password-hash", patched.getPassword());
+        assertEquals(user.getCreatedAt().withNano(0), patched.getCreatedAt().withNano(0));
+        assertEquals(user.getVersion() + 1, patched.getVersion());
+    }
+
+    @Test
+    void shouldLinkAndUnlinkTelegramChat() throws Exception {
+        // When
+        userService.patchUser(user.getId(), objectMapper.readTree("{\"telegramChatId\": -1001234567890}"));
+        Long linked = userRepository.findById(user.getId()).orElseThrow().getTelegramChatId();
+        userService.patchUser(user.getId(), objectMapper.readTree("{\"telegramChatId\": null}"));
+
+        // Then
+        assertEquals(-1001234567890L, linked);
+        assertNull(userRepository.findById(user.getId()).orElseThrow().getTelegramChatId());
+        assertThrows(InvalidRequestException.class,
+                () -> userService.patchUser(user.getId(), objectMapper.readTree("{\"telegramChatId\": \"abc\"}")));
+    }
+
+    @Test
+    void shouldApplyConcurrentEditsOfDifferentFieldsWithoutVersion() throws Exception {
+        // When: два администратора меняют разные поля, не зная о правках друг друга
+        userService.patchUser(user.getId(), objectMapper.readTree("{\"fullName\": \"Admin One\"}"));
+        userService.patchUser(user.getId(), objectMapper.readTree("{\"role\": \"TEACHER\"}"));
+
+        // Then
+        User patched = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals("Admin One", patched.getFullName());
+        assertEquals(Role.TEACHER, patched.getRole());
+    }
+
+    @Test
+    void shouldRejectStaleVersionAndUnknownUser() throws Exception {
+        // Given
+        userService.patchUser(user.getId(), objectMapper.readTree("{\"fullName\": \"First Edit\"}"));
+        String stalePatch = "{\"fullName\": \"Second Edit\", \"version\": " + user.getVersion() + "}";
+
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class, () -> userService.patchUser(user.getId(), objectMapper.readTree(stalePatch)));
+        assertThrows(UserNotFoundException.class, () -> userService.patchUser(-1, objectMapper.readTree("{\"fullName\": \"Nobody\"}")));
+        assertThrows(InvalidRequestException.class, () -> userService.patchUser(user.getId(), objectMapper.readTree("{\"email\": \"not-an-email\"}")));
+        assertEquals("First Edit", userRepository.findById(user.getId()).orElseThrow().getFullName());
+    }
+}
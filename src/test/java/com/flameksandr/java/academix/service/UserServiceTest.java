@@ -1,17 +1,27 @@
 package com.flameksandr.java.academix.service;
 
+import com.flameksandr.java.academix.cache.CacheInvalidationBus;
+import com.flameksandr.java.academix.config.UserCacheProperties;
 import com.flameksandr.java.academix.dto.UserDTO;
+import com.flameksandr.java.academix.exception.DuplicateUserException;
 import com.flameksandr.java.academix.exception.UserNotFoundException;
+import com.flameksandr.java.academix.mapper.UserMapper;
 import com.flameksandr.java.academix.model.User;
 import com.flameksandr.java.academix.model.Role;
 import com.flameksandr.java.academix.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,7 +36,22 @@ class UserServiceTest {
     private PasswordEncoder passwordEncoder;
 
     @Mock
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Mock
+    private UserAvailabilityService userAvailabilityService;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private UserCache userCache = new UserCache(new UserCacheProperties(), new SimpleMeterRegistry());
 
     @InjectMocks
     private UserService userService;
@@ -37,7 +62,7 @@ class UserServiceTest {
     @BeforeEach
     void setUp() {
         userDTO = new UserDTO(1, "john_doe", "john@example.com", "password123", "John Doe", Role.STUDENT);
-        user = new User(1, "john_doe", "john@example.com", "password123", "John Doe", Role.STUDENT, null, null);
+        user = new User(1, "john_doe", "john@example.com", "password123", "John Doe", Role.STUDENT, null, null, null, null);
     }
 
     @Test
@@ -59,10 +84,9 @@ class UserServiceTest {
     @Test
     void testCreateUser_Success() {
         // Given
-        when(userRepository.existsByEmail(userDTO.getEmail())).thenReturn(false);
-        when(userRepository.existsByUsername(userDTO.getUsername())).thenReturn(false);
-        when(modelMapper.map(userDTO, User.class)).thenReturn(user);
-        when(userRepository.save(user)).thenReturn(user);
+        when(userMapper.toEntity(userDTO)).thenReturn(user);
+        when(passwordEncoder.encode(userDTO.getPassword())).thenReturn("encodedPassword123");
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
 
         // When
         User createdUser = userService.createUser(userDTO);
@@ -71,30 +95,35 @@ class UserServiceTest {
         assertNotNull(createdUser);
         assertEquals(userDTO.getUsername(), createdUser.getUsername());
         assertEquals(userDTO.getEmail(), createdUser.getEmail());
-        verify(userRepository, times(1)).save(user);
+        assertEquals("encodedPassword123", createdUser.getPassword());
+        verify(passwordEncoder, times(1)).encode(userDTO.getPassword());
+        verify(userRepository, times(1)).saveAndFlush(user);
+        verify(userRepository, never()).existsByEmail(any());
+        verify(userRepository, never()).existsByUsername(any());
     }
 
     @Test
     void testCreateUser_EmailAlreadyExists() {
         // Given
-        when(userRepository.existsByEmail(userDTO.getEmail())).thenReturn(true);
+        when(userMapper.toEntity(userDTO)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenThrow(constraintViolation(User.EMAIL_CONSTRAINT));
 
         // When & Then
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> userService.createUser(userDTO));
+        DuplicateUserException exception = assertThrows(DuplicateUserException.class, () -> userService.createUser(userDTO));
         assertEquals("Email already exists", exception.getMessage());
-        verify(userRepository, never()).save(any());
+        assertEquals(DuplicateUserException.Field.EMAIL, exception.getField());
     }
 
     @Test
     void testCreateUser_UsernameAlreadyExists() {
         // Given
-        when(userRepository.existsByEmail(userDTO.getEmail())).thenReturn(false);
-        when(userRepository.existsByUsername(userDTO.getUsername())).thenReturn(true);
+        when(userMapper.toEntity(userDTO)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenThrow(constraintViolation(User.USERNAME_CONSTRAINT));
 
         // When & Then
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> userService.createUser(userDTO));
+        DuplicateUserException exception = assertThrows(DuplicateUserException.class, () -> userService.createUser(userDTO));
         assertEquals("Username already exists", exception.getMessage());
-        verify(userRepository, never()).save(any());
+        assertEquals(DuplicateUserException.Field.USERNAME, exception.getField());
     }
 
     @Test
@@ -111,6 +140,20 @@ class UserServiceTest {
         verify(userRepository, times(1)).findByEmail(userDTO.getEmail());
     }
 
+    @Test
+    void testGetUserByEmail_ServedFromCacheOnSecondCall() {
+        // Given
+        when(userRepository.findByEmail(userDTO.getEmail())).thenReturn(java.util.Optional.of(user));
+
+        // When
+        userService.getUserByEmail(userDTO.getEmail());
+        User foundUser = userService.getUserByEmail(userDTO.getEmail());
+
+        // Then
+        assertSame(user, foundUser);
+        verify(userRepository, times(1)).findByEmail(userDTO.getEmail());
+    }
+
     @Test
     void testGetUserByEmail_NotFound() {
         // Given
@@ -150,8 +193,8 @@ class UserServiceTest {
     @Test
     void testUpdateUser_Success() {
         // Given
-        when(userRepository.existsById(userDTO.getId())).thenReturn(true);
-        when(modelMapper.map(userDTO, User.class)).thenReturn(user);
+        when(userRepository.findById(userDTO.getId())).thenReturn(java.util.Optional.of(user));
+        when(passwordEncoder.encode(userDTO.getPassword())).thenReturn("encodedPassword123");
         when(userRepository.save(user)).thenReturn(user);
 
         // When
@@ -160,13 +203,20 @@ class UserServiceTest {
         // Then
         assertNotNull(updatedUser);
         assertEquals(userDTO.getId(), updatedUser.getId());
+        assertEquals("encodedPassword123", updatedUser.getPassword());
+        verify(userMapper, times(1)).copyProfile(userDTO, user);
         verify(userRepository, times(1)).save(user);
+        // Пароль хешируется до начала транзакции: соединение не занято на время bcrypt
+        InOrder order = inOrder(passwordEncoder, transactionManager, userRepository);
+        order.verify(passwordEncoder).encode(userDTO.getPassword());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(userRepository).findById(userDTO.getId());
     }
 
     @Test
     void testUpdateUser_NotFound() {
         // Given
-        when(userRepository.existsById(userDTO.getId())).thenReturn(false);
+        when(userRepository.findById(userDTO.getId())).thenReturn(java.util.Optional.empty());
 
         // When & Then
         UserNotFoundException exception = assertThrows(UserNotFoundException.class, () -> userService.updateUser(userDTO));
@@ -184,6 +234,7 @@ class UserServiceTest {
 
         // Then
         verify(userRepository, times(1)).deleteById(userDTO.getId());
+        verify(cacheInvalidationBus, times(1)).publish(userDTO.getId());
     }
 
     @Test
@@ -196,4 +247,9 @@ class UserServiceTest {
         assertEquals("User not found with id: " + userDTO.getId(), exception.getMessage());
         verify(userRepository, never()).deleteById(any());
     }
+
+    private static DataIntegrityViolationException constraintViolation(String constraintName) {
+        return new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException(), constraintName));
+    }
 }
@@ -0,0 +1,81 @@
+package com.flameksandr.java.academix.telegram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flameksandr.java.academix.config.TelegramProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTelegramClientTest {
+
+    private static TelegramStubServer stubServer;
+
+    private HttpTelegramClient client;
+
+    @BeforeAll
+    static void startStub() throws IOException {
+        stubServer = new TelegramStubServer();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stubServer.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stubServer.reset();
+        client = new HttpTelegramClient(properties(stubServer.getUri()), new ObjectMapper());
+    }
+
+    @Test
+    void shouldMapBotApiResponses() {
+        // Given
+        stubServer.block(2);
+        stubServer.failTransiently(3, 1);
+
+        // When & Then
+        assertEquals(TelegramClient.Delivery.SENT, client.sendMessage(1, "Привет"));
+        assertEquals(TelegramClient.Delivery.REJECTED, client.sendMessage(2, "Привет"));
+        assertEquals(TelegramClient.Delivery.RETRY, client.sendMessage(3, "Привет"));
+        assertEquals("Привет", stubServer.getDelivered(1).get(0).text());
+    }
+
+    @Test
+    void shouldReadRetryAfterFromTooManyRequests() {
+        // Given
+        stubServer.limitMessagesPerSecond(1);
+        client.sendMessage(1, "first");
+
+        // When
+        TelegramClient.Delivery delivery = client.sendMessage(2, "second");
+
+        // Then
+        assertEquals(TelegramClient.Status.RETRY, delivery.status());
+        assertEquals(Duration.ofSeconds(1), delivery.retryAfter());
+    }
+
+    @Test
+    void shouldRetryWhenServerIsUnreachable() {
+        // Given: порт, на котором никто не слушает
+        HttpTelegramClient unreachable = new HttpTelegramClient(properties(URI.create("http://127.0.0.1:9")), new ObjectMapper());
+
+        // When & Then
+        assertEquals(TelegramClient.Status.RETRY, unreachable.sendMessage(1, "text").status());
+    }
+
+    private static TelegramProperties properties(URI apiUrl) {
+        TelegramProperties properties = new TelegramProperties();
+        properties.setApiUrl(apiUrl);
+        properties.setBotToken("123:test");
+        properties.setRequestTimeout(Duration.ofSeconds(2));
+        return properties;
+    }
+}
@@ -0,0 +1,158 @@
+package com.flameksandr.java.academix.telegram;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Локальная заглушка Bot API для проверки рассылки без сети.
+ * <p>
+ * Отвечает на {@code POST /bot<token>/sendMessage} как Telegram: 200 при успехе, 429 с {@code retry_after}
+ * при превышении лимита сообщений в секунду, 500 для чатов с назначенными временными сбоями
+ * и 403 для чатов, заблокировавших бота. Запоминает доставленные сообщения и время каждой доставки.
+ */
+public class TelegramStubServer implements AutoCloseable {
+
+    /**
+     * Доставленное сообщение и момент доставки по {@link System#nanoTime()}.
+     */
+    public record Message(long chatId, String text, long deliveredAtNanos) {
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Message> delivered = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Long, AtomicInteger> transientFailures = new ConcurrentHashMap<>();
+    private final Set<Long> blockedChats = ConcurrentHashMap.newKeySet();
+    private final Deque<Long> recentDeliveries = new ArrayDeque<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger throttled = new AtomicInteger();
+    private volatile int messagesPerSecond = Integer.MAX_VALUE;
+
+    public TelegramStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public URI getUri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    // Лимит сообщений в скользящем окне в одну секунду; сверх него — 429 с retry_after=1
+    public void limitMessagesPerSecond(int messagesPerSecond) {
+        this.messagesPerSecond = messagesPerSecond;
+    }
+
+    // Первые failures запросов к чату получат 500
+    public void failTransiently(long chatId, int failures) {
+        transientFailures.put(chatId, new AtomicInteger(failures));
+    }
+
+    // Чат, заблокировавший бота: всегда 403
+    public void block(long chatId) {
+        blockedChats.add(chatId);
+    }
+
+    public List<Message> getDelivered() {
+        synchronized (delivered) {
+            return List.copyOf(delivered);
+        }
+    }
+
+    public List<Message> getDelivered(long chatId) {
+        return getDelivered().stream().filter(message -> message.chatId() == chatId).toList();
+    }
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    public int getThrottled() {
+        return throttled.get();
+    }
+
+    public void reset() {
+        delivered.clear();
+        transientFailures.clear();
+        blockedChats.clear();
+        synchronized (recentDeliveries) {
+            recentDeliveries.clear();
+        }
+        requests.set(0);
+        throttled.set(0);
+        messagesPerSecond = Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            if (!"POST".equals(exchange.getRequestMethod()) || !exchange.getRequestURI().getPath().endsWith("/sendMessage")) {
+                respond(exchange, 404, "{\"ok\":false,\"error_code\":404,\"description\":\"Not Found\"}");
+                return;
+            }
+            JsonNode body = objectMapper.readTree(exchange.getRequestBody());
+            long chatId = body.path("chat_id").asLong();
+            if (blockedChats.contains(chatId)) {
+                respond(exchange, 403, "{\"ok\":false,\"error_code\":403,\"description\":\"Forbidden: bot was blocked by the user\"}");
+                return;
+            }
+            AtomicInteger failures = transientFailures.get(chatId);
+            if (failures != null && failures.getAndDecrement() > 0) {
+                respond(exchange, 500, "{\"ok\":false,\"error_code\":500,\"description\":\"Internal Server Error\"}");
+                return;
+            }
+            long now = System.nanoTime();
+            synchronized (recentDeliveries) {
+                while (!recentDeliveries.isEmpty() && now - recentDeliveries.peekFirst() >= 1_000_000_000L) {
+                    recentDeliveries.pollFirst();
+                }
+                if (recentDeliveries.size() >= messagesPerSecond) {
+                    throttled.incrementAndGet();
+                    respond(exchange, 429, "{\"ok\":false,\"error_code\":429,\"description\":\"Too Many Requests: retry after 1\","
+                            + "\"parameters\":{\"retry_after\":1}}");
+                    return;
+                }
+                recentDeliveries.addLast(now);
+            }
+            delivered.add(new Message(chatId, body.path("text").asText(), now));
+            respond(exchange, 200, "{\"ok\":true,\"result\":{\"message_id\":" + requests.get() + "}}");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}